@@ -0,0 +1,17 @@
+package com.translate.webtranslator.cache;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The CacheInvalidationEvent class lists the cache keys made stale by one entity change,
+ * grouped by the name of the cache that holds them.
+ *
+ * @param keys The stale keys of every affected cache.
+ */
+public record CacheInvalidationEvent(Map<String, Set<CacheKey>> keys) {
+
+    public boolean isEmpty() {
+        return keys.values().stream().allMatch(Set::isEmpty);
+    }
+}
@@ -0,0 +1,183 @@
+package com.translate.webtranslator.cache;
+
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import java.io.Serializable;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import org.hibernate.Hibernate;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+/**
+ * The CacheInvalidationListener class turns entity lifecycle events into CacheInvalidationEvents.
+ * A changed entity invalidates every key it can be cached under (id, text content or
+ * language name, before and after the change) and the keys of the cached aggregates that embed it:
+ * a text invalidates its translations and languages, a translation its old and new text,
+ * a language its texts. Changes of a link table only fire collection events, so the listener is
+ * also registered for those by {@link CacheInvalidationRegistrar}.
+ * Collections that are not loaded are skipped, so the listener never queries during a flush.
+ */
+@Component
+public class CacheInvalidationListener implements PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener, PostCollectionRemoveEventListener {
+
+    private final ApplicationEventPublisher publisher;
+
+    public CacheInvalidationListener(ApplicationEventPublisher publisher) {
+        this.publisher = publisher;
+    }
+
+    /**
+     * Publishes the invalidation for an inserted, updated or deleted entity.
+     *
+     * @param entity The changed entity.
+     */
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onEntityChange(Object entity) {
+        Map<String, Set<CacheKey>> keys = new HashMap<>();
+        addAggregate(keys, entity);
+        publish(keys);
+    }
+
+    /**
+     * Publishes one invalidation for entities written by statements that bypass the listener.
+     *
+     * @param entities The changed entities.
+     */
+    public void onEntitiesChange(Collection<?> entities) {
+        Map<String, Set<CacheKey>> keys = new HashMap<>();
+        entities.forEach(entity -> addAggregate(keys, entity));
+        publish(keys);
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        onCollectionChange(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        onCollectionChange(event);
+    }
+
+    private void onCollectionChange(AbstractCollectionEvent event) {
+        Object owner = event.getAffectedOwnerOrNull();
+        if (owner == null) {
+            return;
+        }
+        Map<String, Set<CacheKey>> keys = new HashMap<>();
+        addAggregate(keys, owner);
+        // Elements removed from the collection are only reachable through the snapshot.
+        Serializable snapshot = event.getCollection().getStoredSnapshot();
+        if (snapshot instanceof Collection<?> elements) {
+            elements.forEach(element -> addEntity(keys, element));
+        } else if (snapshot instanceof Map<?, ?> elements) {
+            elements.values().forEach(element -> addEntity(keys, element));
+        }
+        publish(keys);
+    }
+
+    private void publish(Map<String, Set<CacheKey>> keys) {
+        CacheInvalidationEvent event = new CacheInvalidationEvent(keys);
+        if (!event.isEmpty()) {
+            publisher.publishEvent(event);
+        }
+    }
+
+    private static void addAggregate(Map<String, Set<CacheKey>> keys, Object entity) {
+        addEntity(keys, entity);
+        if (entity instanceof Text text) {
+            if (isLoaded(text.getTranslations())) {
+                text.getTranslations().forEach(translation -> addEntity(keys, translation));
+            }
+            if (isLoaded(text.getLanguages())) {
+                text.getLanguages().forEach(language -> addEntity(keys, language));
+            }
+        } else if (entity instanceof Translation translation) {
+            addEntity(keys, translation.getText());
+            addEntity(keys, translation.getPersistedText());
+        } else if (entity instanceof Language language && isLoaded(language.getTexts())) {
+            language.getTexts().forEach(text -> addEntity(keys, text));
+        }
+    }
+
+    private static void addEntity(Map<String, Set<CacheKey>> keys, Object entity) {
+        if (entity instanceof Text text) {
+            add(keys, CacheConfig.TEXT_CACHE, text.getId());
+            if (Hibernate.isInitialized(text)) {
+                add(keys, CacheConfig.TEXT_CACHE, text.getTextToTranslate(), text.getContentHash());
+                addIfChanged(keys, CacheConfig.TEXT_CACHE, text.getPersistedTextToTranslate(),
+                        text.getTextToTranslate());
+            }
+        } else if (entity instanceof Translation translation) {
+            add(keys, CacheConfig.TRANSLATION_CACHE, translation.getId());
+            if (Hibernate.isInitialized(translation)) {
+                add(keys, CacheConfig.TRANSLATION_CACHE, translation.getTranslatedText(),
+                        translation.getContentHash());
+                addIfChanged(keys, CacheConfig.TRANSLATION_CACHE, translation.getPersistedTranslatedText(),
+                        translation.getTranslatedText());
+            }
+        } else if (entity instanceof Language language) {
+            add(keys, CacheConfig.LANGUAGE_CACHE, language.getId());
+            if (Hibernate.isInitialized(language)) {
+                add(keys, CacheConfig.LANGUAGE_CACHE, language.getName());
+                add(keys, CacheConfig.LANGUAGE_CACHE, language.getPersistedName());
+            }
+        }
+    }
+
+    private static void add(Map<String, Set<CacheKey>> keys, String cacheName, Long id) {
+        if (id != null) {
+            keys.computeIfAbsent(cacheName, name -> new HashSet<>()).add(CacheKey.id(id));
+        }
+    }
+
+    private static void add(Map<String, Set<CacheKey>> keys, String cacheName, String content) {
+        if (content != null) {
+            keys.computeIfAbsent(cacheName, name -> new HashSet<>()).add(CacheKey.content(content));
+        }
+    }
+
+    private static void add(Map<String, Set<CacheKey>> keys, String cacheName, String content,
+                            Long fingerprint) {
+        if (content != null) {
+            keys.computeIfAbsent(cacheName, name -> new HashSet<>())
+                    .add(CacheKey.content(content, fingerprint));
+        }
+    }
+
+    private static void addIfChanged(Map<String, Set<CacheKey>> keys, String cacheName,
+                                     String persistedContent, String content) {
+        if (!Objects.equals(persistedContent, content)) {
+            add(keys, cacheName, persistedContent);
+        }
+    }
+
+    private static boolean isLoaded(Collection<?> collection) {
+        return collection != null && Hibernate.isInitialized(collection);
+    }
+}
@@ -0,0 +1,26 @@
+package com.translate.webtranslator.cache;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.springframework.stereotype.Component;
+
+/**
+ * The CacheInvalidationRegistrar class registers CacheInvalidationListener for Hibernate
+ * collection events, which JPA has no callbacks for. Adding a language to a text or removing it
+ * only changes the link table, so without these events the cached language would keep
+ * listing the old texts.
+ */
+@Component
+public class CacheInvalidationRegistrar {
+
+    public CacheInvalidationRegistrar(EntityManagerFactory entityManagerFactory,
+                                      CacheInvalidationListener listener) {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+}
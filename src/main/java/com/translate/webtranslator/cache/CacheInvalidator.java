@@ -0,0 +1,42 @@
+package com.translate.webtranslator.cache;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * The CacheInvalidator class evicts the keys of a CacheInvalidationEvent from the cache beans.
+ * Eviction waits until the transaction that changed the entity has completed, so a reader can't
+ * load and cache the old row between the eviction and the commit. It also runs after a rollback,
+ * which drops values the services cached before the write failed. Changes made outside of a
+ * transaction are evicted at once.
+ */
+@Component
+public class CacheInvalidator {
+
+    private final Map<String, InMemoryCache> caches;
+
+    public CacheInvalidator(List<InMemoryCache> caches) {
+        this.caches = caches.stream()
+                .collect(Collectors.toMap(InMemoryCache::getName, Function.identity()));
+    }
+
+    /**
+     * Removes every key of the event from the cache it belongs to.
+     *
+     * @param event The keys made stale by an entity change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMPLETION, fallbackExecution = true)
+    public void invalidate(CacheInvalidationEvent event) {
+        event.keys().forEach((cacheName, keys) -> {
+            InMemoryCache cache = caches.get(cacheName);
+            if (cache != null) {
+                keys.forEach(cache::remove);
+            }
+        });
+    }
+}
@@ -1,44 +1,58 @@
 package com.translate.webtranslator.cache;
 
+import com.translate.webtranslator.model.ContentHash;
 import java.util.Objects;
 
 /**
- * The CacheKey class represents a key used for caching purposes.
- * It encapsulates the actual key object.
+ * The CacheKey interface represents a key used for caching purposes.
+ * Every cache holds a single entity type, which is cached under its id as an {@link IdKey}
+ * and under its content, translated text or name as a {@link ContentKey}. Keys of different
+ * kinds are never equal, so an id and a content with the same spelling can't collide.
+ * Both kinds compute their hash once, content keys from the same fingerprint the entities
+ * store, and id keys are interned, so looking up a hot id allocates nothing.
  */
-public class CacheKey {
-    private final Object key;
+public sealed interface CacheKey permits IdKey, ContentKey {
 
-    public CacheKey(Object key) {
-        this.key = key;
+    /**
+     * Returns the key of an entity id.
+     *
+     * @param id The id of the entity.
+     * @return The key, shared with earlier calls for the same id when it is still interned.
+     */
+    static IdKey id(long id) {
+        return IdKey.of(id);
     }
 
-    public Object getKey() {
-        return key;
+    /**
+     * Returns the key of an entity content, translated text or name.
+     *
+     * @param content The content of the entity.
+     * @return The key.
+     */
+    static ContentKey content(String content) {
+        return new ContentKey(content, ContentHash.of(Objects.requireNonNull(content, "content")));
     }
 
-    @Override
-    public boolean equals(Object obj) {
-        if (this == obj) {
-            return true;
-        }
-        if (obj == null || getClass() != obj.getClass()) {
-            return false;
-        }
-        CacheKey otherKey = (CacheKey) obj;
-        return Objects.equals(key, otherKey.key);
+    /**
+     * Returns the key of an entity content whose fingerprint is already known,
+     * such as the content hash of a loaded entity.
+     *
+     * @param content The content of the entity.
+     * @param fingerprint The {@link ContentHash} of the content.
+     * @return The key.
+     */
+    static ContentKey content(String content, long fingerprint) {
+        return new ContentKey(content, fingerprint);
     }
 
-    @Override
-    public int hashCode() {
-        final int prime = 31;
-        int result = 1;
-        result = prime * result + (key != null ? key.hashCode() : 0);
-        return result;
-    }
-
-    @Override
-    public String toString() {
-        return "Key{" + "key=" + key + '}';
+    /**
+     * Returns the key of an entity content known only by its fingerprint, as decoded from
+     * another node or a snapshot. It stands for whatever content with that fingerprint is cached.
+     *
+     * @param fingerprint The {@link ContentHash} of the content.
+     * @return The key.
+     */
+    static ContentKey contentHash(long fingerprint) {
+        return new ContentKey(null, fingerprint);
     }
 }
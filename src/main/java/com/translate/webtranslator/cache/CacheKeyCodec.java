@@ -0,0 +1,50 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The CacheKeyCodec class converts cache keys to strings and back, so they can leave the JVM.
+ * The first character tells the kind of the key, L for ids and H for contents and names,
+ * followed by the id or the {@link com.translate.webtranslator.model.ContentHash} fingerprint
+ * of the content. So an encoded key is short whatever the length of the content, and decodes
+ * to a key known only by its fingerprint.
+ */
+public final class CacheKeyCodec {
+
+    private CacheKeyCodec() {
+    }
+
+    /**
+     * Encodes a cache key.
+     *
+     * @param cacheKey The key to encode.
+     * @return The encoded key.
+     */
+    public static String encode(CacheKey cacheKey) {
+        if (cacheKey instanceof IdKey idKey) {
+            return "L" + idKey.getId();
+        }
+        return "H" + ((ContentKey) cacheKey).getFingerprint();
+    }
+
+    /**
+     * Decodes a key produced by {@link #encode(CacheKey)}.
+     *
+     * @param encoded The encoded key.
+     * @return The cache key.
+     * @throws IllegalArgumentException If the string is not an encoded key.
+     */
+    public static CacheKey decode(String encoded) {
+        if (encoded == null || encoded.isEmpty()) {
+            throw new IllegalArgumentException("Encoded cache key is empty");
+        }
+        String value = encoded.substring(1);
+        try {
+            return switch (encoded.charAt(0)) {
+                case 'L' -> CacheKey.id(Long.parseLong(value));
+                case 'H' -> CacheKey.contentHash(Long.parseLong(value));
+                default -> throw new IllegalArgumentException("Unknown cache key type: " + encoded);
+            };
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Malformed cache key: " + encoded, e);
+        }
+    }
+}
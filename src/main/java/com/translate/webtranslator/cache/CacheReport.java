@@ -0,0 +1,30 @@
+package com.translate.webtranslator.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The CacheReport record is a point-in-time view of the size and statistics of one cache.
+ */
+public record CacheReport(String name, int size, int maxSize, long weight, long maxWeight,
+                          long hitCount, long missCount, double hitRate, long putCount,
+                          long evictionCount, long expirationCount, long loadSuccessCount,
+                          long loadFailureCount, long totalLoadTimeMillis, int offHeapSize,
+                          long offHeapBytes, long demotionCount, long promotionCount) {
+
+    /**
+     * Creates a report from the current state of the cache.
+     *
+     * @param cache The cache to report on.
+     * @return The report.
+     */
+    public static CacheReport of(InMemoryCache cache) {
+        CacheStats stats = cache.getStats();
+        return new CacheReport(cache.getName(), cache.getSize(), cache.getMaxSize(),
+                cache.getWeight(), cache.getMaxWeight(), stats.getHitCount(), stats.getMissCount(),
+                stats.getHitRate(), stats.getPutCount(), stats.getEvictionCount(),
+                stats.getExpirationCount(), stats.getLoadSuccessCount(),
+                stats.getLoadFailureCount(), TimeUnit.NANOSECONDS.toMillis(stats.getTotalLoadTime()),
+                cache.getOffHeapSize(), cache.getOffHeapBytes(), stats.getDemotionCount(),
+                stats.getPromotionCount());
+    }
+}
@@ -0,0 +1,10 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The CacheSnapshotEntry record is one entry of a cache snapshot.
+ *
+ * @param key The key of the entry.
+ * @param value The serialized value, or null when only the key was saved.
+ */
+public record CacheSnapshotEntry(CacheKey key, byte[] value) {
+}
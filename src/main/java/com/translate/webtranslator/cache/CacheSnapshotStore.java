@@ -0,0 +1,117 @@
+package com.translate.webtranslator.cache;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The CacheSnapshotStore class saves the entries of a cache to a local file and reads them back.
+ * Every cache has its own &lt;cacheName&gt;.snapshot file in the snapshot directory. A snapshot is
+ * written to a temporary file first and then moved over the old one, so a crash while
+ * writing never leaves a truncated snapshot behind.
+ */
+public class CacheSnapshotStore {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotStore.class);
+
+    private static final int MAGIC = 0x57544353;
+    private static final int VERSION = 1;
+
+    private final Path directory;
+
+    public CacheSnapshotStore(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Replaces the snapshot of the cache.
+     *
+     * @param cacheName The name of the cache.
+     * @param entries The entries to save, in the order they should be restored.
+     * @return The number of saved entries.
+     * @throws IOException If the snapshot can't be written.
+     */
+    public int write(String cacheName, List<CacheSnapshotEntry> entries) throws IOException {
+        Files.createDirectories(directory);
+        Path target = fileOf(cacheName);
+        Path temporary = Files.createTempFile(directory, cacheName, ".tmp");
+        int written = 0;
+        try {
+            try (OutputStream file = Files.newOutputStream(temporary);
+                 DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                for (CacheSnapshotEntry entry : entries) {
+                    byte[] keyBytes = CacheKeyCodec.encode(entry.key()).getBytes(StandardCharsets.UTF_8);
+                    out.writeBoolean(true);
+                    out.writeInt(keyBytes.length);
+                    out.write(keyBytes);
+                    out.writeInt(entry.value() == null ? -1 : entry.value().length);
+                    if (entry.value() != null) {
+                        out.write(entry.value());
+                    }
+                    written++;
+                }
+                out.writeBoolean(false);
+            }
+            Files.move(temporary, target, StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+        return written;
+    }
+
+    /**
+     * Reads the snapshot of the cache.
+     *
+     * @param cacheName The name of the cache.
+     * @return The saved entries, or an empty list when there is no usable snapshot.
+     */
+    public List<CacheSnapshotEntry> read(String cacheName) {
+        Path file = fileOf(cacheName);
+        List<CacheSnapshotEntry> entries = new ArrayList<>();
+        try (InputStream stream = Files.newInputStream(file);
+             DataInputStream in = new DataInputStream(new BufferedInputStream(stream))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                logger.warn("Ignoring snapshot {} of an unknown format", file);
+                return List.of();
+            }
+            while (in.readBoolean()) {
+                byte[] keyBytes = new byte[in.readInt()];
+                in.readFully(keyBytes);
+                CacheKey key = CacheKeyCodec.decode(new String(keyBytes, StandardCharsets.UTF_8));
+                int length = in.readInt();
+                byte[] value = null;
+                if (length >= 0) {
+                    value = new byte[length];
+                    in.readFully(value);
+                }
+                entries.add(new CacheSnapshotEntry(key, value));
+            }
+            return entries;
+        } catch (NoSuchFileException e) {
+            return List.of();
+        } catch (IOException | RuntimeException e) {
+            logger.warn("Ignoring unreadable snapshot {}", file, e);
+            return List.of();
+        }
+    }
+
+    private Path fileOf(String cacheName) {
+        return directory.resolve(cacheName + ".snapshot");
+    }
+}
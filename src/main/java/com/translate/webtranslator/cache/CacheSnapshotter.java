@@ -0,0 +1,51 @@
+package com.translate.webtranslator.cache;
+
+import com.translate.webtranslator.config.CacheProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The CacheSnapshotter class periodically saves the entries of every InMemoryCache bean
+ * through the CacheSnapshotStore, and once more on shutdown, so the next start can warm
+ * the caches with what this node was serving.
+ */
+@Component
+@ConditionalOnProperty(prefix = "cache.snapshot", name = "enabled", havingValue = "true")
+public class CacheSnapshotter {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSnapshotter.class);
+
+    private final List<InMemoryCache> caches;
+    private final CacheSnapshotStore snapshotStore;
+    private final boolean includeValues;
+
+    public CacheSnapshotter(List<InMemoryCache> caches, CacheSnapshotStore snapshotStore,
+                            CacheProperties properties) {
+        this.caches = caches;
+        this.snapshotStore = snapshotStore;
+        this.includeValues = properties.getSnapshot().isIncludeValues();
+    }
+
+    /**
+     * Saves all caches. The delay between snapshots is cache.snapshot.interval.
+     */
+    @Scheduled(fixedDelayString = "${cache.snapshot.interval:PT5M}",
+               initialDelayString = "${cache.snapshot.interval:PT5M}")
+    @PreDestroy
+    public void snapshot() {
+        for (InMemoryCache cache : caches) {
+            try {
+                int saved = snapshotStore.write(cache.getName(), cache.snapshot(includeValues));
+                logger.debug("Saved {} entries of {}", saved, cache.getName());
+            } catch (IOException e) {
+                logger.warn("Failed to save the snapshot of {}", cache.getName(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.translate.webtranslator.cache;
+
+import java.time.Duration;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * The CacheSpec class describes the limits of a single InMemoryCache.
+ * It is bound from the cache.specs.&lt;cacheName&gt; section of application.properties.
+ * A null maxWeight or expiry disables that limit, a null offHeapSize disables the off-heap tier.
+ */
+public class CacheSpec {
+
+    private int maxEntries = 1000;
+    private DataSize maxWeight;
+    private Duration expireAfterWrite;
+    private Duration expireAfterAccess;
+    private Duration failureTtl = Duration.ofSeconds(1);
+    private Duration absentTtl;
+    private DataSize offHeapSize;
+    private int concurrencyLevel = Runtime.getRuntime().availableProcessors() * 2;
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DataSize getMaxWeight() {
+        return maxWeight;
+    }
+
+    public void setMaxWeight(DataSize maxWeight) {
+        this.maxWeight = maxWeight;
+    }
+
+    public Duration getExpireAfterWrite() {
+        return expireAfterWrite;
+    }
+
+    public void setExpireAfterWrite(Duration expireAfterWrite) {
+        this.expireAfterWrite = expireAfterWrite;
+    }
+
+    public Duration getExpireAfterAccess() {
+        return expireAfterAccess;
+    }
+
+    public void setExpireAfterAccess(Duration expireAfterAccess) {
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    public Duration getFailureTtl() {
+        return failureTtl;
+    }
+
+    public void setFailureTtl(Duration failureTtl) {
+        this.failureTtl = failureTtl;
+    }
+
+    public Duration getAbsentTtl() {
+        return absentTtl;
+    }
+
+    public void setAbsentTtl(Duration absentTtl) {
+        this.absentTtl = absentTtl;
+    }
+
+    public DataSize getOffHeapSize() {
+        return offHeapSize;
+    }
+
+    public void setOffHeapSize(DataSize offHeapSize) {
+        this.offHeapSize = offHeapSize;
+    }
+
+    public int getConcurrencyLevel() {
+        return concurrencyLevel;
+    }
+
+    public void setConcurrencyLevel(int concurrencyLevel) {
+        this.concurrencyLevel = concurrencyLevel;
+    }
+}
@@ -0,0 +1,127 @@
+package com.translate.webtranslator.cache;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The CacheStats class accumulates the statistics of one InMemoryCache.
+ * Every counter is a LongAdder, so concurrent readers record hits and misses
+ * into striped cells instead of contending on a single shared counter.
+ */
+public class CacheStats {
+
+    private final LongAdder hitCount = new LongAdder();
+    private final LongAdder missCount = new LongAdder();
+    private final LongAdder putCount = new LongAdder();
+    private final LongAdder evictionCount = new LongAdder();
+    private final LongAdder expirationCount = new LongAdder();
+    private final LongAdder loadSuccessCount = new LongAdder();
+    private final LongAdder loadFailureCount = new LongAdder();
+    private final LongAdder totalLoadTime = new LongAdder();
+    private final LongAdder demotionCount = new LongAdder();
+    private final LongAdder promotionCount = new LongAdder();
+
+    public void recordHit() {
+        hitCount.increment();
+    }
+
+    public void recordMiss() {
+        missCount.increment();
+    }
+
+    public void recordPut() {
+        putCount.increment();
+    }
+
+    public void recordEviction() {
+        evictionCount.increment();
+    }
+
+    public void recordExpirations(int count) {
+        expirationCount.add(count);
+    }
+
+    /**
+     * Records a load that produced a value (or a confirmed absence).
+     *
+     * @param loadTimeNanos The time spent loading, in nanoseconds.
+     */
+    public void recordLoadSuccess(long loadTimeNanos) {
+        loadSuccessCount.increment();
+        totalLoadTime.add(loadTimeNanos);
+    }
+
+    /**
+     * Records a load that threw an exception.
+     *
+     * @param loadTimeNanos The time spent loading, in nanoseconds.
+     */
+    public void recordLoadFailure(long loadTimeNanos) {
+        loadFailureCount.increment();
+        totalLoadTime.add(loadTimeNanos);
+    }
+
+    /**
+     * Records an evicted entry that moved to the off-heap tier.
+     */
+    public void recordDemotion() {
+        demotionCount.increment();
+    }
+
+    /**
+     * Records an off-heap entry that moved back to the heap on access.
+     */
+    public void recordPromotion() {
+        promotionCount.increment();
+    }
+
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    public long getPutCount() {
+        return putCount.sum();
+    }
+
+    public long getEvictionCount() {
+        return evictionCount.sum();
+    }
+
+    public long getExpirationCount() {
+        return expirationCount.sum();
+    }
+
+    public long getLoadSuccessCount() {
+        return loadSuccessCount.sum();
+    }
+
+    public long getLoadFailureCount() {
+        return loadFailureCount.sum();
+    }
+
+    public long getTotalLoadTime() {
+        return totalLoadTime.sum();
+    }
+
+    public long getDemotionCount() {
+        return demotionCount.sum();
+    }
+
+    public long getPromotionCount() {
+        return promotionCount.sum();
+    }
+
+    /**
+     * Returns the ratio of hits to all lookups, or 1.0 when nothing was looked up yet.
+     *
+     * @return The hit rate between 0.0 and 1.0.
+     */
+    public double getHitRate() {
+        long hits = getHitCount();
+        long requests = hits + getMissCount();
+        return requests == 0 ? 1.0 : (double) hits / requests;
+    }
+}
@@ -0,0 +1,36 @@
+package com.translate.webtranslator.cache;
+
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * The CacheSweeper class removes expired entries from every InMemoryCache bean.
+ * It runs on the scheduler thread, so request threads never pay for expiry.
+ */
+@Component
+public class CacheSweeper {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheSweeper.class);
+
+    private final List<InMemoryCache> caches;
+
+    public CacheSweeper(List<InMemoryCache> caches) {
+        this.caches = caches;
+    }
+
+    /**
+     * Sweeps all caches once. The delay between sweeps is cache.sweep-interval.
+     */
+    @Scheduled(fixedDelayString = "${cache.sweep-interval:PT1S}")
+    public void sweep() {
+        for (InMemoryCache cache : caches) {
+            int removed = cache.cleanUp();
+            if (removed > 0) {
+                logger.debug("Swept {} expired entries from {}", removed, cache.getName());
+            }
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.translate.webtranslator.cache;
+
+import com.translate.webtranslator.model.ContentHash;
+import java.util.Objects;
+
+/**
+ * The ContentKey class is the cache key of an entity content, translated text or name.
+ * It is hashed by the {@link ContentHash} fingerprint that the entities store, so two keys
+ * with different contents almost never need a full string comparison.
+ * A key that leaves the JVM carries only the fingerprint, so the content of a key decoded
+ * by {@link CacheKeyCodec} is null. A cache matches such a key with the entry of any content
+ * with the same fingerprint.
+ */
+public final class ContentKey implements CacheKey {
+
+    private final String content;
+    private final long fingerprint;
+    private final int hash;
+
+    ContentKey(String content, long fingerprint) {
+        this.content = content;
+        this.fingerprint = fingerprint;
+        this.hash = (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    /**
+     * Returns the content, or null for a key known only by its fingerprint.
+     */
+    public String getContent() {
+        return content;
+    }
+
+    public long getFingerprint() {
+        return fingerprint;
+    }
+
+    /**
+     * Tells whether this key and the other one may stand for the same content: they have the
+     * same fingerprint, and the same content unless one of them is known only by its fingerprint.
+     */
+    boolean matches(ContentKey other) {
+        return fingerprint == other.fingerprint
+                && (content == null || other.content == null || content.equals(other.content));
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof ContentKey other
+                && fingerprint == other.fingerprint && Objects.equals(content, other.content));
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return content != null ? "content:" + content : "contentHash:" + fingerprint;
+    }
+}
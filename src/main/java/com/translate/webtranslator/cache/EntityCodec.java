@@ -0,0 +1,187 @@
+package com.translate.webtranslator.cache;
+
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.hibernate.Hibernate;
+
+/**
+ * The EntityCodec class serializes Text and Translation graphs into a compact binary form.
+ * A Text is written with its translations and languages, a Translation with its text graph,
+ * which is what the JSON of a cached entity shows. Decoding builds detached entities with
+ * the same state. A graph with a collection that is not loaded is not serialized, because
+ * decoding could not tell an unloaded collection from an empty one, and loading it here could
+ * hit the database while the cache holds a lock.
+ */
+public class EntityCodec implements ValueCodec {
+
+    private static final byte TEXT = 1;
+    private static final byte TRANSLATION = 2;
+
+    @Override
+    public byte[] encode(Object value) {
+        if (!isComplete(value)) {
+            return null;
+        }
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(256);
+            DataOutputStream out = new DataOutputStream(bytes);
+            if (value instanceof Text text) {
+                out.writeByte(TEXT);
+                writeText(out, text);
+            } else {
+                Translation translation = (Translation) value;
+                out.writeByte(TRANSLATION);
+                writeLong(out, translation.getId());
+                writeString(out, translation.getTranslatedText());
+                out.writeBoolean(translation.getText() != null);
+                if (translation.getText() != null) {
+                    writeText(out, translation.getText());
+                }
+            }
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public Object decode(byte[] bytes) {
+        try {
+            DataInputStream in = new DataInputStream(new ByteArrayInputStream(bytes));
+            byte type = in.readByte();
+            if (type == TEXT) {
+                return readText(in);
+            }
+            if (type != TRANSLATION) {
+                throw new IllegalArgumentException("Unknown entity type: " + type);
+            }
+            Translation translation = new Translation();
+            translation.setId(readLong(in));
+            translation.setTranslatedText(readString(in));
+            if (in.readBoolean()) {
+                translation.setText(readText(in));
+            }
+            translation.rememberPersistedState();
+            return translation;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static boolean isComplete(Object value) {
+        if (value instanceof Text text) {
+            return isComplete(text);
+        }
+        return value instanceof Translation translation
+                && Hibernate.isInitialized(translation)
+                && (translation.getText() == null || isComplete(translation.getText()));
+    }
+
+    private static boolean isComplete(Text text) {
+        return Hibernate.isInitialized(text)
+                && isLoaded(text.getTranslations()) && isLoaded(text.getLanguages());
+    }
+
+    private static boolean isLoaded(Collection<?> collection) {
+        return collection == null || Hibernate.isInitialized(collection);
+    }
+
+    private static void writeText(DataOutputStream out, Text text) throws IOException {
+        writeLong(out, text.getId());
+        writeString(out, text.getTextToTranslate());
+        List<Translation> translations = text.getTranslations();
+        out.writeInt(translations == null ? -1 : translations.size());
+        if (translations != null) {
+            for (Translation translation : translations) {
+                writeLong(out, translation.getId());
+                writeString(out, translation.getTranslatedText());
+            }
+        }
+        Set<Language> languages = text.getLanguages();
+        out.writeInt(languages == null ? -1 : languages.size());
+        if (languages != null) {
+            for (Language language : languages) {
+                writeLong(out, language.getId());
+                writeString(out, language.getName());
+            }
+        }
+    }
+
+    private static Text readText(DataInputStream in) throws IOException {
+        Text text = new Text();
+        text.setId(readLong(in));
+        text.setTextToTranslate(readString(in));
+        int translationCount = in.readInt();
+        if (translationCount >= 0) {
+            List<Translation> translations = new ArrayList<>(translationCount);
+            for (int i = 0; i < translationCount; i++) {
+                Translation translation = new Translation();
+                translation.setId(readLong(in));
+                translation.setTranslatedText(readString(in));
+                translation.setText(text);
+                translation.rememberPersistedState();
+                translations.add(translation);
+            }
+            text.setTranslations(translations);
+        }
+        int languageCount = in.readInt();
+        if (languageCount >= 0) {
+            Set<Language> languages = new LinkedHashSet<>(languageCount);
+            for (int i = 0; i < languageCount; i++) {
+                Language language = new Language();
+                language.setId(readLong(in));
+                language.setName(readString(in));
+                language.rememberPersistedState();
+                languages.add(language);
+            }
+            text.setLanguages(languages);
+        }
+        text.rememberPersistedState();
+        return text;
+    }
+
+    private static void writeLong(DataOutputStream out, Long value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            out.writeLong(value);
+        }
+    }
+
+    private static Long readLong(DataInputStream in) throws IOException {
+        return in.readBoolean() ? in.readLong() : null;
+    }
+
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        if (value == null) {
+            out.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
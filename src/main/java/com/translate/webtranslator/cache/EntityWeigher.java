@@ -0,0 +1,73 @@
+package com.translate.webtranslator.cache;
+
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import java.util.Collection;
+import org.hibernate.Hibernate;
+
+/**
+ * The EntityWeigher class estimates the retained heap size of cached entity graphs.
+ * A Text is weighed together with its translations and languages, because those
+ * collections are what makes one cached text far larger than another.
+ * Only collections that are already loaded are counted, so weighing never hits the database.
+ */
+public class EntityWeigher implements Weigher {
+
+    private static final int ENTITY_OVERHEAD = 48;
+    private static final int STRING_OVERHEAD = 40;
+    private static final int REFERENCE_SIZE = 8;
+
+    @Override
+    public int weigh(CacheKey key, Object value) {
+        long weight = ENTITY_OVERHEAD + weighKey(key);
+        if (value instanceof Text text) {
+            weight += weighText(text);
+        } else if (value instanceof Translation translation) {
+            weight += weighString(translation.getTranslatedText());
+            if (translation.getText() != null) {
+                weight += weighText(translation.getText());
+            }
+        } else if (value instanceof String string) {
+            weight += weighString(string);
+        } else if (value instanceof Language language) {
+            weight += weighString(language.getName());
+            if (isLoaded(language.getTexts())) {
+                for (Text text : language.getTexts()) {
+                    weight += REFERENCE_SIZE + ENTITY_OVERHEAD
+                            + weighString(text.getTextToTranslate());
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, weight);
+    }
+
+    private long weighText(Text text) {
+        long weight = ENTITY_OVERHEAD + weighString(text.getTextToTranslate());
+        if (isLoaded(text.getTranslations())) {
+            for (Translation translation : text.getTranslations()) {
+                weight += REFERENCE_SIZE + ENTITY_OVERHEAD
+                        + weighString(translation.getTranslatedText());
+            }
+        }
+        if (isLoaded(text.getLanguages())) {
+            for (Language language : text.getLanguages()) {
+                weight += REFERENCE_SIZE + ENTITY_OVERHEAD + weighString(language.getName());
+            }
+        }
+        return weight;
+    }
+
+    private static long weighKey(CacheKey key) {
+        return key instanceof ContentKey contentKey
+                ? weighString(contentKey.getContent()) : REFERENCE_SIZE;
+    }
+
+    private static long weighString(String value) {
+        return value == null ? 0 : STRING_OVERHEAD + 2L * value.length();
+    }
+
+    private static boolean isLoaded(Collection<?> collection) {
+        return collection != null && Hibernate.isInitialized(collection);
+    }
+}
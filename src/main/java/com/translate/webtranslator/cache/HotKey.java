@@ -0,0 +1,11 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The HotKey record describes a cached key together with the number of hits it served
+ * since it was last written.
+ *
+ * @param key The string form of the cache key.
+ * @param hits The approximate number of hits.
+ */
+public record HotKey(String key, long hits) {
+}
@@ -0,0 +1,53 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The IdKey class is the cache key of an entity id.
+ * Keys are interned in a small direct-mapped table indexed by the low bits of the id.
+ * Database ids are sequential, so the ids in use rarely share a slot, and a lookup by an
+ * id that was seen recently reuses its key instead of allocating one. The table is read and
+ * written without synchronization: a lost or stale slot only costs an allocation, and the
+ * final fields make a key safe to share even when it was published through a race.
+ */
+public final class IdKey implements CacheKey {
+
+    private static final int INTERNED_KEYS = 1 << 14;
+    private static final IdKey[] interned = new IdKey[INTERNED_KEYS];
+
+    private final long id;
+    private final int hash;
+
+    private IdKey(long id) {
+        this.id = id;
+        long mixed = id * 0x9E3779B97F4A7C15L;
+        this.hash = (int) (mixed ^ (mixed >>> 32));
+    }
+
+    static IdKey of(long id) {
+        int slot = (int) id & (INTERNED_KEYS - 1);
+        IdKey key = interned[slot];
+        if (key == null || key.id != id) {
+            key = new IdKey(id);
+            interned[slot] = key;
+        }
+        return key;
+    }
+
+    public long getId() {
+        return id;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof IdKey other && id == other.id);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public String toString() {
+        return "id:" + id;
+    }
+}
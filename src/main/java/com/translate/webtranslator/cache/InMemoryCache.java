@@ -1,79 +1,485 @@
 package com.translate.webtranslator.cache;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
-import java.util.Queue;
-
-import java.util.LinkedList;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 
 /**
  * The InMemoryCache class represents an in-memory cache implementation.
- * It uses a LinkedHashMap as the underlying cache map and a Queue to track the order of cache keys.
- * The cache has a maximum size specified by the maxSize variable.
+ * Keys are spread over a power-of-two number of independent shards. Each shard indexes its
+ * id keys by id and its content keys by fingerprint in two {@link LongObjectIndex}es, so reads
+ * never block and a lookup neither boxes nor hashes an object. A shard holds one content per
+ * fingerprint, and a key known only by its fingerprint matches it. Each shard threads its nodes through a
+ * doubly linked list that approximates access order with the CLOCK (second chance) policy:
+ * a read only marks its entry as referenced, and eviction gives referenced entries another
+ * round instead of dropping them. Insertion, removal and eviction are O(1) (amortized).
+ * The cache has a maximum size, and optionally a maximum weight, split exactly across the
+ * shards. Entries may also expire after write or after access; expired entries are invisible
+ * to readers and are physically removed by {@link #cleanUp()}, which is meant to be called
+ * from a background sweeper rather than from request threads.
+ * Hits, misses, puts, evictions and loads are counted in a {@link CacheStats}.
+ * {@link #get(CacheKey, Function)} loads missing values with at most one loader call per key
+ * at a time, so an expired popular entry does not send every caller to the database.
+ * When an absent TTL is configured, a loader result of null is remembered as a tombstone,
+ * so repeated lookups of something that doesn't exist stop reaching the database until
+ * the tombstone expires or the key is written or removed.
+ * With an off-heap size and a {@link ValueCodec}, entries evicted for size are serialized into
+ * an {@link OffHeapStore} instead of being dropped, and a lookup that misses the heap takes the
+ * entry back from there. The heap then only holds the hot set, while the cold entries cost
+ * direct memory and a few bytes of index each.
  */
 public class InMemoryCache {
 
-    private Map<CacheKey, Object> cacheMap;
-    private Queue<CacheKey> keyQueue;
-    private int maxSize;
+    private static final int DEFAULT_MAX_SIZE = 5;
+    private static final int MAX_SHARDS = 64;
+    private static final long NO_EXPIRY = 0;
+
+    private final String name;
+    private final Shard[] shards;
+    private final int shardMask;
+    private final int maxSize;
+    private final long maxWeight;
+    private final long expireAfterWriteNanos;
+    private final long expireAfterAccessNanos;
+    private final long failureTtlNanos;
+    private final long absentTtlNanos;
+    private final Weigher weigher;
+    private final ValueCodec codec;
+    private final OffHeapStore offHeap;
+    private final AtomicLong removals = new AtomicLong();
+    private final LongSupplier ticker;
+    private final CacheStats stats = new CacheStats();
+    private final ConcurrentHashMap<CacheKey, CompletableFuture<Object>> loading =
+            new ConcurrentHashMap<>();
 
     /**
      * Constructs a new InMemoryCache object with default settings.
      * The maxSize is set to 5 by default.
      */
     public InMemoryCache() {
-        cacheMap = new LinkedHashMap<>();
-        keyQueue = new LinkedList<>();
-        maxSize = 5;
+        this(DEFAULT_MAX_SIZE);
+    }
+
+    /**
+     * Constructs a new InMemoryCache with the given capacity and a shard count derived
+     * from the number of available processors.
+     *
+     * @param maxSize The maximum number of entries held by the cache.
+     */
+    public InMemoryCache(int maxSize) {
+        this(maxSize, Runtime.getRuntime().availableProcessors() * 2);
+    }
+
+    /**
+     * Constructs a new InMemoryCache with the given capacity and concurrency level.
+     *
+     * @param maxSize The maximum number of entries held by the cache.
+     * @param concurrencyLevel The desired number of independent shards.
+     */
+    public InMemoryCache(int maxSize, int concurrencyLevel) {
+        this("cache", specOf(maxSize, concurrencyLevel), Weigher.SINGLETON, System::nanoTime);
+    }
+
+    /**
+     * Constructs a named InMemoryCache from a cache specification.
+     *
+     * @param name The name of the cache, used in logs and metrics.
+     * @param spec The size, weight and expiry limits of the cache.
+     * @param weigher The weigher used to enforce the maxWeight limit.
+     */
+    public InMemoryCache(String name, CacheSpec spec, Weigher weigher) {
+        this(name, spec, weigher, null, System::nanoTime);
+    }
+
+    /**
+     * Constructs a named InMemoryCache with an off-heap tier sized by the offHeapSize of the spec.
+     *
+     * @param name The name of the cache, used in logs and metrics.
+     * @param spec The size, weight and expiry limits of the cache.
+     * @param weigher The weigher used to enforce the maxWeight limit.
+     * @param codec The codec that serializes values for the off-heap tier.
+     */
+    public InMemoryCache(String name, CacheSpec spec, Weigher weigher, ValueCodec codec) {
+        this(name, spec, weigher, codec, System::nanoTime);
+    }
+
+    InMemoryCache(String name, CacheSpec spec, Weigher weigher, LongSupplier ticker) {
+        this(name, spec, weigher, null, ticker);
+    }
+
+    /**
+     * Constructs a named InMemoryCache reading time from the given ticker.
+     * The shard count is rounded down to a power of two and never exceeds maxEntries,
+     * so every shard can hold at least one entry.
+     */
+    InMemoryCache(String name, CacheSpec spec, Weigher weigher, ValueCodec codec,
+                  LongSupplier ticker) {
+        if (spec.getMaxEntries() < 1) {
+            throw new IllegalArgumentException("Cache size must be positive");
+        }
+        this.name = name;
+        this.maxSize = spec.getMaxEntries();
+        this.maxWeight = spec.getMaxWeight() != null ? spec.getMaxWeight().toBytes() : 0;
+        this.expireAfterWriteNanos = toNanos(spec.getExpireAfterWrite());
+        this.expireAfterAccessNanos = toNanos(spec.getExpireAfterAccess());
+        this.failureTtlNanos = toNanos(spec.getFailureTtl());
+        this.absentTtlNanos = toNanos(spec.getAbsentTtl());
+        this.weigher = weigher;
+        this.codec = codec;
+        this.offHeap = codec != null && spec.getOffHeapSize() != null
+                && spec.getOffHeapSize().toBytes() > 0
+                ? new OffHeapStore(spec.getOffHeapSize().toBytes()) : null;
+        this.ticker = ticker;
+        int shardCount = Integer.highestOneBit(Math.max(1,
+                Math.min(Math.min(spec.getConcurrencyLevel(), maxSize), MAX_SHARDS)));
+        this.shardMask = shardCount - 1;
+        this.shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            int capacity = maxSize / shardCount + (i < maxSize % shardCount ? 1 : 0);
+            long shardWeight = maxWeight / shardCount + (i < maxWeight % shardCount ? 1 : 0);
+            shards[i] = new Shard(capacity, shardWeight);
+        }
     }
 
     /**
      * Puts the specified key-value pair into the cache.
      * If the cache already contains the key, the value is updated.
-     * If the cache exceeds the maximum size, the oldest key-value pair is evicted.
+     * If the shard owning the key is full, entries not used recently are evicted first.
+     * A value heavier than a whole shard's weight budget is not cached.
      *
      * @param cacheKey The key to store in the cache.
      * @param value The value to associate with the key.
      */
-    public synchronized void put(CacheKey cacheKey, Object value) {
-        if (cacheMap.containsKey(cacheKey)) {
-            cacheMap.put(cacheKey, value);
-        } else {
-            cacheMap.put(cacheKey, value);
-            keyQueue.add(cacheKey);
-            if (cacheMap.size() > maxSize) {
-                CacheKey oldestKey = keyQueue.poll();
-                cacheMap.remove(oldestKey);
+    public void put(CacheKey cacheKey, Object value) {
+        put(cacheKey, value, NO_EXPIRY);
+    }
+
+    private void put(CacheKey cacheKey, Object value, long ttlNanos) {
+        if (offHeap != null) {
+            // A colder copy must not come back once the new value is evicted or expires.
+            offHeap.remove(cacheKey);
+        }
+        long now = ticker.getAsLong();
+        put(cacheKey, value, ttlNanos, now, now);
+    }
+
+    private void put(CacheKey cacheKey, Object value, long ttlNanos, long writeTime, long now) {
+        int weight = maxWeight > 0 ? Math.max(0, weigher.weigh(cacheKey, value)) : 0;
+        List<Node> evicted = shardFor(cacheKey).put(cacheKey, value, weight, ttlNanos,
+                writeTime, now);
+        stats.recordPut();
+        if (evicted != null) {
+            for (Node node : evicted) {
+                demote(node, now);
             }
         }
     }
 
+    /**
+     * Moves an entry evicted from the heap to the off-heap tier. Expired entries and
+     * the markers of failed or empty loads are dropped instead.
+     */
+    private void demote(Node node, long now) {
+        if (node.ttl != NO_EXPIRY || isExpired(node, now)) {
+            return;
+        }
+        byte[] bytes = codec.encode(node.value);
+        if (bytes != null && offHeap.put(node.key, bytes, node.writeTime)) {
+            stats.recordDemotion();
+        }
+    }
+
+    /**
+     * Takes an entry from the off-heap tier back to the heap. A removal of the key
+     * while the entry was being decoded wins over the promotion.
+     */
+    private Object promote(CacheKey cacheKey) {
+        long removalsBefore = removals.get();
+        OffHeapStore.Entry entry = offHeap.take(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        long now = ticker.getAsLong();
+        if (expireAfterWriteNanos != NO_EXPIRY && now - entry.writeTime() >= expireAfterWriteNanos) {
+            return null;
+        }
+        Object value = codec.decode(entry.value());
+        put(cacheKey, value, NO_EXPIRY, entry.writeTime(), now);
+        if (removals.get() != removalsBefore) {
+            shardFor(cacheKey).remove(cacheKey);
+        }
+        stats.recordPromotion();
+        return value;
+    }
+
     /**
      * Retrieves the value associated with the specified key from the cache.
+     * The lookup is lock-free and never reorders the shard, it only marks the entry as used.
+     *
+     * @param cacheKey The key whose associated value is to be retrieved.
+     * @return The value associated with the key, or null if the key is not found in the cache
+     *         or its entry has expired.
+     */
+    public Object get(CacheKey cacheKey) {
+        Object value = lookup(cacheKey, true);
+        return value instanceof FailedLoad || value == Absent.INSTANCE ? null : value;
+    }
+
+    /**
+     * Retrieves the value associated with the specified key, loading it on a miss.
+     * Concurrent misses for the same key are coalesced: the first caller runs the loader and
+     * the others wait for its result. A non-null result is cached, a null result is cached as
+     * a tombstone for the configured absent TTL. A loader exception is
+     * rethrown to every waiting caller and remembered for the configured failure TTL, during
+     * which further calls fail fast with the same exception instead of retrying the load.
      *
      * @param cacheKey The key whose associated value is to be retrieved.
-     * @return The value associated with the key, or null if the key is not found in the cache.
+     * @param loader The function that loads the value, returning null if it doesn't exist.
+     * @return The cached or loaded value, or null if the loader found nothing.
+     */
+    public Object get(CacheKey cacheKey, Function<? super CacheKey, ?> loader) {
+        Object value = lookup(cacheKey, true);
+        if (value != null) {
+            return unwrap(value);
+        }
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> inFlight = loading.putIfAbsent(cacheKey, future);
+        if (inFlight != null) {
+            return await(inFlight);
+        }
+        try {
+            value = lookup(cacheKey, false);
+            if (value == null) {
+                value = load(cacheKey, loader, future);
+            }
+            future.complete(value);
+            return unwrap(value);
+        } catch (RuntimeException e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            loading.remove(cacheKey, future);
+        }
+    }
+
+    private Object load(CacheKey cacheKey, Function<? super CacheKey, ?> loader,
+                        CompletableFuture<Object> future) {
+        long start = ticker.getAsLong();
+        try {
+            Object loaded = loader.apply(cacheKey);
+            stats.recordLoadSuccess(ticker.getAsLong() - start);
+            if (loaded != null) {
+                putLoaded(cacheKey, loaded, NO_EXPIRY, future);
+            } else if (absentTtlNanos != NO_EXPIRY) {
+                putLoaded(cacheKey, Absent.INSTANCE, absentTtlNanos, future);
+            }
+            return loaded;
+        } catch (RuntimeException e) {
+            stats.recordLoadFailure(ticker.getAsLong() - start);
+            if (failureTtlNanos != NO_EXPIRY) {
+                putLoaded(cacheKey, new FailedLoad(e), failureTtlNanos, future);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Stores a load result unless the key was removed while the load was running.
+     * A removal detaches the in-flight load, so a result read before a concurrent
+     * write is handed to its waiters but never cached over the invalidation.
      */
-    public synchronized Object get(CacheKey cacheKey) {
-        return cacheMap.get(cacheKey);
+    private void putLoaded(CacheKey cacheKey, Object value, long ttlNanos,
+                           CompletableFuture<Object> future) {
+        if (loading.get(cacheKey) != future) {
+            return;
+        }
+        put(cacheKey, value, ttlNanos);
+        if (loading.get(cacheKey) != future) {
+            shardFor(cacheKey).remove(cacheKey);
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> inFlight) {
+        try {
+            return unwrap(inFlight.join());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static Object unwrap(Object value) {
+        if (value instanceof FailedLoad failedLoad) {
+            throw failedLoad.exception();
+        }
+        return value == Absent.INSTANCE ? null : value;
+    }
+
+    private Object lookup(CacheKey cacheKey, boolean recordStats) {
+        Node node = shardFor(cacheKey).find(cacheKey);
+        if (node == null) {
+            Object promoted = offHeap != null ? promote(cacheKey) : null;
+            if (promoted != null) {
+                if (recordStats) {
+                    stats.recordHit();
+                }
+                return promoted;
+            }
+            if (recordStats) {
+                stats.recordMiss();
+            }
+            return null;
+        }
+        long now = hasExpiry() || node.ttl != NO_EXPIRY ? ticker.getAsLong() : 0;
+        if (isExpired(node, now)) {
+            if (recordStats) {
+                stats.recordMiss();
+            }
+            return null;
+        }
+        if (!recordStats) {
+            return node.value;
+        }
+        stats.recordHit();
+        node.hits++;
+        if (!node.referenced) {
+            node.referenced = true;
+        }
+        if (expireAfterAccessNanos != NO_EXPIRY) {
+            node.accessTime = now;
+        }
+        return node.value;
     }
 
     /**
      * Removes the specified key and its associated value from the cache.
+     * A load of the key that is still running won't cache its result.
      *
      * @param cacheKey The key to be removed from the cache.
      */
-    public synchronized void remove(CacheKey cacheKey) {
-        cacheMap.remove(cacheKey);
-        keyQueue.remove(cacheKey);
+    public void remove(CacheKey cacheKey) {
+        if (cacheKey instanceof ContentKey contentKey && contentKey.getContent() == null) {
+            loading.keySet().removeIf(key -> key instanceof ContentKey loadingKey
+                    && loadingKey.matches(contentKey));
+        } else {
+            loading.remove(cacheKey);
+        }
+        removals.incrementAndGet();
+        shardFor(cacheKey).remove(cacheKey);
+        if (offHeap != null) {
+            offHeap.remove(cacheKey);
+        }
     }
 
     /**
      * Clears the cache, removing all key-value pairs.
      */
-    public synchronized void clear() {
-        cacheMap.clear();
-        keyQueue.clear();
+    public void clear() {
+        loading.clear();
+        removals.incrementAndGet();
+        for (Shard shard : shards) {
+            shard.clear();
+        }
+        if (offHeap != null) {
+            offHeap.clear();
+        }
+    }
+
+    /**
+     * Removes every expired entry. Each shard is locked only while it is being swept.
+     *
+     * @return The number of entries removed.
+     */
+    public int cleanUp() {
+        if (!hasExpiry() && failureTtlNanos == NO_EXPIRY && absentTtlNanos == NO_EXPIRY) {
+            return 0;
+        }
+        int removed = 0;
+        for (Shard shard : shards) {
+            removed += shard.removeExpired(ticker.getAsLong());
+        }
+        stats.recordExpirations(removed);
+        return removed;
+    }
+
+    /**
+     * Returns the keys that served the most hits since they were last written.
+     * Hit counts are approximate: they are bumped without synchronization on the read path.
+     *
+     * @param limit The maximum number of keys to return.
+     * @return The hottest keys, most hits first.
+     */
+    public List<HotKey> hottestKeys(int limit) {
+        if (limit <= 0) {
+            return List.of();
+        }
+        PriorityQueue<HotKey> top = new PriorityQueue<>(Comparator.comparingLong(HotKey::hits));
+        for (Shard shard : shards) {
+            for (Node node : shard.nodes()) {
+                if (top.size() < limit) {
+                    top.add(new HotKey(String.valueOf(node.key), node.hits));
+                } else if (node.hits > top.peek().hits()) {
+                    top.poll();
+                    top.add(new HotKey(String.valueOf(node.key), node.hits));
+                }
+            }
+        }
+        List<HotKey> result = new ArrayList<>(top);
+        result.sort(Comparator.comparingLong(HotKey::hits).reversed());
+        return result;
+    }
+
+    /**
+     * Returns the live entries of the heap tier, most hit first, for a CacheSnapshotStore.
+     * The markers of failed or empty loads are left out. Values are serialized only when
+     * asked to and when the cache has a codec; the other entries carry just their key.
+     *
+     * @param includeValues Whether to serialize the values.
+     * @return The entries of the snapshot.
+     */
+    public List<CacheSnapshotEntry> snapshot(boolean includeValues) {
+        long now = ticker.getAsLong();
+        List<Node> nodes = new ArrayList<>(getSize());
+        for (Shard shard : shards) {
+            for (Node node : shard.nodes()) {
+                if (node.ttl == NO_EXPIRY && !isExpired(node, now)) {
+                    nodes.add(node);
+                }
+            }
+        }
+        nodes.sort(Comparator.comparingInt((Node node) -> node.hits).reversed());
+        List<CacheSnapshotEntry> entries = new ArrayList<>(nodes.size());
+        for (Node node : nodes) {
+            byte[] value = includeValues && codec != null ? codec.encode(node.value) : null;
+            entries.add(new CacheSnapshotEntry(node.key, value));
+        }
+        return entries;
+    }
+
+    /**
+     * Puts a value serialized by {@link #snapshot(boolean)} back into the cache.
+     *
+     * @param cacheKey The key of the entry.
+     * @param value The serialized value.
+     * @return false if the cache has no codec to restore the value with.
+     */
+    public boolean restore(CacheKey cacheKey, byte[] value) {
+        if (codec == null) {
+            return false;
+        }
+        put(cacheKey, codec.decode(value));
+        return true;
     }
 
     /**
@@ -81,7 +487,336 @@ public class InMemoryCache {
      *
      * @return The number of key-value pairs currently stored in the cache.
      */
-    public synchronized int getSize() {
-        return cacheMap.size();
+    public int getSize() {
+        int size = 0;
+        for (Shard shard : shards) {
+            size += shard.size();
+        }
+        return size;
+    }
+
+    /**
+     * Returns the summed weight of all entries, or 0 when the cache is not weight-bounded.
+     *
+     * @return The estimated number of bytes held by the cache.
+     */
+    public long getWeight() {
+        long weight = 0;
+        for (Shard shard : shards) {
+            weight += shard.weight;
+        }
+        return weight;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CacheStats getStats() {
+        return stats;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public long getMaxWeight() {
+        return maxWeight;
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * Returns the number of entries in the off-heap tier, or 0 when there is none.
+     */
+    public int getOffHeapSize() {
+        return offHeap != null ? offHeap.getEntryCount() : 0;
+    }
+
+    /**
+     * Returns the direct memory written by the off-heap tier, or 0 when there is none.
+     */
+    public long getOffHeapBytes() {
+        return offHeap != null ? offHeap.getUsedBytes() : 0;
+    }
+
+    private Shard shardFor(CacheKey cacheKey) {
+        int hash = cacheKey.hashCode();
+        return shards[(hash ^ (hash >>> 16)) & shardMask];
+    }
+
+    private boolean hasExpiry() {
+        return expireAfterWriteNanos != NO_EXPIRY || expireAfterAccessNanos != NO_EXPIRY;
+    }
+
+    private boolean isExpired(Node node, long now) {
+        return (node.ttl != NO_EXPIRY && now - node.writeTime >= node.ttl)
+                || (expireAfterWriteNanos != NO_EXPIRY && now - node.writeTime >= expireAfterWriteNanos)
+                || (expireAfterAccessNanos != NO_EXPIRY
+                        && now - node.accessTime >= expireAfterAccessNanos);
+    }
+
+    private static long toNanos(Duration duration) {
+        return duration == null || duration.isZero() || duration.isNegative()
+                ? NO_EXPIRY : duration.toNanos();
+    }
+
+    private static CacheSpec specOf(int maxSize, int concurrencyLevel) {
+        CacheSpec spec = new CacheSpec();
+        spec.setMaxEntries(maxSize);
+        spec.setConcurrencyLevel(concurrencyLevel);
+        return spec;
+    }
+
+    /**
+     * A single lock-striped partition of the cache.
+     * The indexes are read without locking; the eviction list is only touched under the lock.
+     */
+    private final class Shard {
+
+        private final LongObjectIndex<Node> ids =
+                new LongObjectIndex<>(node -> ((IdKey) node.key).getId());
+        private final LongObjectIndex<Node> contents =
+                new LongObjectIndex<>(node -> ((ContentKey) node.key).getFingerprint());
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Node head = new Node(null, null, 0, NO_EXPIRY, 0, 0);
+        private final int capacity;
+        private final long weightCapacity;
+        private volatile int size;
+        private volatile long weight;
+
+        Shard(int capacity, long weightCapacity) {
+            this.capacity = capacity;
+            this.weightCapacity = weightCapacity;
+            head.prev = head;
+            head.next = head;
+        }
+
+        Node find(CacheKey key) {
+            if (key instanceof IdKey idKey) {
+                return ids.get(idKey.getId());
+            }
+            ContentKey contentKey = (ContentKey) key;
+            Node node = contents.get(contentKey.getFingerprint());
+            return node != null && ((ContentKey) node.key).matches(contentKey) ? node : null;
+        }
+
+        int size() {
+            return size;
+        }
+
+        /**
+         * Returns a copy of the entries, taken under the lock.
+         */
+        List<Node> nodes() {
+            lock.lock();
+            try {
+                List<Node> nodes = new ArrayList<>(size);
+                for (Node node = head.next; node != head; node = node.next) {
+                    nodes.add(node);
+                }
+                return nodes;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Inserts or updates the entry and evicts until the shard fits its limits again.
+         *
+         * @return The evicted entries when there is an off-heap tier to move them to, else null.
+         */
+        List<Node> put(CacheKey key, Object value, int entryWeight, long ttl, long writeTime,
+                       long now) {
+            lock.lock();
+            try {
+                Node node = find(key);
+                if (node == null && key instanceof ContentKey contentKey) {
+                    // another content with the same fingerprint gives way
+                    Node other = contents.get(contentKey.getFingerprint());
+                    if (other != null) {
+                        removeNode(other);
+                    }
+                }
+                if (weightCapacity > 0 && entryWeight > weightCapacity) {
+                    if (node != null) {
+                        removeNode(node);
+                    }
+                    return null;
+                }
+                if (node != null) {
+                    weight += entryWeight - node.weight;
+                    node.value = value;
+                    node.weight = entryWeight;
+                    node.ttl = ttl;
+                    node.writeTime = writeTime;
+                    node.accessTime = now;
+                    node.hits = 0;
+                    node.referenced = true;
+                } else {
+                    node = new Node(key, value, entryWeight, ttl, writeTime, now);
+                    linkLast(node);
+                    if (key instanceof IdKey) {
+                        ids.put(node);
+                    } else {
+                        contents.put(node);
+                    }
+                    size++;
+                    weight += entryWeight;
+                }
+                List<Node> evicted = null;
+                while (size > capacity || (weightCapacity > 0 && weight > weightCapacity)) {
+                    Node victim = evictOne(node);
+                    if (offHeap != null) {
+                        if (evicted == null) {
+                            evicted = new ArrayList<>(1);
+                        }
+                        evicted.add(victim);
+                    }
+                }
+                return evicted;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void remove(CacheKey key) {
+            lock.lock();
+            try {
+                Node node = find(key);
+                if (node != null) {
+                    removeNode(node);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        int removeExpired(long now) {
+            lock.lock();
+            try {
+                int removed = 0;
+                Node node = head.next;
+                while (node != head) {
+                    Node next = node.next;
+                    if (isExpired(node, now)) {
+                        removeNode(node);
+                        removed++;
+                    }
+                    node = next;
+                }
+                return removed;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void clear() {
+            lock.lock();
+            try {
+                ids.clear();
+                contents.clear();
+                Node node = head.next;
+                while (node != head) {
+                    Node next = node.next;
+                    node.prev = null;
+                    node.next = null;
+                    node = next;
+                }
+                head.prev = head;
+                head.next = head;
+                size = 0;
+                weight = 0;
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Walks from the eldest entry, moving referenced entries to the tail with their flag
+         * cleared, and evicts the first entry that was not used since its last pass.
+         * The walk is bounded by one full pass so concurrent readers cannot keep it spinning,
+         * and it skips the entry being inserted unless nothing else is left.
+         */
+        private Node evictOne(Node inserted) {
+            Node candidate = head.next;
+            for (int scanned = size; scanned > 0
+                    && (candidate.referenced || candidate == inserted); scanned--) {
+                candidate.referenced = false;
+                unlink(candidate);
+                linkLast(candidate);
+                candidate = head.next;
+            }
+            removeNode(candidate);
+            stats.recordEviction();
+            return candidate;
+        }
+
+        private void removeNode(Node node) {
+            unlink(node);
+            if (node.key instanceof IdKey idKey) {
+                ids.remove(idKey.getId(), node);
+            } else {
+                contents.remove(((ContentKey) node.key).getFingerprint(), node);
+            }
+            size--;
+            weight -= node.weight;
+        }
+
+        private void linkLast(Node node) {
+            Node last = head.prev;
+            node.prev = last;
+            node.next = head;
+            last.next = node;
+            head.prev = node;
+        }
+
+        private void unlink(Node node) {
+            node.prev.next = node.next;
+            node.next.prev = node.prev;
+            node.prev = null;
+            node.next = null;
+        }
+    }
+
+    /**
+     * A cache entry that is also a link of its shard's eviction list.
+     */
+    private static final class Node {
+
+        private final CacheKey key;
+        private volatile Object value;
+        private volatile boolean referenced;
+        private volatile long writeTime;
+        private volatile long accessTime;
+        private volatile long ttl;
+        private int hits;
+        private int weight;
+        private Node prev;
+        private Node next;
+
+        Node(CacheKey key, Object value, int weight, long ttl, long writeTime, long now) {
+            this.key = key;
+            this.value = value;
+            this.weight = weight;
+            this.ttl = ttl;
+            this.writeTime = writeTime;
+            this.accessTime = now;
+        }
+    }
+
+    /**
+     * Marks a key whose last load failed, so callers fail fast until the marker expires.
+     */
+    private record FailedLoad(RuntimeException exception) {
+    }
+
+    /**
+     * Marks a key whose last load found nothing.
+     */
+    private enum Absent {
+        INSTANCE
     }
-}
\ No newline at end of file
+}
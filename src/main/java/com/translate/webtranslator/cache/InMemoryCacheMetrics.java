@@ -0,0 +1,94 @@
+package com.translate.webtranslator.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The InMemoryCacheMetrics class publishes the statistics of an InMemoryCache to Micrometer.
+ * Besides the standard cache.gets, cache.puts, cache.evictions and cache.size meters it
+ * registers the weight, expirations, load and off-heap tier meters of the cache, all tagged
+ * with the cache name.
+ */
+public class InMemoryCacheMetrics extends CacheMeterBinder<InMemoryCache> {
+
+    private final InMemoryCache cache;
+
+    public InMemoryCacheMetrics(InMemoryCache cache) {
+        super(cache, cache.getName(), Tags.empty());
+        this.cache = cache;
+    }
+
+    @Override
+    protected Long size() {
+        return (long) cache.getSize();
+    }
+
+    @Override
+    protected long hitCount() {
+        return cache.getStats().getHitCount();
+    }
+
+    @Override
+    protected Long missCount() {
+        return cache.getStats().getMissCount();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return cache.getStats().getEvictionCount();
+    }
+
+    @Override
+    protected long putCount() {
+        return cache.getStats().getPutCount();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        Gauge.builder("cache.weight", cache, InMemoryCache::getWeight)
+                .tags(getTagsWithCacheName())
+                .description("The estimated size of the cached values")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("cache.expirations", cache,
+                        c -> c.getStats().getExpirationCount())
+                .tags(getTagsWithCacheName())
+                .description("The number of entries removed because they expired")
+                .register(registry);
+        FunctionCounter.builder("cache.load", cache, c -> c.getStats().getLoadSuccessCount())
+                .tags(getTagsWithCacheName()).tag("result", "success")
+                .description("The number of successful loads into the cache")
+                .register(registry);
+        FunctionCounter.builder("cache.load", cache, c -> c.getStats().getLoadFailureCount())
+                .tags(getTagsWithCacheName()).tag("result", "failure")
+                .description("The number of loads that threw an exception")
+                .register(registry);
+        FunctionCounter.builder("cache.load.duration", cache,
+                        c -> c.getStats().getTotalLoadTime() / (double) TimeUnit.SECONDS.toNanos(1))
+                .tags(getTagsWithCacheName())
+                .description("The total time spent loading values into the cache")
+                .baseUnit("seconds")
+                .register(registry);
+        Gauge.builder("cache.offheap.size", cache, InMemoryCache::getOffHeapSize)
+                .tags(getTagsWithCacheName())
+                .description("The number of entries in the off-heap tier")
+                .register(registry);
+        Gauge.builder("cache.offheap.used", cache, InMemoryCache::getOffHeapBytes)
+                .tags(getTagsWithCacheName())
+                .description("The direct memory written by the off-heap tier")
+                .baseUnit("bytes")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.moves", cache, c -> c.getStats().getDemotionCount())
+                .tags(getTagsWithCacheName()).tag("direction", "demotion")
+                .description("The number of evicted entries moved to the off-heap tier")
+                .register(registry);
+        FunctionCounter.builder("cache.tier.moves", cache, c -> c.getStats().getPromotionCount())
+                .tags(getTagsWithCacheName()).tag("direction", "promotion")
+                .description("The number of off-heap entries moved back to the heap")
+                .register(registry);
+    }
+}
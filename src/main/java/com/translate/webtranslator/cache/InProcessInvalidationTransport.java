@@ -0,0 +1,45 @@
+package com.translate.webtranslator.cache;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * The InProcessInvalidationTransport class delivers messages to the listeners of the same JVM
+ * on the sending thread. Several InvalidationBus instances sharing one transport behave like
+ * the nodes of a deployment, which makes it the transport for tests and single-node runs.
+ */
+public class InProcessInvalidationTransport implements InvalidationTransport {
+
+    private final List<Listener> listeners = new CopyOnWriteArrayList<>();
+    private final int maxPayloadBytes;
+
+    public InProcessInvalidationTransport() {
+        this(Integer.MAX_VALUE);
+    }
+
+    public InProcessInvalidationTransport(int maxPayloadBytes) {
+        this.maxPayloadBytes = maxPayloadBytes;
+    }
+
+    @Override
+    public void send(String payload) {
+        for (Listener listener : listeners) {
+            listener.onMessage(payload);
+        }
+    }
+
+    @Override
+    public void subscribe(Listener listener) {
+        listeners.add(listener);
+    }
+
+    @Override
+    public int maxPayloadBytes() {
+        return maxPayloadBytes;
+    }
+
+    @Override
+    public void close() {
+        listeners.clear();
+    }
+}
@@ -0,0 +1,227 @@
+package com.translate.webtranslator.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * The InvalidationBus class keeps the caches of several nodes coherent.
+ * The keys of every committed CacheInvalidationEvent are queued and broadcast in batches through
+ * an InvalidationTransport; the other nodes evict them from their own caches. Keys queued twice
+ * before a flush are sent once. A batch is flushed every cache.bus.flush-interval, or at once
+ * when it reaches cache.bus.max-batch-size keys.
+ * Keys are encoded by {@link CacheKeyCodec}, which sends contents as their fingerprint, so a
+ * key is a few bytes whatever the length of the content. A key that still doesn't fit into one
+ * message makes the receivers clear the whole cache instead, and so does a transport that may
+ * have lost messages.
+ */
+public class InvalidationBus implements InvalidationTransport.Listener {
+
+    private static final Logger logger = LoggerFactory.getLogger(InvalidationBus.class);
+
+    private final String nodeId;
+    private final InvalidationTransport transport;
+    private final Map<String, InMemoryCache> caches;
+    private final int maxBatchSize;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, Set<CacheKey>> pending = new HashMap<>();
+    private int pendingCount;
+    private final LongAdder sentMessages = new LongAdder();
+    private final LongAdder receivedMessages = new LongAdder();
+
+    /**
+     * Creates the bus and subscribes it to the transport.
+     *
+     * @param nodeId The id of this node, unique within the deployment.
+     * @param transport The transport shared by all nodes.
+     * @param caches The local caches to evict from.
+     * @param maxBatchSize The number of queued keys that triggers a flush.
+     */
+    public InvalidationBus(String nodeId, InvalidationTransport transport,
+                           List<InMemoryCache> caches, int maxBatchSize) {
+        this.nodeId = nodeId;
+        this.transport = transport;
+        this.caches = caches.stream()
+                .collect(Collectors.toMap(InMemoryCache::getName, Function.identity()));
+        this.maxBatchSize = maxBatchSize;
+        transport.subscribe(this);
+    }
+
+    /**
+     * Queues the keys of a committed change for broadcasting.
+     * Rolled back changes are not broadcast, the other nodes could not have read them.
+     *
+     * @param event The keys made stale by an entity change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvalidation(CacheInvalidationEvent event) {
+        boolean full;
+        synchronized (this) {
+            enqueue(event.keys());
+            full = pendingCount >= maxBatchSize;
+        }
+        if (full) {
+            flush();
+        }
+    }
+
+    /**
+     * Broadcasts the queued keys. A batch that fails to send is queued again.
+     */
+    @Scheduled(fixedDelayString = "${cache.bus.flush-interval:PT0.1S}")
+    public void flush() {
+        Map<String, Set<CacheKey>> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new HashMap<>(pending);
+            pending.clear();
+            pendingCount = 0;
+        }
+        try {
+            for (String payload : encode(batch)) {
+                transport.send(payload);
+                sentMessages.increment();
+            }
+        } catch (RuntimeException e) {
+            logger.warn("Failed to broadcast {} cache invalidations, will retry", batch.size(), e);
+            synchronized (this) {
+                enqueue(batch);
+            }
+        }
+    }
+
+    private void enqueue(Map<String, Set<CacheKey>> keys) {
+        keys.forEach((cacheName, cacheKeys) -> {
+            Set<CacheKey> queued = pending.computeIfAbsent(cacheName, name -> new HashSet<>());
+            for (CacheKey cacheKey : cacheKeys) {
+                if (queued.add(cacheKey)) {
+                    pendingCount++;
+                }
+            }
+        });
+    }
+
+    /**
+     * Splits a batch into messages of one cache each that fit into the transport.
+     */
+    List<String> encode(Map<String, Set<CacheKey>> batch) {
+        int maxBytes = transport.maxPayloadBytes();
+        List<String> payloads = new ArrayList<>();
+        batch.forEach((cacheName, cacheKeys) -> {
+            int emptySize = utf8Length(write(new InvalidationMessage(nodeId, cacheName, false, List.of())));
+            List<String> keys = new ArrayList<>();
+            int size = emptySize;
+            for (CacheKey cacheKey : cacheKeys) {
+                String key = CacheKeyCodec.encode(cacheKey);
+                int keySize = utf8Length(write(key)) + 1;
+                if (keySize > maxBytes - emptySize) {
+                    payloads.add(write(new InvalidationMessage(nodeId, cacheName, true, List.of())));
+                    return;
+                }
+                if (size + keySize > maxBytes) {
+                    payloads.add(write(new InvalidationMessage(nodeId, cacheName, false, keys)));
+                    keys = new ArrayList<>();
+                    size = emptySize;
+                }
+                keys.add(key);
+                size += keySize;
+            }
+            if (!keys.isEmpty()) {
+                payloads.add(write(new InvalidationMessage(nodeId, cacheName, false, keys)));
+            }
+        });
+        return payloads;
+    }
+
+    /**
+     * Evicts the keys broadcast by another node from the local cache.
+     *
+     * @param payload The encoded message.
+     */
+    @Override
+    public void onMessage(String payload) {
+        InvalidationMessage message;
+        try {
+            message = objectMapper.readValue(payload, InvalidationMessage.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Ignoring malformed cache invalidation: {}", payload, e);
+            return;
+        }
+        if (nodeId.equals(message.node())) {
+            return;
+        }
+        receivedMessages.increment();
+        InMemoryCache cache = caches.get(message.cache());
+        if (cache == null) {
+            return;
+        }
+        if (message.clear()) {
+            cache.clear();
+            return;
+        }
+        for (String key : message.keys()) {
+            try {
+                cache.remove(CacheKeyCodec.decode(key));
+            } catch (IllegalArgumentException e) {
+                logger.warn("Clearing {}, received an undecodable key", cache.getName(), e);
+                cache.clear();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Clears every local cache, because evictions of other nodes may have been missed.
+     */
+    @Override
+    public void onMessagesLost() {
+        logger.warn("Cache invalidations may have been lost, clearing all caches");
+        caches.values().forEach(InMemoryCache::clear);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public long getSentMessages() {
+        return sentMessages.sum();
+    }
+
+    public long getReceivedMessages() {
+        return receivedMessages.sum();
+    }
+
+    private String write(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to encode cache invalidation", e);
+        }
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * The message sent between nodes: the keys to evict from one cache, or the order to clear it.
+     */
+    record InvalidationMessage(String node, String cache, boolean clear, List<String> keys) {
+    }
+}
@@ -0,0 +1,51 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The InvalidationTransport interface carries encoded invalidation messages between the nodes
+ * of a deployment. A transport delivers every sent message to every subscribed node,
+ * including the sender, which InvalidationBus filters out by node id.
+ */
+public interface InvalidationTransport extends AutoCloseable {
+
+    /**
+     * Broadcasts a message to all subscribed nodes.
+     *
+     * @param payload The encoded message, at most {@link #maxPayloadBytes()} bytes in UTF-8.
+     */
+    void send(String payload);
+
+    /**
+     * Starts delivering the messages of all nodes to the listener.
+     *
+     * @param listener The receiver of the messages.
+     */
+    void subscribe(Listener listener);
+
+    /**
+     * Returns the largest message the transport can carry.
+     */
+    default int maxPayloadBytes() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * Stops delivering messages and releases the resources of the transport.
+     */
+    @Override
+    default void close() {
+    }
+
+    /**
+     * The Listener interface receives the messages of a transport.
+     */
+    interface Listener {
+
+        void onMessage(String payload);
+
+        /**
+         * Called when the transport may have missed messages, for example after a reconnect.
+         */
+        default void onMessagesLost() {
+        }
+    }
+}
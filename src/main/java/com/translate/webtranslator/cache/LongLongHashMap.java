@@ -0,0 +1,159 @@
+package com.translate.webtranslator.cache;
+
+import java.util.Arrays;
+
+/**
+ * The LongLongHashMap class maps long keys to non-negative long values without boxing.
+ * Keys and values live in two parallel arrays with open addressing and linear probing,
+ * so a million entries cost two arrays instead of a million map nodes.
+ * Removal shifts the following entries back, which keeps probe chains short without tombstones.
+ * The class is not thread-safe.
+ */
+public final class LongLongHashMap {
+
+    public static final long MISSING = -1;
+
+    private static final long EMPTY = 0;
+
+    private long[] keys;
+    private long[] values;
+    private int mask;
+    private int size;
+    // The key 0 marks empty slots, so its value is kept aside.
+    private long zeroValue = MISSING;
+
+    public LongLongHashMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(16, expectedSize * 2 - 1)) << 1;
+        allocate(capacity);
+    }
+
+    public long get(long key) {
+        if (key == EMPTY) {
+            return zeroValue;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                return values[slot];
+            }
+            if (current == EMPTY) {
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Associates the value with the key.
+     *
+     * @return The previous value, or {@link #MISSING}.
+     */
+    public long put(long key, long value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("Value must not be negative: " + value);
+        }
+        if (key == EMPTY) {
+            long previous = zeroValue;
+            zeroValue = value;
+            if (previous == MISSING) {
+                size++;
+            }
+            return previous;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == key) {
+                long previous = values[slot];
+                values[slot] = value;
+                return previous;
+            }
+            if (current == EMPTY) {
+                keys[slot] = key;
+                values[slot] = value;
+                size++;
+                if (size > (mask + 1) / 2) {
+                    rehash(keys.length << 1);
+                }
+                return MISSING;
+            }
+        }
+    }
+
+    /**
+     * Removes the key.
+     *
+     * @return The removed value, or {@link #MISSING}.
+     */
+    public long remove(long key) {
+        if (key == EMPTY) {
+            long previous = zeroValue;
+            zeroValue = MISSING;
+            if (previous != MISSING) {
+                size--;
+            }
+            return previous;
+        }
+        for (int slot = slot(key); ; slot = (slot + 1) & mask) {
+            long current = keys[slot];
+            if (current == EMPTY) {
+                return MISSING;
+            }
+            if (current == key) {
+                long previous = values[slot];
+                shiftBack(slot);
+                size--;
+                return previous;
+            }
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        zeroValue = MISSING;
+        size = 0;
+    }
+
+    private void shiftBack(int gap) {
+        for (int slot = (gap + 1) & mask; keys[slot] != EMPTY; slot = (slot + 1) & mask) {
+            int home = slot(keys[slot]);
+            // Move the entry into the gap unless its home lies cyclically in (gap, slot].
+            if (((slot - home) & mask) >= ((slot - gap) & mask)) {
+                keys[gap] = keys[slot];
+                values[gap] = values[slot];
+                gap = slot;
+            }
+        }
+        keys[gap] = EMPTY;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        long[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = slot(key);
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new long[capacity];
+        mask = capacity - 1;
+    }
+
+    private int slot(long key) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,152 @@
+package com.translate.webtranslator.cache;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.ToLongFunction;
+
+/**
+ * The LongObjectIndex class maps primitive long keys to values without boxing.
+ * The key of an entry is read from the value itself, so the table is a single array
+ * of values with open addressing and linear probing.
+ * Writes must be serialized by the caller, while reads need no lock: slots are published
+ * through an AtomicReferenceArray, a removed slot becomes a tombstone instead of shifting
+ * its neighbours, and a rehash fills a new table before swapping it in. A reader racing
+ * with a write may miss the entry being written, but it never returns a value stored
+ * under another key, because it checks the key of every value it finds.
+ */
+final class LongObjectIndex<V> {
+
+    private static final Object TOMBSTONE = new Object();
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final ToLongFunction<V> keyOf;
+    private volatile AtomicReferenceArray<Object> table;
+    private volatile int size;
+    // Live entries plus tombstones, which both lengthen the probe chains.
+    private int used;
+
+    LongObjectIndex(ToLongFunction<V> keyOf) {
+        this.keyOf = keyOf;
+        this.table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+    }
+
+    V get(long key) {
+        AtomicReferenceArray<Object> current = table;
+        int mask = current.length() - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            Object entry = current.get(slot);
+            if (entry == null) {
+                return null;
+            }
+            if (entry != TOMBSTONE && keyOf.applyAsLong(cast(entry)) == key) {
+                return cast(entry);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Stores the value under its key, replacing the value stored there before.
+     *
+     * @return The replaced value, or null.
+     */
+    V put(V value) {
+        long key = keyOf.applyAsLong(value);
+        AtomicReferenceArray<Object> current = table;
+        int mask = current.length() - 1;
+        int free = -1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            Object entry = current.get(slot);
+            if (entry == null) {
+                if (free < 0) {
+                    free = slot;
+                }
+                break;
+            }
+            if (entry == TOMBSTONE) {
+                if (free < 0) {
+                    free = slot;
+                }
+            } else if (keyOf.applyAsLong(cast(entry)) == key) {
+                current.set(slot, value);
+                return cast(entry);
+            }
+        }
+        if (current.get(free) == null) {
+            used++;
+        }
+        current.set(free, value);
+        size++;
+        if (used * 2 > current.length()) {
+            rehash();
+        }
+        return null;
+    }
+
+    /**
+     * Removes the entry of the key if it still holds the given value.
+     *
+     * @return true if the entry was removed.
+     */
+    boolean remove(long key, V value) {
+        AtomicReferenceArray<Object> current = table;
+        int mask = current.length() - 1;
+        int slot = slot(key, mask);
+        for (int probes = 0; probes <= mask; probes++, slot = (slot + 1) & mask) {
+            Object entry = current.get(slot);
+            if (entry == null) {
+                return false;
+            }
+            if (entry == value) {
+                current.set(slot, TOMBSTONE);
+                size--;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    void clear() {
+        table = new AtomicReferenceArray<>(INITIAL_CAPACITY);
+        size = 0;
+        used = 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Copies the live entries into a new table, growing it when they fill a quarter of
+     * the current one and otherwise just dropping the tombstones.
+     */
+    private void rehash() {
+        AtomicReferenceArray<Object> current = table;
+        int capacity = size * 4 > current.length() ? current.length() * 2 : current.length();
+        AtomicReferenceArray<Object> rehashed = new AtomicReferenceArray<>(capacity);
+        int mask = capacity - 1;
+        for (int i = 0; i < current.length(); i++) {
+            Object entry = current.get(i);
+            if (entry != null && entry != TOMBSTONE) {
+                int slot = slot(keyOf.applyAsLong(cast(entry)), mask);
+                while (rehashed.get(slot) != null) {
+                    slot = (slot + 1) & mask;
+                }
+                rehashed.set(slot, entry);
+            }
+        }
+        used = size;
+        table = rehashed;
+    }
+
+    private static int slot(long key, int mask) {
+        long hash = key * 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+
+    @SuppressWarnings("unchecked")
+    private V cast(Object entry) {
+        return (V) entry;
+    }
+}
@@ -0,0 +1,279 @@
+package com.translate.webtranslator.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The OffHeapStore class keeps serialized cache entries outside of the Java heap.
+ * Records are appended to a ring of direct ByteBuffer segments, so the heap only holds the
+ * index: a primitive map from a 64-bit hash of the encoded key to the record address.
+ * When the ring wraps around, the oldest segment is recycled as a whole and the index entries
+ * still pointing into it are dropped, which makes the store a FIFO of the values evicted
+ * from the heap. Overwritten and removed records are left in place until their segment
+ * is recycled.
+ * Every record stores its key, so a lookup whose hash collides with another key is a miss.
+ * Reads copy the record under a shared lock and writes take the exclusive lock. Taking or
+ * removing a key first looks it up under the shared lock, so the misses of the heap tier and
+ * the puts of keys that were never demoted, which call them all the time, don't serialize
+ * the shards of the cache on the exclusive lock.
+ * Direct buffers count against -XX:MaxDirectMemorySize.
+ */
+public class OffHeapStore {
+
+    private static final int HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES;
+    private static final int TARGET_SEGMENTS = 16;
+    private static final int MIN_SEGMENT_BYTES = 64 * 1024;
+    private static final int MAX_SEGMENT_BYTES = 1 << 30;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ByteBuffer[] segments;
+    private final int[] segmentEnds;
+    private final int segmentBytes;
+    private final LongLongHashMap index = new LongLongHashMap(1024);
+    private int current;
+    private long usedBytes;
+
+    /**
+     * Creates a store that occupies at most the given number of bytes.
+     * Segments are allocated when the ring first reaches them.
+     *
+     * @param capacityBytes The total size of the segments.
+     */
+    public OffHeapStore(long capacityBytes) {
+        long segmentSize = Math.max(MIN_SEGMENT_BYTES,
+                Math.min(MAX_SEGMENT_BYTES, capacityBytes / TARGET_SEGMENTS));
+        int segmentCount = (int) Math.max(2, capacityBytes / segmentSize);
+        this.segmentBytes = (int) segmentSize;
+        this.segments = new ByteBuffer[segmentCount];
+        this.segmentEnds = new int[segmentCount];
+    }
+
+    /**
+     * A stored value with the time its entry was written to the cache.
+     */
+    public record Entry(byte[] value, long writeTime) {
+    }
+
+    /**
+     * Stores a value, replacing the previous value of the key.
+     *
+     * @param cacheKey The key of the value.
+     * @param value The serialized value.
+     * @param writeTime The time the entry was written to the cache.
+     * @return false when the record doesn't fit into a segment.
+     */
+    public boolean put(CacheKey cacheKey, byte[] value, long writeTime) {
+        byte[] key = encodeKey(cacheKey);
+        long recordBytes = (long) HEADER_BYTES + key.length + value.length;
+        if (recordBytes > segmentBytes) {
+            remove(cacheKey);
+            return false;
+        }
+        lock.writeLock().lock();
+        try {
+            if (segmentEnds[current] + recordBytes > segmentBytes || segments[current] == null) {
+                advance();
+            }
+            ByteBuffer segment = segments[current];
+            int offset = segmentEnds[current];
+            segment.putInt(offset, (int) recordBytes);
+            segment.putLong(offset + Integer.BYTES, writeTime);
+            segment.putInt(offset + Integer.BYTES + Long.BYTES, key.length);
+            segment.put(offset + HEADER_BYTES, key);
+            segment.put(offset + HEADER_BYTES + key.length, value);
+            segmentEnds[current] += (int) recordBytes;
+            usedBytes += recordBytes;
+            index.put(hash(key), address(current, offset));
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the value of the key.
+     *
+     * @param cacheKey The key of the value.
+     * @return The stored entry, or null if the key is not stored.
+     */
+    public Entry get(CacheKey cacheKey) {
+        byte[] key = encodeKey(cacheKey);
+        lock.readLock().lock();
+        try {
+            return read(key, index.get(hash(key)));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the key and returns its value, so that a value is promoted only once.
+     *
+     * @param cacheKey The key of the value.
+     * @return The removed entry, or null if the key is not stored.
+     */
+    public Entry take(CacheKey cacheKey) {
+        byte[] key = encodeKey(cacheKey);
+        long hash = hash(key);
+        if (!contains(hash)) {
+            return null;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry entry = read(key, index.get(hash));
+            if (entry != null) {
+                index.remove(hash);
+            }
+            return entry;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes the key. The space of its record is reclaimed when the segment is recycled.
+     *
+     * @param cacheKey The key to remove.
+     */
+    public void remove(CacheKey cacheKey) {
+        long hash = hash(encodeKey(cacheKey));
+        if (!contains(hash)) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            index.remove(hash);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every key and releases the segments.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            index.clear();
+            Arrays.fill(segments, null);
+            Arrays.fill(segmentEnds, 0);
+            current = 0;
+            usedBytes = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of stored keys.
+     */
+    public int getEntryCount() {
+        lock.readLock().lock();
+        try {
+            return index.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of bytes written to the segments, including records
+     * that were overwritten or removed but not recycled yet.
+     */
+    public long getUsedBytes() {
+        lock.readLock().lock();
+        try {
+            return usedBytes;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public long getCapacityBytes() {
+        return (long) segmentBytes * segments.length;
+    }
+
+    private boolean contains(long hash) {
+        lock.readLock().lock();
+        try {
+            return index.get(hash) != LongLongHashMap.MISSING;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Entry read(byte[] key, long address) {
+        if (address == LongLongHashMap.MISSING) {
+            return null;
+        }
+        ByteBuffer segment = segments[(int) (address >>> 32)];
+        int offset = (int) address;
+        int recordBytes = segment.getInt(offset);
+        int keyLength = segment.getInt(offset + Integer.BYTES + Long.BYTES);
+        if (keyLength != key.length) {
+            return null;
+        }
+        byte[] storedKey = new byte[keyLength];
+        segment.get(offset + HEADER_BYTES, storedKey);
+        if (!Arrays.equals(key, storedKey)) {
+            return null;
+        }
+        byte[] value = new byte[recordBytes - HEADER_BYTES - keyLength];
+        segment.get(offset + HEADER_BYTES + keyLength, value);
+        return new Entry(value, segment.getLong(offset + Integer.BYTES));
+    }
+
+    /**
+     * Moves to the next segment of the ring, dropping the index entries of the records
+     * that are still stored there.
+     */
+    private void advance() {
+        if (segments[current] != null) {
+            current = (current + 1) % segments.length;
+        }
+        ByteBuffer segment = segments[current];
+        if (segment == null) {
+            segments[current] = ByteBuffer.allocateDirect(segmentBytes);
+            return;
+        }
+        int end = segmentEnds[current];
+        int offset = 0;
+        while (offset < end) {
+            int recordBytes = segment.getInt(offset);
+            byte[] key = new byte[segment.getInt(offset + Integer.BYTES + Long.BYTES)];
+            segment.get(offset + HEADER_BYTES, key);
+            long hash = hash(key);
+            if (index.get(hash) == address(current, offset)) {
+                index.remove(hash);
+            }
+            offset += recordBytes;
+        }
+        usedBytes -= end;
+        segmentEnds[current] = 0;
+    }
+
+    private static byte[] encodeKey(CacheKey cacheKey) {
+        return CacheKeyCodec.encode(cacheKey).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static long address(int segment, int offset) {
+        return ((long) segment << 32) | offset;
+    }
+
+    /**
+     * FNV-1a over the encoded key, finished with a 64-bit mix so that similar keys spread well.
+     */
+    private static long hash(byte[] key) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,23 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The ValueCodec interface serializes cached values for the off-heap tier of InMemoryCache.
+ */
+public interface ValueCodec {
+
+    /**
+     * Serializes a value.
+     *
+     * @param value The cached value.
+     * @return The serialized value, or null if the value should stay on the heap only.
+     */
+    byte[] encode(Object value);
+
+    /**
+     * Restores a value serialized by {@link #encode(Object)}.
+     *
+     * @param bytes The serialized value.
+     * @return The value.
+     */
+    Object decode(byte[] bytes);
+}
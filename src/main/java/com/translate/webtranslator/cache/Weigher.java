@@ -0,0 +1,23 @@
+package com.translate.webtranslator.cache;
+
+/**
+ * The Weigher interface estimates how many bytes a cached value occupies.
+ * InMemoryCache sums these weights per shard to enforce its maxWeight limit.
+ */
+@FunctionalInterface
+public interface Weigher {
+
+    /**
+     * A weigher that gives every entry the same weight, making maxWeight a second entry limit.
+     */
+    Weigher SINGLETON = (key, value) -> 1;
+
+    /**
+     * Estimates the weight of a cache entry.
+     *
+     * @param key The key of the entry.
+     * @param value The cached value.
+     * @return The estimated weight in bytes, never negative.
+     */
+    int weigh(CacheKey key, Object value);
+}
@@ -0,0 +1,81 @@
+package com.translate.webtranslator.config;
+
+import com.translate.webtranslator.cache.CacheSnapshotStore;
+import com.translate.webtranslator.cache.EntityCodec;
+import com.translate.webtranslator.cache.EntityWeigher;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.cache.InMemoryCacheMetrics;
+import com.translate.webtranslator.cache.ValueCodec;
+import com.translate.webtranslator.cache.Weigher;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.nio.file.Path;
+import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * The CacheConfig class defines the service caches as Spring beans.
+ * Each cache is sized from its cache.specs.&lt;beanName&gt; properties.
+ * The text and translation caches can keep their cold entries off-heap through the entity codec.
+ * The machine translation cache holds the translated strings of the translation engine.
+ */
+@Configuration
+@EnableScheduling
+@EnableConfigurationProperties(CacheProperties.class)
+public class CacheConfig {
+
+    public static final String TEXT_CACHE = "textCache";
+    public static final String TRANSLATION_CACHE = "translationCache";
+    public static final String LANGUAGE_CACHE = "languageCache";
+    public static final String MACHINE_TRANSLATION_CACHE = "machineTranslationCache";
+
+    @Bean
+    public Weigher entityWeigher() {
+        return new EntityWeigher();
+    }
+
+    @Bean
+    public ValueCodec entityCodec() {
+        return new EntityCodec();
+    }
+
+    @Bean(TEXT_CACHE)
+    public InMemoryCache textCache(CacheProperties properties, Weigher entityWeigher,
+                                   ValueCodec entityCodec) {
+        return new InMemoryCache(TEXT_CACHE, properties.specFor(TEXT_CACHE), entityWeigher,
+                entityCodec);
+    }
+
+    @Bean(TRANSLATION_CACHE)
+    public InMemoryCache translationCache(CacheProperties properties, Weigher entityWeigher,
+                                          ValueCodec entityCodec) {
+        return new InMemoryCache(TRANSLATION_CACHE,
+                properties.specFor(TRANSLATION_CACHE), entityWeigher, entityCodec);
+    }
+
+    @Bean(LANGUAGE_CACHE)
+    public InMemoryCache languageCache(CacheProperties properties, Weigher entityWeigher) {
+        return new InMemoryCache(LANGUAGE_CACHE, properties.specFor(LANGUAGE_CACHE), entityWeigher);
+    }
+
+    @Bean(MACHINE_TRANSLATION_CACHE)
+    public InMemoryCache machineTranslationCache(CacheProperties properties, Weigher entityWeigher) {
+        return new InMemoryCache(MACHINE_TRANSLATION_CACHE,
+                properties.specFor(MACHINE_TRANSLATION_CACHE), entityWeigher);
+    }
+
+    @Bean
+    public CacheSnapshotStore cacheSnapshotStore(CacheProperties properties) {
+        return new CacheSnapshotStore(Path.of(properties.getSnapshot().getDirectory()));
+    }
+
+    /**
+     * Binds the statistics of every cache bean to the Micrometer registry.
+     */
+    @Bean
+    public MeterBinder inMemoryCacheMetrics(List<InMemoryCache> caches) {
+        return registry -> caches.forEach(cache -> new InMemoryCacheMetrics(cache).bindTo(registry));
+    }
+}
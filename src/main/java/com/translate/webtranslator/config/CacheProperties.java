@@ -0,0 +1,208 @@
+package com.translate.webtranslator.config;
+
+import com.translate.webtranslator.cache.CacheSpec;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The CacheProperties class binds the cache.* section of application.properties.
+ * Every cache is configured under cache.specs.&lt;cacheName&gt;, for example
+ * cache.specs.textCache.max-entries=10000. The invalidation bus between nodes
+ * is configured under cache.bus, the snapshots and the warm-up on startup under
+ * cache.snapshot and cache.warmup.
+ */
+@ConfigurationProperties(prefix = "cache")
+public class CacheProperties {
+
+    private Map<String, CacheSpec> specs = new HashMap<>();
+    private final Bus bus = new Bus();
+    private final Snapshot snapshot = new Snapshot();
+    private final Warmup warmup = new Warmup();
+
+    /**
+     * Returns the specification of the named cache, or the defaults when it is not configured.
+     *
+     * @param cacheName The bean name of the cache.
+     * @return The cache specification.
+     */
+    public CacheSpec specFor(String cacheName) {
+        return specs.getOrDefault(cacheName, new CacheSpec());
+    }
+
+    public Map<String, CacheSpec> getSpecs() {
+        return specs;
+    }
+
+    public void setSpecs(Map<String, CacheSpec> specs) {
+        this.specs = specs;
+    }
+
+    public Bus getBus() {
+        return bus;
+    }
+
+    public Snapshot getSnapshot() {
+        return snapshot;
+    }
+
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * The transports the invalidation bus can use.
+     */
+    public enum Transport {
+        NONE, IN_PROCESS, POSTGRES
+    }
+
+    /**
+     * The Bus class binds the cache.bus.* properties of the invalidation bus.
+     */
+    public static class Bus {
+
+        private Transport transport = Transport.NONE;
+        private String channel = "cache_invalidation";
+        private String nodeId = UUID.randomUUID().toString();
+        private Duration flushInterval = Duration.ofMillis(100);
+        private int maxBatchSize = 1000;
+
+        public Transport getTransport() {
+            return transport;
+        }
+
+        public void setTransport(Transport transport) {
+            this.transport = transport;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        public void setNodeId(String nodeId) {
+            this.nodeId = nodeId;
+        }
+
+        public Duration getFlushInterval() {
+            return flushInterval;
+        }
+
+        public void setFlushInterval(Duration flushInterval) {
+            this.flushInterval = flushInterval;
+        }
+
+        public int getMaxBatchSize() {
+            return maxBatchSize;
+        }
+
+        public void setMaxBatchSize(int maxBatchSize) {
+            this.maxBatchSize = maxBatchSize;
+        }
+    }
+
+    /**
+     * The Snapshot class binds the cache.snapshot.* properties.
+     */
+    public static class Snapshot {
+
+        private boolean enabled;
+        private String directory = "cache-snapshots";
+        private Duration interval = Duration.ofMinutes(5);
+        private boolean includeValues;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public Duration getInterval() {
+            return interval;
+        }
+
+        public void setInterval(Duration interval) {
+            this.interval = interval;
+        }
+
+        public boolean isIncludeValues() {
+            return includeValues;
+        }
+
+        public void setIncludeValues(boolean includeValues) {
+            this.includeValues = includeValues;
+        }
+    }
+
+    /**
+     * The Warmup class binds the cache.warmup.* properties.
+     */
+    public static class Warmup {
+
+        private boolean enabled;
+        private int batchSize = 500;
+        private int parallelism = 4;
+        private Duration timeout = Duration.ofMinutes(2);
+        private int topLanguages;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getParallelism() {
+            return parallelism;
+        }
+
+        public void setParallelism(int parallelism) {
+            this.parallelism = parallelism;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            this.timeout = timeout;
+        }
+
+        public int getTopLanguages() {
+            return topLanguages;
+        }
+
+        public void setTopLanguages(int topLanguages) {
+            this.topLanguages = topLanguages;
+        }
+    }
+}
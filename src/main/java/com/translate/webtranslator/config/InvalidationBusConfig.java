@@ -0,0 +1,62 @@
+package com.translate.webtranslator.config;
+
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.cache.InProcessInvalidationTransport;
+import com.translate.webtranslator.cache.InvalidationBus;
+import com.translate.webtranslator.cache.InvalidationTransport;
+import com.translate.webtranslator.cache.PostgresInvalidationTransport;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import java.util.List;
+import javax.sql.DataSource;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The InvalidationBusConfig class connects the caches of all nodes through the transport
+ * chosen by cache.bus.transport. Nothing is created when it is none, the default.
+ */
+@Configuration
+@ConditionalOnExpression("!'${cache.bus.transport:none}'.equalsIgnoreCase('none')")
+public class InvalidationBusConfig {
+
+    @Bean
+    public InvalidationTransport invalidationTransport(CacheProperties properties,
+                                                       DataSource dataSource) {
+        CacheProperties.Bus bus = properties.getBus();
+        return switch (bus.getTransport()) {
+            case POSTGRES -> new PostgresInvalidationTransport(dataSource, bus.getChannel());
+            case IN_PROCESS -> new InProcessInvalidationTransport();
+            case NONE -> throw new IllegalStateException("cache.bus.transport is none");
+        };
+    }
+
+    @Bean
+    public InvalidationBus invalidationBus(CacheProperties properties,
+                                           InvalidationTransport invalidationTransport,
+                                           List<InMemoryCache> caches) {
+        CacheProperties.Bus bus = properties.getBus();
+        return new InvalidationBus(bus.getNodeId(), invalidationTransport, caches,
+                bus.getMaxBatchSize());
+    }
+
+    /**
+     * Publishes the number of messages the bus has sent and received.
+     */
+    @Bean
+    public MeterBinder invalidationBusMetrics(InvalidationBus invalidationBus) {
+        return registry -> {
+            FunctionCounter.builder("cache.bus.messages", invalidationBus,
+                            InvalidationBus::getSentMessages)
+                    .tag("direction", "sent")
+                    .description("Invalidation messages broadcast to other nodes")
+                    .register(registry);
+            FunctionCounter.builder("cache.bus.messages", invalidationBus,
+                            InvalidationBus::getReceivedMessages)
+                    .tag("direction", "received")
+                    .description("Invalidation messages received from other nodes")
+                    .register(registry);
+        };
+    }
+}
@@ -0,0 +1,29 @@
+package com.translate.webtranslator.config;
+
+import com.translate.webtranslator.engine.TranslationBatcher;
+import com.translate.webtranslator.engine.TranslationEngine;
+import java.util.List;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * The TranslationEngineConfig class picks the TranslationEngine named by
+ * translation-engine.provider among the engine beans and puts a TranslationBatcher,
+ * configured from its translation-engine.providers.&lt;name&gt; properties, in front of it.
+ */
+@Configuration
+@EnableConfigurationProperties(TranslationEngineProperties.class)
+public class TranslationEngineConfig {
+
+    @Bean
+    public TranslationBatcher translationBatcher(List<TranslationEngine> engines,
+                                                 TranslationEngineProperties properties) {
+        TranslationEngine engine = engines.stream()
+                .filter(candidate -> candidate.getName().equals(properties.getProvider()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(
+                        "No translation engine named " + properties.getProvider()));
+        return new TranslationBatcher(engine, properties.specFor(engine.getName()));
+    }
+}
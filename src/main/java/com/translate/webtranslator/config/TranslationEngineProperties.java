@@ -0,0 +1,46 @@
+package com.translate.webtranslator.config;
+
+import com.translate.webtranslator.engine.DictionaryTranslationEngine;
+import com.translate.webtranslator.engine.EngineSpec;
+import java.util.HashMap;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * The TranslationEngineProperties class binds the translation-engine.* section of
+ * application.properties. translation-engine.provider names the engine that translates,
+ * and every engine is configured under translation-engine.providers.&lt;name&gt;, for example
+ * translation-engine.providers.dictionary.max-concurrency=4.
+ */
+@ConfigurationProperties(prefix = "translation-engine")
+public class TranslationEngineProperties {
+
+    private String provider = DictionaryTranslationEngine.NAME;
+    private Map<String, EngineSpec> providers = new HashMap<>();
+
+    /**
+     * Returns the specification of the named engine, or the defaults when it is not configured.
+     *
+     * @param name The name of the engine.
+     * @return The engine specification.
+     */
+    public EngineSpec specFor(String name) {
+        return providers.getOrDefault(name, new EngineSpec());
+    }
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public Map<String, EngineSpec> getProviders() {
+        return providers;
+    }
+
+    public void setProviders(Map<String, EngineSpec> providers) {
+        this.providers = providers;
+    }
+}
@@ -0,0 +1,67 @@
+package com.translate.webtranslator.controller;
+
+import com.translate.webtranslator.aspect.AspectAnnotation;
+import com.translate.webtranslator.cache.CacheReport;
+import com.translate.webtranslator.cache.HotKey;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.exception.RestExceptionHandler;
+import io.swagger.v3.oas.annotations.Operation;
+import jakarta.persistence.EntityNotFoundException;
+import java.util.List;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin controller for the in-memory caches.
+ */
+@CrossOrigin
+@RestExceptionHandler
+@RestController
+@RequestMapping("/api/admin/caches")
+public class CacheController {
+
+    private List<InMemoryCache> caches;
+
+    @Autowired
+    public CacheController(List<InMemoryCache> caches) {
+        this.caches = caches;
+    }
+
+    @GetMapping
+    @AspectAnnotation
+    @Operation(summary = "Get statistics of all caches",
+               description = "Allows you to view size, hit rate, evictions and loads of every cache")
+    public List<CacheReport> getCaches() {
+        return caches.stream().map(CacheReport::of).toList();
+    }
+
+    @GetMapping("/{name}")
+    @AspectAnnotation
+    @Operation(summary = "Get statistics of a cache",
+               description = "Allows you to view size, hit rate, evictions and loads of a cache")
+    public CacheReport getCache(@PathVariable String name) {
+        return CacheReport.of(findCache(name));
+    }
+
+    @GetMapping("/{name}/hot")
+    @AspectAnnotation
+    @Operation(summary = "Get the hottest keys of a cache",
+               description = "Allows you to view the keys that served the most hits")
+    public List<HotKey> getHottestKeys(@PathVariable String name,
+                                       @RequestParam(defaultValue = "20") int limit) {
+        return findCache(name).hottestKeys(limit);
+    }
+
+    private InMemoryCache findCache(String name) {
+        return caches.stream()
+                .filter(cache -> cache.getName().equals(name))
+                .findFirst()
+                .orElseThrow(() -> new EntityNotFoundException("cache " + name + " doesn't exist"));
+    }
+}
@@ -1,6 +1,7 @@
 package com.translate.webtranslator.controller;
 
 import com.translate.webtranslator.aspect.AspectAnnotation;
+import com.translate.webtranslator.dto.LanguageSummary;
 import com.translate.webtranslator.exception.RestExceptionHandler;
 import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.service.LanguageService;
@@ -38,8 +39,9 @@ public class LanguageController {
     @GetMapping
     @AspectAnnotation
     @Operation(summary = "Get all the languages",
-               description = "Allows you to view all languages in the database")
-    public List<Language> getAllLanguages() {
+               description = "Allows you to view all languages in the database "
+                       + "with the number of texts in each")
+    public List<LanguageSummary> getAllLanguages() {
         return languageService.getAllLanguages();
     }
 
@@ -1,24 +1,32 @@
 package com.translate.webtranslator.controller;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import com.translate.webtranslator.aspect.AspectAnnotation;
+import com.translate.webtranslator.dto.FuzzyMatch;
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TextSummary;
 import com.translate.webtranslator.exception.RestExceptionHandler;
-import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.model.Text;
-import com.translate.webtranslator.model.Translation;
-import com.translate.webtranslator.service.LanguageService;
+import com.translate.webtranslator.service.TextExportService;
+import com.translate.webtranslator.service.TextImportService;
 import com.translate.webtranslator.service.TextService;
-import com.translate.webtranslator.service.TranslationService;
+import com.translate.webtranslator.service.TextUpsertService;
+import com.translate.webtranslator.service.TranslationMemoryService;
 
 import io.swagger.v3.oas.annotations.Operation;
 import jakarta.validation.Valid;
 
-import java.util.ArrayList;
-import java.util.Collections;
+import java.io.InputStream;
 import java.util.List;
 
 /**
@@ -31,27 +39,60 @@ import java.util.List;
 public class TextController {
 
     private TextService textService;
-    private TranslationService translationService;
-    private LanguageService languageService;
+    private TextUpsertService textUpsertService;
+    private TranslationMemoryService translationMemoryService;
+    private TextImportService textImportService;
+    private TextExportService textExportService;
+    private ObjectMapper objectMapper;
 
     @Autowired
     public TextController(TextService textService,
-    					  TranslationService translationService,
-    					  LanguageService languageService) {
+    					  TextUpsertService textUpsertService,
+    					  TranslationMemoryService translationMemoryService,
+    					  TextImportService textImportService,
+    					  TextExportService textExportService,
+    					  ObjectMapper objectMapper) {
         this.textService = textService;
-        this.translationService = translationService;
-        this.languageService = languageService;
+        this.textUpsertService = textUpsertService;
+        this.translationMemoryService = translationMemoryService;
+        this.textImportService = textImportService;
+        this.textExportService = textExportService;
+        this.objectMapper = objectMapper;
     }
 
     @GetMapping
     @AspectAnnotation
     @Operation(summary = "Get all the text",
-               description = "Allows you to view all the texts in the database")
-    public Page<Text> getTexts(@RequestParam(defaultValue = "1") int page,
-            @RequestParam(defaultValue = "20") int size) {
-    	return textService.getTextsWithPagination(page, size);
+               description = "Allows you to view all the texts in the database. "
+                       + "With count=false the total is not counted, which is much cheaper")
+    public Slice<TextSummary> getTexts(@RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
+    	return count ? textService.getTextsWithPagination(page, size)
+    			: textService.getTextsSlice(page, size);
     	}
+
+    @GetMapping("/seek")
+    @AspectAnnotation
+    @Operation(summary = "Get texts page by page with a continuation token",
+               description = "Returns the texts after the given token, ordered by content, "
+                       + "and the token of the next page. Deep pages are as fast as the first")
+    public KeysetPage<TextSummary> getTextsAfter(@RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return textService.getTextsAfter(after, size);
+    }
     
+    @GetMapping("/search")
+    @AspectAnnotation
+    @Operation(summary = "Search texts by words",
+               description = "Returns the texts containing all entered words, the last one may be "
+                       + "unfinished, most relevant first, and the token of the next page")
+    public KeysetPage<SearchHit> searchTexts(@RequestParam String query,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return textService.searchTexts(query, after, size);
+    }
+
     @GetMapping("/find/byId/{id}")
     @AspectAnnotation	
     @Operation(summary = "Get text by ID",
@@ -68,6 +109,17 @@ public class TextController {
         return textService.getTextByText(text);
     }
 
+    @GetMapping("/find/similar")
+    @AspectAnnotation
+    @Operation(summary = "Find texts similar to the entered text",
+               description = "Returns the texts that share the most character trigrams with the "
+                       + "entered text, best first, with a score from 0 to 1")
+    public List<FuzzyMatch> findSimilarTexts(@RequestParam String text,
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "0.3") double minScore) {
+        return translationMemoryService.findSimilar(text, limit, minScore);
+    }
+
     @GetMapping("/find/byLanguage/sort/{language}")
     @AspectAnnotation
     @Operation(summary = "Get a sorted list of texts by the entered language",
@@ -91,64 +143,15 @@ public class TextController {
     @PostMapping("/create")
     @AspectAnnotation
     @Operation(summary = "Create text",
-               description = "Allows you to add new text to the database")
+               description = "Allows you to add new text to the database. If the text exists, "
+                       + "the translations and languages it doesn't have yet are added")
     public Text saveText(@RequestBody Text text) {
         if (text == null) {
             return null;
         }
-        Text existingText = textService.getTextByText(text.getTextToTranslate());
-        if (existingText != null) {
-            return updateExistingText(existingText, text);
-        } else {
-            return saveNewText(text);
-        }
+        return textUpsertService.upsert(text);
     }
 
-    private Text updateExistingText(Text existingText, Text newText) {
-        for (Translation newTranslation : newText.getTranslations()) {
-            if (!existingText.getTranslations().contains(newTranslation)) {
-                newTranslation.setText(existingText);
-                translationService.saveTranslation(newTranslation);
-                existingText.getTranslations().add(newTranslation);
-            }
-        }
-
-        for (Language newLanguage : newText.getLanguages()) {
-            Language existingLanguage = languageService.getLanguageByLanguage(newLanguage.getName());
-            if (existingLanguage == null) {
-                newLanguage.setTexts(Collections.singletonList(existingText));
-                Language savedLanguage = languageService.saveLanguage(newLanguage);
-                existingText.getLanguages().add(savedLanguage);
-            } else if (!existingLanguage.getTexts().contains(existingText)) {
-                existingLanguage.getTexts().add(existingText);
-                languageService.saveLanguage(existingLanguage);
-                existingText.getLanguages().add(existingLanguage);
-            }
-        }
-        textService.saveText(existingText);
-        return existingText;
-    }
-
-    private Text saveNewText(Text text) {
-        textService.saveText(text);
-        for (Translation translation : text.getTranslations()) {
-            translation.setText(text);
-            translationService.saveTranslation(translation);
-        }
-        for (Language language : text.getLanguages()) {
-            if (language != null) {
-                List<Text> texts = language.getTexts();
-                if (texts == null) {
-                    texts = new ArrayList<>();
-                    language.setTexts(texts);
-                }
-                texts.add(text);
-                languageService.saveLanguage(language);
-            }
-        }
-        return text;
-     }
-
     @DeleteMapping("/delete/byId/{id}")
     @AspectAnnotation
     @Operation(summary = "Delete text by ID",
@@ -174,4 +177,41 @@ public class TextController {
         return textService.bulkSaveText(texts);
     }
 
+    @PostMapping(value = "/import",
+                 consumes = {TextImportService.Format.NDJSON_MEDIA_TYPE, "text/csv"},
+                 produces = TextImportService.Format.NDJSON_MEDIA_TYPE)
+    @AspectAnnotation
+    @Operation(summary = "Import texts from an NDJSON or CSV stream",
+               description = "Reads the upload incrementally and saves it in chunks, "
+                       + "answering with one NDJSON progress line per chunk")
+    public ResponseEntity<StreamingResponseBody> importTexts(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestParam(defaultValue = "" + TextImportService.DEFAULT_CHUNK_SIZE) int chunkSize,
+            InputStream body) {
+        TextImportService.Format format = TextImportService.Format.of(contentType);
+        StreamingResponseBody progress = output -> textImportService.importTexts(body, format,
+                chunkSize, report -> {
+                    output.write(objectMapper.writeValueAsBytes(report));
+                    output.write('\n');
+                    output.flush();
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TextImportService.Format.NDJSON_MEDIA_TYPE))
+                .body(progress);
+    }
+
+    @GetMapping("/export")
+    @AspectAnnotation
+    @Operation(summary = "Export all texts",
+               description = "Streams every text with its translations and languages "
+                       + "as gzip-compressed NDJSON")
+    public ResponseEntity<StreamingResponseBody> exportTexts() {
+        StreamingResponseBody export = textExportService::exportTexts;
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TextImportService.Format.NDJSON_MEDIA_TYPE))
+                .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"texts.ndjson\"")
+                .body(export);
+    }
+
 }
\ No newline at end of file
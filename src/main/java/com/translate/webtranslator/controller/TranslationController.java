@@ -1,14 +1,22 @@
 package com.translate.webtranslator.controller;
 
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.web.bind.annotation.*;
 
 import com.translate.webtranslator.aspect.AspectAnnotation;
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TranslationMatrix;
+import com.translate.webtranslator.dto.TranslationMatrixRequest;
+import com.translate.webtranslator.dto.TranslationSummary;
 import com.translate.webtranslator.exception.RestExceptionHandler;
 import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.service.MachineTranslationService;
+import com.translate.webtranslator.service.TranslationMatrixService;
 import com.translate.webtranslator.service.TranslationService;
 
 import io.swagger.v3.oas.annotations.Operation;
@@ -24,19 +32,50 @@ import jakarta.validation.Valid;
 public class TranslationController {
 
     private TranslationService translationService;
+    private MachineTranslationService machineTranslationService;
+    private TranslationMatrixService translationMatrixService;
 
     @Autowired
-    public TranslationController(TranslationService translationService) {
+    public TranslationController(TranslationService translationService,
+                                 MachineTranslationService machineTranslationService,
+                                 TranslationMatrixService translationMatrixService) {
         this.translationService = translationService;
+        this.machineTranslationService = machineTranslationService;
+        this.translationMatrixService = translationMatrixService;
     }
 
     @GetMapping
     @AspectAnnotation
     @Operation(summary = "Get all translations",
-               description = "Allows you to view all translations from the database")
-    public Page<Translation> getAllTranslations(@RequestParam(defaultValue = "1") int page,
+               description = "Allows you to view all translations from the database. "
+                       + "With count=false the total is not counted, which is much cheaper")
+    public Slice<TranslationSummary> getAllTranslations(@RequestParam(defaultValue = "1") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @RequestParam(defaultValue = "true") boolean count) {
+    	return count ? translationService.getTranslationsWithPagination(page, size)
+    			: translationService.getTranslationsSlice(page, size);
+    }
+
+    @GetMapping("/seek")
+    @AspectAnnotation
+    @Operation(summary = "Get translations page by page with a continuation token",
+               description = "Returns the translations after the given token, ordered by "
+                       + "translated text, and the token of the next page")
+    public KeysetPage<TranslationSummary> getTranslationsAfter(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return translationService.getTranslationsAfter(after, size);
+    }
+
+    @GetMapping("/search")
+    @AspectAnnotation
+    @Operation(summary = "Search translations by words",
+               description = "Returns the translations containing all entered words, the last one "
+                       + "may be unfinished, most relevant first, and the token of the next page")
+    public KeysetPage<SearchHit> searchTranslations(@RequestParam String query,
+            @RequestParam(required = false) String after,
             @RequestParam(defaultValue = "20") int size) {
-    	return translationService.getTranslationsWithPagination(page, size);
+        return translationService.searchTranslations(query, after, size);
     }
 
     @GetMapping("/find/byId/{id}")
@@ -63,6 +102,26 @@ public class TranslationController {
         return translationService.saveTranslation(translation);
     }
 
+    @PostMapping("/machine/{textId}")
+    @AspectAnnotation
+    @Operation(summary = "Translate a text with the translation engine",
+               description = "Translates the text into the given languages and saves the "
+                       + "translations it doesn't have yet, answering with the translation "
+                       + "for every language")
+    public Map<String, String> translateText(@PathVariable Long textId,
+            @RequestParam List<String> languages) {
+        return machineTranslationService.translateText(textId, languages);
+    }
+
+    @PostMapping("/matrix")
+    @AspectAnnotation
+    @Operation(summary = "Get the translations of many texts into many languages",
+               description = "Takes text ids or contents and language names, and returns a row "
+                       + "per text with its translation into every language, null where there is none")
+    public TranslationMatrix getTranslationMatrix(@RequestBody TranslationMatrixRequest request) {
+        return translationMatrixService.getMatrix(request);
+    }
+
     @DeleteMapping("/delete/{id}")
     @AspectAnnotation
     @Operation(summary = "Delete translation by ID",
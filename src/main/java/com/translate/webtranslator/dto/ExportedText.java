@@ -0,0 +1,11 @@
+package com.translate.webtranslator.dto;
+
+import java.util.List;
+
+/**
+ * The ExportedText record is one line of a text export: a text with its translated texts
+ * and the names of its languages.
+ */
+public record ExportedText(Long id, String textToTranslate, List<String> translations,
+                           List<String> languages) {
+}
@@ -0,0 +1,8 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The FuzzyMatch record is a text found by a fuzzy search, with its similarity to the query
+ * from 0 to 1.
+ */
+public record FuzzyMatch(Long id, String textToTranslate, double score) {
+}
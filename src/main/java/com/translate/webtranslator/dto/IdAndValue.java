@@ -0,0 +1,9 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The IdAndValue record is a projection of one string column together with the id of the
+ * text it belongs to. Streams of it, ordered by id, are merged into whole texts without
+ * loading any entity.
+ */
+public record IdAndValue(Long id, String value) {
+}
@@ -0,0 +1,12 @@
+package com.translate.webtranslator.dto;
+
+import java.util.List;
+
+/**
+ * The KeysetPage record is one page of a keyset-paginated list.
+ *
+ * @param content The items of the page.
+ * @param next The token of the next page, or null if this is the last page.
+ */
+public record KeysetPage<T>(List<T> content, String next) {
+}
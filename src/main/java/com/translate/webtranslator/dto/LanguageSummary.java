@@ -0,0 +1,8 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The LanguageSummary record is the list view of a language: its id, name and the number
+ * of texts in it, in place of the texts themselves.
+ */
+public record LanguageSummary(Long id, String name, long textCount) {
+}
@@ -0,0 +1,15 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The SearchHit interface is one result of a full-text search: the id and content of the
+ * matching text or translation, and how relevant it is to the query. Search queries select
+ * just these three columns.
+ */
+public interface SearchHit {
+
+    Long getId();
+
+    String getContent();
+
+    Float getRank();
+}
@@ -0,0 +1,14 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The SegmentTranslation interface is the stored translation of one segment of a document
+ * into one language: the content of the segment, the name of the language and the translation.
+ */
+public interface SegmentTranslation {
+
+    String getContent();
+
+    String getLanguage();
+
+    String getTranslatedText();
+}
@@ -0,0 +1,8 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The TextSummary record is the list view of a text: its id and content, without
+ * translations or languages. Text listings select just these two columns.
+ */
+public record TextSummary(Long id, String textToTranslate) {
+}
@@ -0,0 +1,14 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The TranslationCell interface is the translation of a text into one language:
+ * the id of the text, the name of the language and the translated text.
+ */
+public interface TranslationCell {
+
+    Long getTextId();
+
+    String getLanguage();
+
+    String getTranslatedText();
+}
@@ -0,0 +1,24 @@
+package com.translate.webtranslator.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The TranslationMatrix record holds the translations of many texts into many languages:
+ * a row per requested text, in the order of the request, ids first.
+ *
+ * @param languages The names of the languages, the columns of every row.
+ * @param rows The rows.
+ */
+public record TranslationMatrix(List<String> languages, List<Row> rows) {
+
+    /**
+     * The translations of one text.
+     *
+     * @param textId The id of the text, or null if it doesn't exist.
+     * @param text The content of the text, or null if it doesn't exist.
+     * @param translations The translation into every language, null where there is none.
+     */
+    public record Row(Long textId, String text, Map<String, String> translations) {
+    }
+}
@@ -0,0 +1,14 @@
+package com.translate.webtranslator.dto;
+
+import java.util.List;
+
+/**
+ * The TranslationMatrixRequest record asks for the translations of many texts into many
+ * languages at once.
+ *
+ * @param ids The ids of texts.
+ * @param texts The contents of texts.
+ * @param languages The names of the languages.
+ */
+public record TranslationMatrixRequest(List<Long> ids, List<String> texts, List<String> languages) {
+}
@@ -0,0 +1,8 @@
+package com.translate.webtranslator.dto;
+
+/**
+ * The TranslationSummary record is the list view of a translation: its id, the translated
+ * text and the id of the text it translates, which is null for an unattached translation.
+ */
+public record TranslationSummary(Long id, String translatedText, Long textId) {
+}
@@ -0,0 +1,114 @@
+package com.translate.webtranslator.engine;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.springframework.stereotype.Component;
+
+/**
+ * The DictionaryTranslationEngine class translates English texts word by word with the
+ * dictionaries in the dictionary/ classpath folder, one per language, named after the
+ * language in lower case, for example dictionary/german.properties.
+ * Words keep their capitalization, words missing from the dictionary and everything
+ * between words are kept as they are; words mapped to nothing, like articles in Russian,
+ * are dropped. It needs no network and always gives the same
+ * translation, so the application and its tests run offline.
+ */
+@Component
+public class DictionaryTranslationEngine implements TranslationEngine {
+
+    public static final String NAME = "dictionary";
+
+    private static final Pattern WORD = Pattern.compile("\\p{L}+(?:'\\p{L}+)?");
+
+    // Empty for languages without a dictionary.
+    private final Map<String, Optional<Map<String, String>>> dictionaries = new ConcurrentHashMap<>();
+
+    @Override
+    public String getName() {
+        return NAME;
+    }
+
+    @Override
+    public List<String> translate(List<String> texts, String targetLanguage) {
+        Map<String, String> dictionary = dictionaryOf(targetLanguage)
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "No dictionary for language: " + targetLanguage));
+        List<String> translations = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            translations.add(translate(text, dictionary));
+        }
+        return translations;
+    }
+
+    private static String translate(String text, Map<String, String> dictionary) {
+        Matcher matcher = WORD.matcher(text);
+        StringBuilder translation = new StringBuilder(text.length() + 16);
+        int last = 0;
+        while (matcher.find()) {
+            String word = matcher.group();
+            String translated = dictionary.get(word.toLowerCase(Locale.ROOT));
+            translation.append(text, last, matcher.start());
+            last = matcher.end();
+            if (translated == null) {
+                translation.append(word);
+            } else if (translated.isEmpty()) {
+                // a word the language doesn't have, like an article, takes its space along
+                if (last < text.length() && text.charAt(last) == ' ') {
+                    last++;
+                }
+            } else {
+                translation.append(withCaseOf(word, translated));
+            }
+        }
+        return translation.append(text, last, text.length()).toString();
+    }
+
+    private static String withCaseOf(String word, String translated) {
+        if (word.length() > 1 && word.equals(word.toUpperCase(Locale.ROOT))) {
+            return translated.toUpperCase(Locale.ROOT);
+        }
+        if (Character.isUpperCase(word.charAt(0))) {
+            return translated.substring(0, 1).toUpperCase(Locale.ROOT) + translated.substring(1);
+        }
+        return translated;
+    }
+
+    private Optional<Map<String, String>> dictionaryOf(String language) {
+        if (language == null || !language.matches("[\\p{L} -]+")) {
+            return Optional.empty();
+        }
+        return dictionaries.computeIfAbsent(language.toLowerCase(Locale.ROOT),
+                DictionaryTranslationEngine::load);
+    }
+
+    private static Optional<Map<String, String>> load(String language) {
+        String resource = "dictionary/" + language.replace(' ', '-') + ".properties";
+        ClassLoader classLoader = DictionaryTranslationEngine.class.getClassLoader();
+        try (InputStream in = classLoader.getResourceAsStream(resource)) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            Properties properties = new Properties();
+            properties.load(new InputStreamReader(in, StandardCharsets.UTF_8));
+            Map<String, String> dictionary = new HashMap<>();
+            properties.stringPropertyNames().forEach(word ->
+                    dictionary.put(word.toLowerCase(Locale.ROOT), properties.getProperty(word)));
+            return Optional.of(dictionary);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to read " + resource, e);
+        }
+    }
+}
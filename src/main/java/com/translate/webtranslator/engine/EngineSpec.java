@@ -0,0 +1,50 @@
+package com.translate.webtranslator.engine;
+
+import java.time.Duration;
+
+/**
+ * The EngineSpec class describes how a single TranslationEngine is called.
+ * It is bound from the translation-engine.providers.&lt;name&gt; section of application.properties.
+ * Requests for one language are collected for batchWindow, or until maxBatchSize of them
+ * are waiting, and sent in one call. At most maxConcurrency calls run at once, and a call
+ * that hasn't answered timeout after it was sent fails.
+ */
+public class EngineSpec {
+
+    private int maxBatchSize = 32;
+    private Duration batchWindow = Duration.ofMillis(5);
+    private int maxConcurrency = 4;
+    private Duration timeout = Duration.ofSeconds(10);
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public Duration getBatchWindow() {
+        return batchWindow;
+    }
+
+    public void setBatchWindow(Duration batchWindow) {
+        this.batchWindow = batchWindow;
+    }
+
+    public int getMaxConcurrency() {
+        return maxConcurrency;
+    }
+
+    public void setMaxConcurrency(int maxConcurrency) {
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    public Duration getTimeout() {
+        return timeout;
+    }
+
+    public void setTimeout(Duration timeout) {
+        this.timeout = timeout;
+    }
+}
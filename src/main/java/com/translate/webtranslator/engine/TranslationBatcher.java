@@ -0,0 +1,187 @@
+package com.translate.webtranslator.engine;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * The TranslationBatcher class calls a {@link TranslationEngine} for many concurrent requests
+ * at once. Requests are queued by target language; a queue is sent as one engine call when
+ * it holds maxBatchSize texts or batchWindow after its first text arrived, whichever comes
+ * first. Concurrent requests for the same text and language share one result.
+ * Engine calls run on maxConcurrency threads, further batches wait for a free one. A batch
+ * that hasn't been answered timeout after it was sent, waiting included, fails with an
+ * IllegalStateException and its call is interrupted.
+ */
+public class TranslationBatcher implements AutoCloseable {
+
+    private record Request(String text, String language) {
+    }
+
+    private record Pending(String text, CompletableFuture<String> result) {
+    }
+
+    private final TranslationEngine engine;
+    private final EngineSpec spec;
+    private final ThreadPoolExecutor executor;
+    private final ScheduledThreadPoolExecutor scheduler;
+    private final Map<Request, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+    private final Set<List<Pending>> sent = ConcurrentHashMap.newKeySet();
+    // The requests not sent yet, by language. Guarded by itself.
+    private final Map<String, List<Pending>> queues = new HashMap<>();
+
+    /**
+     * constructor with the engine and how to call it.
+     */
+    public TranslationBatcher(TranslationEngine engine, EngineSpec spec) {
+        this.engine = engine;
+        this.spec = spec;
+        int threads = Math.max(1, spec.getMaxConcurrency());
+        this.executor = new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(), threadFactory("translation-engine-"));
+        this.scheduler = new ScheduledThreadPoolExecutor(1, threadFactory("translation-batcher-"));
+        this.scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    /**
+     * Returns the name of the engine behind this batcher.
+     */
+    public String getEngineName() {
+        return engine.getName();
+    }
+
+    /**
+     * Translates a text with the next batch of its language.
+     *
+     * @param text The text to translate.
+     * @param language The name of the language to translate into.
+     * @return The translation, completed exceptionally if the engine call fails or times out.
+     */
+    public CompletableFuture<String> translate(String text, String language) {
+        Request request = new Request(text, language);
+        CompletableFuture<String> result = new CompletableFuture<>();
+        CompletableFuture<String> existing = inFlight.putIfAbsent(request, result);
+        if (existing != null) {
+            return existing;
+        }
+        result.whenComplete((translation, error) -> inFlight.remove(request, result));
+        enqueue(language, new Pending(text, result));
+        return result;
+    }
+
+    private void enqueue(String language, Pending pending) {
+        List<Pending> full = null;
+        synchronized (queues) {
+            List<Pending> queue = queues.computeIfAbsent(language, key -> new ArrayList<>());
+            queue.add(pending);
+            if (queue.size() >= spec.getMaxBatchSize()) {
+                queues.remove(language);
+                full = queue;
+            } else if (queue.size() == 1) {
+                try {
+                    scheduler.schedule(() -> flush(language, queue),
+                            spec.getBatchWindow().toNanos(), TimeUnit.NANOSECONDS);
+                } catch (RejectedExecutionException e) {
+                    queues.remove(language);
+                    fail(queue, new IllegalStateException("Translation engine " + engine.getName()
+                            + " is shut down", e));
+                }
+            }
+        }
+        if (full != null) {
+            dispatch(language, full);
+        }
+    }
+
+    private void flush(String language, List<Pending> queue) {
+        synchronized (queues) {
+            // a full queue was sent already, and a newer one has its own flush
+            if (!queues.remove(language, queue)) {
+                return;
+            }
+        }
+        dispatch(language, queue);
+    }
+
+    private void dispatch(String language, List<Pending> batch) {
+        sent.add(batch);
+        Future<?> call;
+        try {
+            call = executor.submit(() -> run(language, batch));
+        } catch (RejectedExecutionException e) {
+            fail(batch, new IllegalStateException("Translation engine " + engine.getName()
+                    + " is shut down", e));
+            return;
+        }
+        ScheduledFuture<?> timeout = scheduler.schedule(() -> {
+            fail(batch, new IllegalStateException("Translation engine " + engine.getName()
+                    + " timed out after " + spec.getTimeout()));
+            call.cancel(true);
+        }, spec.getTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        CompletableFuture.allOf(batch.stream().map(Pending::result).toArray(CompletableFuture[]::new))
+                .whenComplete((done, error) -> {
+                    timeout.cancel(false);
+                    sent.remove(batch);
+                });
+    }
+
+    private void run(String language, List<Pending> batch) {
+        try {
+            List<String> translations = engine.translate(
+                    batch.stream().map(Pending::text).toList(), language);
+            if (translations == null || translations.size() != batch.size()) {
+                throw new IllegalStateException("Translation engine " + engine.getName()
+                        + " returned " + (translations == null ? 0 : translations.size())
+                        + " translations for " + batch.size() + " texts");
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).result().complete(translations.get(i));
+            }
+        } catch (RuntimeException e) {
+            fail(batch, e);
+        }
+    }
+
+    private static void fail(List<Pending> batch, RuntimeException error) {
+        batch.forEach(pending -> pending.result().completeExceptionally(error));
+    }
+
+    /**
+     * Stops the threads; every request not answered yet fails.
+     */
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+        executor.shutdownNow();
+        List<List<Pending>> unanswered;
+        synchronized (queues) {
+            unanswered = new ArrayList<>(queues.values());
+            queues.clear();
+        }
+        unanswered.addAll(sent);
+        unanswered.forEach(batch -> fail(batch, new IllegalStateException(
+                "Translation engine " + engine.getName() + " is shut down")));
+    }
+
+    private static ThreadFactory threadFactory(String prefix) {
+        AtomicInteger count = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
@@ -0,0 +1,27 @@
+package com.translate.webtranslator.engine;
+
+import java.util.List;
+
+/**
+ * The TranslationEngine interface is a machine translation provider.
+ * Providers are Spring beans; the one named by translation-engine.provider is called through
+ * a {@link TranslationBatcher}, which hands it several texts of one target language at once
+ * and limits how many calls run at the same time.
+ */
+public interface TranslationEngine {
+
+    /**
+     * Returns the name of the provider, as used in translation-engine.provider.
+     */
+    String getName();
+
+    /**
+     * Translates texts into a language.
+     *
+     * @param texts The texts to translate.
+     * @param targetLanguage The name of the language to translate into.
+     * @return The translations, in the order of the texts.
+     * @throws IllegalArgumentException If the engine can't translate into the language.
+     */
+    List<String> translate(List<String> texts, String targetLanguage);
+}
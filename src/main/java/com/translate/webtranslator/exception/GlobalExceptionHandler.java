@@ -99,6 +99,25 @@ public class GlobalExceptionHandler {
 	    return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseMessage);
 	}
 
+    /**
+     * Handles the IllegalArgumentException, thrown for request values such as page tokens
+     * or upload formats that can't be used, and returns a customized response message
+     * with a 400 status code.
+     *
+     * @param ex The IllegalArgumentException object.
+     * @return A ResponseEntity containing the customized response message.
+     */
+    @ExceptionHandler(IllegalArgumentException.class)
+    @ResponseStatus(HttpStatus.BAD_REQUEST)
+    public ResponseEntity<ResponseMessage> badRequestException(IllegalArgumentException ex) {
+        ResponseMessage responseMessage = new ResponseMessage();
+        responseMessage.setTime(LocalDateTime.now());
+        responseMessage.setStatus(HttpStatus.BAD_REQUEST.value());
+        responseMessage.setMessage(ex.getLocalizedMessage());
+        responseMessage.setDescription("A request value is invalid");
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(responseMessage);
+    }
+
     /**
      * Handles the MissingServletRequestParameterException and returns a customized response
      * message with a 400 status code.
@@ -0,0 +1,42 @@
+package com.translate.webtranslator.model;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * The ContentHash class computes the fingerprint under which texts and translations are
+ * looked up by content: the first 8 bytes of the SHA-256 digest of the UTF-8 content, read
+ * as a big-endian long. The content_hash columns are indexed, so a lookup compares fixed-width
+ * keys and only the full content of the rows with a matching fingerprint.
+ * In SQL the same value is
+ * {@code ('x' || substr(encode(sha256(convert_to(content, 'UTF8')), 'hex'), 1, 16))::bit(64)::bigint}.
+ */
+public final class ContentHash {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    });
+
+    private ContentHash() {
+    }
+
+    /**
+     * Computes the fingerprint of a content.
+     *
+     * @param content The content, translated text or name.
+     * @return The fingerprint.
+     */
+    public static long of(String content) {
+        byte[] digest = SHA_256.get().digest(content.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = (hash << 8) | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+}
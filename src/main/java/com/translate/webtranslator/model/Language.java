@@ -1,26 +1,42 @@
 package com.translate.webtranslator.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.ManyToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.BatchSize;
 
-import java.util.List;
+import java.util.Set;
 
 /**
  * The Language class represents a language in the Web-Text-Translator application.
- * It contains information about the language's ID, name, and a list of texts
+ * It contains information about the language's ID, name, and a set of texts
  * associated with the language.
+ * Every change is reported to {@link CacheInvalidationListener}, which evicts the cached copies.
+ * Ids come from a sequence in blocks of 100, so inserts can be batched over JDBC.
+ * The texts of many languages are fetched with one query.
+ * The name is unique. The schema comes from the migrations in db/migration.
+ * Languages are equal when they have the same name, as texts are by their content.
  */
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
 public class Language {
 	@Id
 	@Column(unique = true)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "language_seq")
+	@SequenceGenerator(name = "language_seq", sequenceName = "language_seq", allocationSize = 100)
     private Long id;
 
 	@NotBlank
@@ -29,8 +45,11 @@ public class Language {
     @ManyToMany(mappedBy = "languages",
     		    cascade = {CascadeType.PERSIST, CascadeType.DETACH, 
     		    		   CascadeType.MERGE, CascadeType.REFRESH})
-    
-    private List<Text> texts;
+    @BatchSize(size = 100)
+    private Set<Text> texts;
+
+    @Transient
+    private String persistedName;
     
     public Long getId() {
         return id;
@@ -48,11 +67,44 @@ public class Language {
         this.name = name;
     }
 
-    public List<Text> getTexts() {
+    public Set<Text> getTexts() {
         return texts;
     }
 
-    public void setTexts(List<Text> texts) {
+    public void setTexts(Set<Text> texts) {
         this.texts = texts;
-    }  
+    }
+
+    /**
+     * Returns the name as it is stored in the database.
+     */
+    @JsonIgnore
+    public String getPersistedName() {
+        return persistedName;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void rememberPersistedState() {
+        persistedName = name;
+    }
+
+    /**
+     * Languages are equal when they have the same name, which is unique, so a new language
+     * keeps its hash once it is saved. A language without a name is only equal to itself.
+     * Its name must not change while it is in a set.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Language other && name != null && name.equals(other.getName());
+    }
+
+    @Override
+    public int hashCode() {
+        return name != null ? name.hashCode() : System.identityHashCode(this);
+    }
 }
\ No newline at end of file
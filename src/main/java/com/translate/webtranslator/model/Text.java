@@ -1,9 +1,12 @@
 package com.translate.webtranslator.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.FetchType;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
@@ -12,39 +15,68 @@ import jakarta.persistence.JoinColumn;
 import jakarta.persistence.JoinTable;
 import jakarta.persistence.ManyToMany;
 import jakarta.persistence.OneToMany;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
 
 /**
  * The Text class represents a text in the Web-Text-Translator application.
  * It contains information about the text's ID, the text to translate, a list of translations,
- * and a list of languages associated with the text.
+ * and a set of languages associated with the text.
+ * Every change is reported to {@link CacheInvalidationListener}, which evicts the cached copies.
+ * Ids come from a sequence in blocks of 100, so inserts can be batched over JDBC.
+ * The content may be a whole document, so no index holds it: the contentHash is unique,
+ * and lookups by content go through it.
+ * The schema comes from the migrations in db/migration.
+ * Texts and their collections are fetched in batches, so loading them for a page of rows
+ * takes one query per association instead of one per row.
+ * The languages are a set, so linking or unlinking one language
+ * is a single insert or delete in the join table.
  */
 @Entity
+@BatchSize(size = 100)
+@EntityListeners(CacheInvalidationListener.class)
 public class Text {
 	@Id
 	@Column(unique = true)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "text_seq")
+	@SequenceGenerator(name = "text_seq", sequenceName = "text_seq", allocationSize = 100)
 	private Long id;
 
 	@NotBlank
 	private String textToTranslate;
+
+	private Long contentHash;
 	
 	@JsonIgnoreProperties("text")
 	@OneToMany(mappedBy = "text",  fetch = FetchType.LAZY,
             cascade = {CascadeType.ALL})
+	@BatchSize(size = 100)
 	private List<Translation> translations;
 
     @ManyToMany(cascade = {CascadeType.ALL},
     	    fetch = FetchType.LAZY)
     @JsonIgnoreProperties("texts")
+    @BatchSize(size = 100)
     @JoinTable(	
         name = "textLanguage",
         joinColumns = @JoinColumn(name = "textId"),
         inverseJoinColumns = @JoinColumn(name = "languageId")
     )
-    private List<Language> languages;
+    private Set<Language> languages;
+
+    @Transient
+    private String persistedTextToTranslate;
     
     @JsonIgnoreProperties("languages")
     public Long getId() {
@@ -60,9 +92,30 @@ public class Text {
     }
 
     public void setTextToTranslate(String text) {
+        if (!Objects.equals(text, textToTranslate)) {
+            contentHash = null;
+        }
         this.textToTranslate = text;
     }
 
+    /**
+     * Returns the fingerprint of the content, see {@link ContentHash}.
+     * It is computed on first use and stored with the text.
+     */
+    @JsonIgnore
+    public Long getContentHash() {
+        if (contentHash == null && textToTranslate != null) {
+            contentHash = ContentHash.of(textToTranslate);
+        }
+        return contentHash;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void computeContentHash() {
+        getContentHash();
+    }
+
     public List<Translation> getTranslations() {
         return translations;
     }
@@ -71,14 +124,50 @@ public class Text {
         this.translations = translations;
     }
 
-    public List<Language> getLanguages() {
+    public Set<Language> getLanguages() {
         return languages;
     }
 
-    public void setLanguages(List<Language> languages) {
+    public void setLanguages(Set<Language> languages) {
         this.languages = languages;
     }
+
+    /**
+     * Returns the content as it is stored in the database, which differs from
+     * the current content while an update is not flushed yet.
+     */
+    @JsonIgnore
+    public String getPersistedTextToTranslate() {
+        return persistedTextToTranslate;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void rememberPersistedState() {
+        persistedTextToTranslate = textToTranslate;
+    }
     
+    /**
+     * Texts are equal when they have the same content, which is unique, so a detached copy
+     * from the cache matches the managed one, and a new text keeps its hash once it is saved.
+     * A text without content is only equal to itself. Its content must not change while
+     * it is in a set.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        return o instanceof Text other && textToTranslate != null
+                && textToTranslate.equals(other.getTextToTranslate());
+    }
+
+    @Override
+    public int hashCode() {
+        return textToTranslate != null ? Long.hashCode(getContentHash()) : System.identityHashCode(this);
+    }
+
     @Override
     public String toString() {
         StringBuilder sb = new StringBuilder();
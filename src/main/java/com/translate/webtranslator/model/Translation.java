@@ -1,34 +1,60 @@
 package com.translate.webtranslator.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.EntityListeners;
 import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Transient;
 import jakarta.validation.constraints.NotBlank;
+import java.util.Objects;
 
 /**
  * The Translation class represents a translation in the Web-Text-Translator application.
  * It contains information about the translation's ID, the translated text, and the associated text.
+ * Every change is reported to {@link CacheInvalidationListener}, which evicts the cached copies.
+ * Ids come from a sequence in blocks of 100, so inserts can be batched over JDBC.
+ * The translated text may be a whole document, so no index holds it: a text has each
+ * contentHash once per language, and lookups by translated text go through it.
+ * The schema comes from the migrations in db/migration.
  */
 @Entity
+@EntityListeners(CacheInvalidationListener.class)
 public class Translation {
 	@Id
 	@Column(unique = true)
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "translation_seq")
+	@SequenceGenerator(name = "translation_seq", sequenceName = "translation_seq", allocationSize = 100)
     private Long id;
 
 	@NotBlank
     private String translatedText;
 
+    private Long contentHash;
+
     @ManyToOne
     @JoinColumn(name = "textId")
     @JsonIgnoreProperties("translations")
     private Text text;
 
+    @Transient
+    private String persistedTranslatedText;
+
+    @Transient
+    private Text persistedText;
+
 	public Long getId() {
         return id;
     }
@@ -42,9 +68,30 @@ public class Translation {
     }
 
     public void setTranslatedText(String translatedText) {
+        if (!Objects.equals(translatedText, this.translatedText)) {
+            contentHash = null;
+        }
         this.translatedText = translatedText;
     }
 
+    /**
+     * Returns the fingerprint of the translated text, see {@link ContentHash}.
+     * It is computed on first use and stored with the translation.
+     */
+    @JsonIgnore
+    public Long getContentHash() {
+        if (contentHash == null && translatedText != null) {
+            contentHash = ContentHash.of(translatedText);
+        }
+        return contentHash;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void computeContentHash() {
+        getContentHash();
+    }
+
     public Text getText() {
         return text;
     }
@@ -52,6 +99,31 @@ public class Translation {
     public void setText(Text text) {
         this.text = text;
     }
+
+    /**
+     * Returns the translated text as it is stored in the database.
+     */
+    @JsonIgnore
+    public String getPersistedTranslatedText() {
+        return persistedTranslatedText;
+    }
+
+    /**
+     * Returns the text this translation belongs to in the database, which differs
+     * from the current one while a move to another text is not flushed yet.
+     */
+    @JsonIgnore
+    public Text getPersistedText() {
+        return persistedText;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void rememberPersistedState() {
+        persistedTranslatedText = translatedText;
+        persistedText = text;
+    }
     
     @Override
     public String toString() {
@@ -0,0 +1,48 @@
+package com.translate.webtranslator.repository;
+
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import org.hibernate.Hibernate;
+
+/**
+ * The FetchPlan class loads the associations that the JSON of an entity contains,
+ * so the entity can be serialized or cached after its session is closed.
+ * A Text needs its translations and languages, a Translation the languages of its text,
+ * and a Language its texts with their translations and languages.
+ * The collections are mapped with @BatchSize, so initializing a whole page costs
+ * one query per collection role instead of one per row.
+ * Must be called inside a transaction.
+ */
+public final class FetchPlan {
+
+    private FetchPlan() {
+    }
+
+    /**
+     * Loads the associations of every entity.
+     *
+     * @param entities The entities, all loaded in the current session.
+     */
+    public static void initializeAll(Iterable<?> entities) {
+        for (Object entity : entities) {
+            initialize(entity);
+        }
+    }
+
+    /**
+     * Loads the associations of the entity.
+     *
+     * @param entity The entity, loaded in the current session, or null.
+     */
+    public static void initialize(Object entity) {
+        if (entity instanceof Text text) {
+            Hibernate.initialize(text.getTranslations());
+            Hibernate.initialize(text.getLanguages());
+        } else if (entity instanceof Translation translation && translation.getText() != null) {
+            Hibernate.initialize(translation.getText().getLanguages());
+        } else if (entity instanceof Language language && language.getTexts() != null) {
+            initializeAll(language.getTexts());
+        }
+    }
+}
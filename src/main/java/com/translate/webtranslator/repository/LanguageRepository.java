@@ -1,14 +1,61 @@
 package com.translate.webtranslator.repository;
 
+import com.translate.webtranslator.dto.LanguageSummary;
 import com.translate.webtranslator.model.Language;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The LanguageRepository interface provides database operations for the Language entity
  * in the Web-Text-Translator application.
+ * The language list selects {@link LanguageSummary} rows instead of entities.
+ * The findGraph methods return languages with everything their JSON contains already loaded,
+ * see {@link FetchPlan}.
  */
 @Repository
 public interface LanguageRepository extends JpaRepository<Language, Long> {
 	Language findByName(String name);
+
+	List<Language> findAllByNameIn(Collection<String> names);
+
+	/**
+	 * Creates the languages with the given names that don't exist yet, in one statement.
+	 * The names are bound as one SQL array; a list would be expanded into a row of parameters.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO language (id, name) "
+			+ "SELECT nextval('language_seq'), v.name FROM unnest(CAST(:names AS text[])) AS v(name) "
+			+ "ON CONFLICT (name) DO NOTHING",
+			nativeQuery = true)
+	int insertMissing(@Param("names") String[] names);
+
+	@Query("SELECT new com.translate.webtranslator.dto.LanguageSummary(l.id, l.name, COUNT(t)) "
+			+ "FROM Language l LEFT JOIN l.texts t GROUP BY l.id, l.name ORDER BY l.name")
+	List<LanguageSummary> findAllSummaries();
+
+	@Transactional(readOnly = true)
+	default Optional<Language> findGraphById(Long id) {
+		Optional<Language> language = findById(id);
+		language.ifPresent(FetchPlan::initialize);
+		return language;
+	}
+
+	@Transactional(readOnly = true)
+	default Language findGraphByName(String name) {
+		Language language = findByName(name);
+		FetchPlan.initialize(language);
+		return language;
+	}
+
+	@Query("SELECT l FROM Language l LEFT JOIN l.texts t GROUP BY l ORDER BY COUNT(t) DESC, l.id")
+	List<Language> findMostUsed(Pageable pageable);
 }
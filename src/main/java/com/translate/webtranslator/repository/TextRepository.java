@@ -1,25 +1,134 @@
 package com.translate.webtranslator.repository;
 
+import com.translate.webtranslator.dto.IdAndValue;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TextSummary;
+import com.translate.webtranslator.model.ContentHash;
 import com.translate.webtranslator.model.Text;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The TextRepository interface provides database operations for the Text entity
  * in the Web-Text-Translator application.
+ * Listings select {@link TextSummary} rows instead of entities, ordered by the first 100
+ * characters of the content and the id, which the index of V9 holds. Lookups by content match the
+ * indexed {@link ContentHash} first and compare the full content only on those rows.
+ * Searches match the generated search_vector column through its GIN index.
+ * The findGraph methods return texts with everything their JSON contains already loaded,
+ * see {@link FetchPlan}.
+ * The insert methods are the set-based statements of an upsert: rows that already exist are
+ * skipped by ON CONFLICT, so they can run again for the same text.
  */
 @Repository
 public interface TextRepository extends JpaRepository<Text, Long> {
 
-	Optional<Text> findByTextToTranslate(String textToTranslate);
+	Optional<Text> findByContentHashAndTextToTranslate(Long contentHash, String textToTranslate);
+
+	@Query("SELECT t FROM Text t WHERE t.contentHash IN :contentHashes "
+			+ "AND t.textToTranslate IN :textsToTranslate")
+	List<Text> findAllByContentHashInAndTextToTranslateIn(
+			@Param("contentHashes") Collection<Long> contentHashes,
+			@Param("textsToTranslate") Collection<String> textsToTranslate);
+
+	List<Text> findAllByContentHashIn(Collection<Long> contentHashes);
+
+	default Optional<Text> findByTextToTranslate(String textToTranslate) {
+		if (textToTranslate == null) {
+			return Optional.empty();
+		}
+		return findByContentHashAndTextToTranslate(ContentHash.of(textToTranslate), textToTranslate);
+	}
+
+	default List<Text> findAllByTextToTranslateIn(Collection<String> textsToTranslate) {
+		List<Long> contentHashes = textsToTranslate.stream()
+				.filter(Objects::nonNull)
+				.map(ContentHash::of)
+				.toList();
+		return contentHashes.isEmpty() ? List.of()
+				: findAllByContentHashInAndTextToTranslateIn(contentHashes, textsToTranslate);
+	}
+
+	@Transactional(readOnly = true)
+	default Optional<Text> findGraphById(Long id) {
+		Optional<Text> text = findById(id);
+		text.ifPresent(FetchPlan::initialize);
+		return text;
+	}
+
+	@Transactional(readOnly = true)
+	default Optional<Text> findGraphByTextToTranslate(String textToTranslate) {
+		Optional<Text> text = findByTextToTranslate(textToTranslate);
+		text.ifPresent(FetchPlan::initialize);
+		return text;
+	}
 	
+	@Modifying
+	@Query(value = "INSERT INTO text (id, text_to_translate, content_hash) "
+			+ "VALUES (nextval('text_seq'), :textToTranslate, :contentHash) "
+			+ "ON CONFLICT (content_hash) DO NOTHING",
+			nativeQuery = true)
+	int insertIfAbsent(@Param("textToTranslate") String textToTranslate,
+			@Param("contentHash") long contentHash);
+
+	/**
+	 * Inserts the texts that don't exist yet in one statement. The two arrays are read pairwise.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO text (id, text_to_translate, content_hash) "
+			+ "SELECT nextval('text_seq'), v.text_to_translate, v.content_hash "
+			+ "FROM unnest(CAST(:textsToTranslate AS text[]), CAST(:contentHashes AS bigint[])) "
+			+ "AS v(text_to_translate, content_hash) "
+			+ "ON CONFLICT (content_hash) DO NOTHING",
+			nativeQuery = true)
+	int insertAllIfAbsent(@Param("textsToTranslate") String[] textsToTranslate,
+			@Param("contentHashes") Long[] contentHashes);
+
+	/**
+	 * Links a text to the languages with the given names, skipping the links that exist.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO text_language (text_id, language_id) "
+			+ "SELECT t.id, l.id FROM text t JOIN language l ON l.name IN (:names) "
+			+ "WHERE t.content_hash = :contentHash AND t.text_to_translate = :textToTranslate "
+			+ "ON CONFLICT (text_id, language_id) DO NOTHING",
+			nativeQuery = true)
+	int insertLanguageLinks(@Param("textToTranslate") String textToTranslate,
+			@Param("contentHash") long contentHash, @Param("names") Collection<String> names);
+
+	/**
+	 * Links texts to languages in one statement, skipping the links that exist.
+	 * The three arrays are read pairwise: the content and hash of a text, and a language name.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO text_language (text_id, language_id) "
+			+ "SELECT t.id, l.id "
+			+ "FROM unnest(CAST(:textsToTranslate AS text[]), CAST(:contentHashes AS bigint[]), "
+			+ "CAST(:names AS text[])) "
+			+ "AS v(text_to_translate, content_hash, name) "
+			+ "JOIN text t ON t.content_hash = v.content_hash AND t.text_to_translate = v.text_to_translate "
+			+ "JOIN language l ON l.name = v.name "
+			+ "ON CONFLICT (text_id, language_id) DO NOTHING",
+			nativeQuery = true)
+	int insertAllLanguageLinks(@Param("textsToTranslate") String[] textsToTranslate,
+			@Param("contentHashes") Long[] contentHashes, @Param("names") String[] names);
+
 	@Query(value = "SELECT t.text_to_translate FROM Text t "
 			+ "JOIN text_language tl ON tl.text_id = t.id "
 			+ "JOIN language l ON l.id = tl.language_id "
@@ -32,7 +141,74 @@ public interface TextRepository extends JpaRepository<Text, Long> {
 	        + "WHERE tl.name = :language ")
 	List<String> findTextsByLanguage(@Param("language") String language);
 
-    @Query("SELECT t FROM Text t ORDER BY t.textToTranslate ASC")
-    	Page<Text> findAllWithPagination(Pageable pageable);
+    @Query(value = "SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t ORDER BY LEFT(t.textToTranslate, 100) ASC, t.id ASC",
+           countQuery = "SELECT COUNT(t) FROM Text t")
+    	Page<TextSummary> findAllWithPagination(Pageable pageable);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t ORDER BY LEFT(t.textToTranslate, 100) ASC, t.id ASC")
+    Slice<TextSummary> findAllAsSlice(Pageable pageable);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t WHERE t.id IN :ids")
+    List<TextSummary> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t WHERE t.contentHash IN :contentHashes")
+    List<TextSummary> findSummariesByContentHashIn(@Param("contentHashes") Collection<Long> contentHashes);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t ORDER BY LEFT(t.textToTranslate, 100) ASC, t.id ASC")
+    List<TextSummary> findFirstKeysetPage(Pageable limit);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TextSummary(t.id, t.textToTranslate) "
+            + "FROM Text t WHERE (LEFT(t.textToTranslate, 100), t.id) > (:sortKey, :id) "
+            + "ORDER BY LEFT(t.textToTranslate, 100) ASC, t.id ASC")
+    List<TextSummary> findKeysetPageAfter(@Param("sortKey") String sortKey,
+                                   @Param("id") long id, Pageable limit);
+
+    /**
+     * Finds the first page of texts matching a tsquery, most relevant first.
+     */
+    @Query(value = "SELECT t.id AS id, t.text_to_translate AS content, ts_rank(t.search_vector, q.query) AS rank "
+            + "FROM text t, (SELECT to_tsquery('english', :query) || to_tsquery('simple', :query) AS query) q "
+            + "WHERE t.search_vector @@ q.query "
+            + "ORDER BY rank DESC, t.id ASC LIMIT :limit",
+           nativeQuery = true)
+    List<SearchHit> searchFirstPage(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Finds the page of texts matching a tsquery that follows the hit with the given rank and id.
+     */
+    @Query(value = "SELECT t.id AS id, t.text_to_translate AS content, ts_rank(t.search_vector, q.query) AS rank "
+            + "FROM text t, (SELECT to_tsquery('english', :query) || to_tsquery('simple', :query) AS query) q "
+            + "WHERE t.search_vector @@ q.query "
+            + "AND (ts_rank(t.search_vector, q.query) < CAST(:rank AS real) "
+            + "OR (ts_rank(t.search_vector, q.query) = CAST(:rank AS real) AND t.id > :id)) "
+            + "ORDER BY rank DESC, t.id ASC LIMIT :limit",
+           nativeQuery = true)
+    List<SearchHit> searchPageAfter(@Param("query") String query, @Param("rank") float rank,
+                                    @Param("id") long id, @Param("limit") int limit);
+
+    /**
+     * Streams the id and content of every text, in id order, through a server-side cursor.
+     * Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.translate.webtranslator.dto.IdAndValue(t.id, t.textToTranslate) "
+            + "FROM Text t ORDER BY t.id")
+    Stream<IdAndValue> streamTextsForExport();
+
+    /**
+     * Streams the text id and language name of every link between them, in text id order,
+     * through a server-side cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.translate.webtranslator.dto.IdAndValue(t.id, l.name) "
+            + "FROM Text t JOIN t.languages l ORDER BY t.id, l.id")
+    Stream<IdAndValue> streamLanguagesForExport();
 
 }
@@ -1,23 +1,252 @@
 package com.translate.webtranslator.repository;
 
+import com.translate.webtranslator.dto.IdAndValue;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.SegmentTranslation;
+import com.translate.webtranslator.dto.TranslationCell;
+import com.translate.webtranslator.dto.TranslationSummary;
+import com.translate.webtranslator.model.ContentHash;
 import com.translate.webtranslator.model.Translation;
+import jakarta.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * The TranslationRepository interface provides database operations for the Translation entity
  * in the Web-Text-Translator application.
+ * Listings select {@link TranslationSummary} rows instead of entities, ordered by the first
+ * 100 characters of the translated text and the id, which the index of V9 holds. Lookups by translated
+ * text match the indexed {@link ContentHash} first and compare the full text only on those rows.
+ * Searches match the generated search_vector column through its GIN index.
+ * Machine translations carry the language they were made for in language_id, which
+ * the entity doesn't map; they are written and read by native queries, like the
+ * segments of documents and their translations.
+ * The findGraph methods join the text and its languages, which is everything
+ * the JSON of a translation contains.
  */
 @Repository
 public interface TranslationRepository extends JpaRepository<Translation, Long> {
 
-	Optional<Translation> findByTranslatedText(String translatedText);
+	Optional<Translation> findByContentHashAndTranslatedText(Long contentHash, String translatedText);
+
+	@Query("SELECT t FROM Translation t WHERE t.contentHash IN :contentHashes "
+			+ "AND t.translatedText IN :translatedTexts")
+	List<Translation> findAllByContentHashInAndTranslatedTextIn(
+			@Param("contentHashes") Collection<Long> contentHashes,
+			@Param("translatedTexts") Collection<String> translatedTexts);
+
+	List<Translation> findAllByContentHashIn(Collection<Long> contentHashes);
+
+	@EntityGraph(attributePaths = {"text", "text.languages"})
+	Optional<Translation> findGraphById(Long id);
+
+	/**
+	 * Adds translations to the text with the given content in one statement, skipping
+	 * the ones it already has. The two arrays are read pairwise.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO translation (id, translated_text, content_hash, text_id) "
+			+ "SELECT nextval('translation_seq'), v.translated_text, v.content_hash, t.id "
+			+ "FROM text t, unnest(CAST(:translatedTexts AS text[]), CAST(:contentHashes AS bigint[])) "
+			+ "AS v(translated_text, content_hash) "
+			+ "WHERE t.content_hash = :textContentHash AND t.text_to_translate = :textToTranslate "
+			+ "ON CONFLICT (text_id, COALESCE(language_id, 0), content_hash) DO NOTHING",
+			nativeQuery = true)
+	int insertMissing(@Param("textToTranslate") String textToTranslate,
+			@Param("textContentHash") long textContentHash,
+			@Param("translatedTexts") String[] translatedTexts,
+			@Param("contentHashes") Long[] contentHashes);
+
+	/**
+	 * Adds translations to many texts in one statement, skipping the ones they already have.
+	 * The four arrays are read pairwise: the content and hash of a text, and a translated text
+	 * with its hash.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO translation (id, translated_text, content_hash, text_id) "
+			+ "SELECT nextval('translation_seq'), v.translated_text, v.content_hash, t.id "
+			+ "FROM unnest(CAST(:textsToTranslate AS text[]), CAST(:textContentHashes AS bigint[]), "
+			+ "CAST(:translatedTexts AS text[]), CAST(:contentHashes AS bigint[])) "
+			+ "AS v(text_to_translate, text_content_hash, translated_text, content_hash) "
+			+ "JOIN text t ON t.content_hash = v.text_content_hash "
+			+ "AND t.text_to_translate = v.text_to_translate "
+			+ "ON CONFLICT (text_id, COALESCE(language_id, 0), content_hash) DO NOTHING",
+			nativeQuery = true)
+	int insertAllMissing(@Param("textsToTranslate") String[] textsToTranslate,
+			@Param("textContentHashes") Long[] textContentHashes,
+			@Param("translatedTexts") String[] translatedTexts,
+			@Param("contentHashes") Long[] contentHashes);
+
+	/**
+	 * Adds the machine translations of a text in one statement, skipping the languages it
+	 * already has one for. The three arrays are read pairwise.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO translation (id, translated_text, content_hash, text_id, language_id) "
+			+ "SELECT nextval('translation_seq'), v.translated_text, v.content_hash, :textId, v.language_id "
+			+ "FROM unnest(CAST(:languageIds AS bigint[]), CAST(:translatedTexts AS text[]), "
+			+ "CAST(:contentHashes AS bigint[])) "
+			+ "AS v(language_id, translated_text, content_hash) "
+			+ "ON CONFLICT DO NOTHING",
+			nativeQuery = true)
+	int insertMachineTranslations(@Param("textId") long textId,
+			@Param("languageIds") Long[] languageIds,
+			@Param("translatedTexts") String[] translatedTexts,
+			@Param("contentHashes") Long[] contentHashes);
+
+	/**
+	 * Finds the machine translations of texts into languages, through the unique index
+	 * on (text_id, language_id).
+	 */
+	@Query(value = "SELECT t.text_id AS \"textId\", l.name AS \"language\", "
+			+ "t.translated_text AS \"translatedText\" "
+			+ "FROM translation t JOIN language l ON l.id = t.language_id "
+			+ "WHERE t.text_id IN (:textIds) AND t.language_id IN (:languageIds)",
+			nativeQuery = true)
+	List<TranslationCell> findMachineTranslations(@Param("textIds") Collection<Long> textIds,
+			@Param("languageIds") Collection<Long> languageIds);
+
+	/**
+	 * Finds the stored translations of segments into languages. Segments are matched by
+	 * their hash, the content is returned to tell the rare segments sharing a hash apart.
+	 */
+	@Query(value = "SELECT s.content AS \"content\", l.name AS \"language\", "
+			+ "st.translated_text AS \"translatedText\" "
+			+ "FROM segment s JOIN segment_translation st ON st.segment_id = s.id "
+			+ "JOIN language l ON l.id = st.language_id "
+			+ "WHERE s.content_hash IN (:contentHashes) AND st.language_id IN (:languageIds)",
+			nativeQuery = true)
+	List<SegmentTranslation> findSegmentTranslations(
+			@Param("contentHashes") Collection<Long> contentHashes,
+			@Param("languageIds") Collection<Long> languageIds);
+
+	/**
+	 * Stores segments in one statement, skipping the ones that exist. The two arrays are read
+	 * pairwise.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO segment (id, content_hash, content) "
+			+ "SELECT nextval('segment_seq'), v.content_hash, v.content "
+			+ "FROM unnest(CAST(:contents AS text[]), CAST(:contentHashes AS bigint[])) "
+			+ "AS v(content, content_hash) "
+			+ "ON CONFLICT (content_hash) DO NOTHING",
+			nativeQuery = true)
+	int insertSegments(@Param("contents") String[] contents,
+			@Param("contentHashes") Long[] contentHashes);
+
+	/**
+	 * Stores translations of segments in one statement, skipping the ones that exist.
+	 * The four arrays are read pairwise; a segment whose hash belongs to another content
+	 * gets no translation.
+	 */
+	@Modifying
+	@Query(value = "INSERT INTO segment_translation (segment_id, language_id, translated_text) "
+			+ "SELECT s.id, v.language_id, v.translated_text "
+			+ "FROM unnest(CAST(:contents AS text[]), CAST(:contentHashes AS bigint[]), "
+			+ "CAST(:languageIds AS bigint[]), CAST(:translatedTexts AS text[])) "
+			+ "AS v(content, content_hash, language_id, translated_text) "
+			+ "JOIN segment s ON s.content_hash = v.content_hash AND s.content = v.content "
+			+ "ON CONFLICT (segment_id, language_id) DO NOTHING",
+			nativeQuery = true)
+	int insertSegmentTranslations(@Param("contents") String[] contents,
+			@Param("contentHashes") Long[] contentHashes,
+			@Param("languageIds") Long[] languageIds,
+			@Param("translatedTexts") String[] translatedTexts);
+
+	@EntityGraph(attributePaths = {"text", "text.languages"})
+	Optional<Translation> findGraphByContentHashAndTranslatedText(Long contentHash, String translatedText);
+
+	default Optional<Translation> findByTranslatedText(String translatedText) {
+		if (translatedText == null) {
+			return Optional.empty();
+		}
+		return findByContentHashAndTranslatedText(ContentHash.of(translatedText), translatedText);
+	}
+
+	default List<Translation> findAllByTranslatedTextIn(Collection<String> translatedTexts) {
+		List<Long> contentHashes = translatedTexts.stream()
+				.filter(Objects::nonNull)
+				.map(ContentHash::of)
+				.toList();
+		return contentHashes.isEmpty() ? List.of()
+				: findAllByContentHashInAndTranslatedTextIn(contentHashes, translatedTexts);
+	}
+
+	default Optional<Translation> findGraphByTranslatedText(String translatedText) {
+		if (translatedText == null) {
+			return Optional.empty();
+		}
+		return findGraphByContentHashAndTranslatedText(ContentHash.of(translatedText), translatedText);
+	}
 	
-    @Query("SELECT t FROM Translation t ORDER BY t.translatedText ASC")
-    Page<Translation> findAllTranslatiosWithPagination(Pageable pageable);
+    @Query(value = "SELECT new com.translate.webtranslator.dto.TranslationSummary("
+            + "t.id, t.translatedText, t.text.id) "
+            + "FROM Translation t ORDER BY LEFT(t.translatedText, 100) ASC, t.id ASC",
+           countQuery = "SELECT COUNT(t) FROM Translation t")
+    Page<TranslationSummary> findAllTranslatiosWithPagination(Pageable pageable);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TranslationSummary("
+            + "t.id, t.translatedText, t.text.id) "
+            + "FROM Translation t ORDER BY LEFT(t.translatedText, 100) ASC, t.id ASC")
+    Slice<TranslationSummary> findAllAsSlice(Pageable pageable);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TranslationSummary("
+            + "t.id, t.translatedText, t.text.id) "
+            + "FROM Translation t ORDER BY LEFT(t.translatedText, 100) ASC, t.id ASC")
+    List<TranslationSummary> findFirstKeysetPage(Pageable limit);
+
+    @Query("SELECT new com.translate.webtranslator.dto.TranslationSummary("
+            + "t.id, t.translatedText, t.text.id) "
+            + "FROM Translation t WHERE (LEFT(t.translatedText, 100), t.id) > (:sortKey, :id) "
+            + "ORDER BY LEFT(t.translatedText, 100) ASC, t.id ASC")
+    List<TranslationSummary> findKeysetPageAfter(@Param("sortKey") String sortKey,
+                                          @Param("id") long id, Pageable limit);
+
+    /**
+     * Finds the first page of translations matching a tsquery, most relevant first.
+     */
+    @Query(value = "SELECT t.id AS id, t.translated_text AS content, ts_rank(t.search_vector, q.query) AS rank "
+            + "FROM translation t, (SELECT to_tsquery('english', :query) || to_tsquery('simple', :query) AS query) q "
+            + "WHERE t.search_vector @@ q.query "
+            + "ORDER BY rank DESC, t.id ASC LIMIT :limit",
+           nativeQuery = true)
+    List<SearchHit> searchFirstPage(@Param("query") String query, @Param("limit") int limit);
+
+    /**
+     * Finds the page of translations matching a tsquery that follows the hit with the given rank and id.
+     */
+    @Query(value = "SELECT t.id AS id, t.translated_text AS content, ts_rank(t.search_vector, q.query) AS rank "
+            + "FROM translation t, (SELECT to_tsquery('english', :query) || to_tsquery('simple', :query) AS query) q "
+            + "WHERE t.search_vector @@ q.query "
+            + "AND (ts_rank(t.search_vector, q.query) < CAST(:rank AS real) "
+            + "OR (ts_rank(t.search_vector, q.query) = CAST(:rank AS real) AND t.id > :id)) "
+            + "ORDER BY rank DESC, t.id ASC LIMIT :limit",
+           nativeQuery = true)
+    List<SearchHit> searchPageAfter(@Param("query") String query, @Param("rank") float rank,
+                                    @Param("id") long id, @Param("limit") int limit);
+
+    /**
+     * Streams the text id and translated text of every translation, in text id order,
+     * through a server-side cursor. Must be consumed inside a transaction.
+     */
+    @QueryHints({@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"),
+                 @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")})
+    @Query("SELECT new com.translate.webtranslator.dto.IdAndValue(t.text.id, t.translatedText) "
+            + "FROM Translation t WHERE t.text IS NOT NULL ORDER BY t.text.id, t.id")
+    Stream<IdAndValue> streamTranslationsForExport();
 }
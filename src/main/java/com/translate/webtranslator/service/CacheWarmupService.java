@@ -0,0 +1,225 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.CacheSnapshotEntry;
+import com.translate.webtranslator.cache.CacheSnapshotStore;
+import com.translate.webtranslator.cache.ContentKey;
+import com.translate.webtranslator.cache.IdKey;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.config.CacheProperties;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.FetchPlan;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The CacheWarmupService class fills the caches on startup, before the node takes traffic.
+ * It runs as an ApplicationRunner, and the readiness probe only reports ready once all
+ * runners have finished.
+ * The keys of the last snapshot are loaded in batches of cache.warmup.batch-size:
+ * ids through findAllById, and contents through one IN query on their ContentHash
+ * fingerprints per batch, since that is all a snapshot keeps of them. Language names have
+ * no stored fingerprint, so they are all resolved against one findAll() per warm-up.
+ * Up to cache.warmup.parallelism batches run at once, each in its own read-only transaction.
+ * Snapshot entries that carry their value are restored without a query. With
+ * cache.warmup.top-languages set, the languages with the most texts are loaded as well.
+ * Entity graphs are initialized as deep as their JSON goes, so cached entities never need
+ * a session later. Batches still running after cache.warmup.timeout are cancelled, and the
+ * node starts with whatever was loaded by then.
+ */
+@Service
+@ConditionalOnProperty(prefix = "cache.warmup", name = "enabled", havingValue = "true")
+public class CacheWarmupService implements ApplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(CacheWarmupService.class);
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final LanguageRepository languageRepository;
+    private final InMemoryCache textCache;
+    private final InMemoryCache translationCache;
+    private final InMemoryCache languageCache;
+    private final CacheSnapshotStore snapshotStore;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheProperties.Warmup properties;
+
+    /**
+     * constructor with the repositories, the cache beans and the snapshot store.
+     */
+    public CacheWarmupService(TextRepository textRepository,
+                              TranslationRepository translationRepository,
+                              LanguageRepository languageRepository,
+                              @Qualifier(CacheConfig.TEXT_CACHE) InMemoryCache textCache,
+                              @Qualifier(CacheConfig.TRANSLATION_CACHE) InMemoryCache translationCache,
+                              @Qualifier(CacheConfig.LANGUAGE_CACHE) InMemoryCache languageCache,
+                              CacheSnapshotStore snapshotStore,
+                              PlatformTransactionManager transactionManager,
+                              CacheProperties cacheProperties) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.languageRepository = languageRepository;
+        this.textCache = textCache;
+        this.translationCache = translationCache;
+        this.languageCache = languageCache;
+        this.snapshotStore = snapshotStore;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.properties = cacheProperties.getWarmup();
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        warmUp();
+    }
+
+    /**
+     * Loads the snapshot keys and the top languages into the caches.
+     *
+     * @return The number of cached entries.
+     */
+    public int warmUp() {
+        long start = System.nanoTime();
+        List<Callable<Integer>> tasks = new ArrayList<>();
+        int batchSize = Math.max(1, properties.getBatchSize());
+        int restored = plan(tasks, textCache, textRepository::findAllById,
+                textRepository::findAllByContentHashIn, batchSize, Text::getId, Text::getTextToTranslate);
+        restored += plan(tasks, translationCache, translationRepository::findAllById,
+                translationRepository::findAllByContentHashIn, batchSize,
+                Translation::getId, Translation::getTranslatedText);
+        restored += plan(tasks, languageCache, languageRepository::findAllById,
+                this::findLanguagesByNameHash, Integer.MAX_VALUE, Language::getId, Language::getName);
+        if (properties.getTopLanguages() > 0) {
+            tasks.add(() -> load(languageCache,
+                    () -> languageRepository.findMostUsed(PageRequest.of(0, properties.getTopLanguages())),
+                    Language::getId, Language::getName));
+        }
+        int loaded = restored + runAll(tasks);
+        logger.info("Warmed up {} cache entries in {} ms", loaded,
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return loaded;
+    }
+
+    /**
+     * Restores the snapshot entries that carry a value and adds a task for every batch
+     * of the keys that have to be queried. Content keys go in batches of contentBatchSize.
+     *
+     * @return The number of restored entries.
+     */
+    private <T> int plan(List<Callable<Integer>> tasks, InMemoryCache cache,
+                         Function<List<Long>, List<T>> findByIds,
+                         Function<List<Long>, List<T>> findByContentHashes, int contentBatchSize,
+                         Function<T, Long> idOf, Function<T, String> nameOf) {
+        List<CacheSnapshotEntry> entries = snapshotStore.read(cache.getName());
+        // The snapshot is ordered by hits, so the hottest entries survive a smaller cache.
+        int limit = Math.min(entries.size(), cache.getMaxSize());
+        List<Long> ids = new ArrayList<>();
+        List<Long> contentHashes = new ArrayList<>();
+        int restored = 0;
+        for (CacheSnapshotEntry entry : entries.subList(0, limit)) {
+            if (entry.value() != null && cache.restore(entry.key(), entry.value())) {
+                restored++;
+            } else if (entry.key() instanceof IdKey idKey) {
+                ids.add(idKey.getId());
+            } else if (entry.key() instanceof ContentKey contentKey) {
+                contentHashes.add(contentKey.getFingerprint());
+            }
+        }
+        int batchSize = Math.max(1, properties.getBatchSize());
+        for (int from = 0; from < ids.size(); from += batchSize) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + batchSize));
+            tasks.add(() -> load(cache, () -> findByIds.apply(batch), idOf, null));
+        }
+        for (int from = 0; from < contentHashes.size(); from += contentBatchSize) {
+            List<Long> batch = contentHashes.subList(from,
+                    (int) Math.min(contentHashes.size(), (long) from + contentBatchSize));
+            tasks.add(() -> load(cache, () -> findByContentHashes.apply(batch), null, nameOf));
+        }
+        return restored;
+    }
+
+    private List<Language> findLanguagesByNameHash(Collection<Long> nameHashes) {
+        Set<Long> wanted = new HashSet<>(nameHashes);
+        return languageRepository.findAll().stream()
+                .filter(language -> language.getName() != null
+                        && wanted.contains(ContentHash.of(language.getName())))
+                .toList();
+    }
+
+    private <T> int load(InMemoryCache cache, Callable<List<T>> query,
+                         Function<T, Long> idOf, Function<T, String> nameOf) {
+        Integer loaded = transactionTemplate.execute(status -> {
+            List<T> entities;
+            try {
+                entities = query.call();
+            } catch (Exception e) {
+                throw new IllegalStateException("Failed to load a warm-up batch of " + cache.getName(), e);
+            }
+            for (T entity : entities) {
+                FetchPlan.initialize(entity);
+                if (idOf != null) {
+                    cache.put(CacheKey.id(idOf.apply(entity)), entity);
+                }
+                if (nameOf != null) {
+                    cache.put(CacheKey.content(nameOf.apply(entity)), entity);
+                }
+            }
+            return entities.size();
+        });
+        return loaded != null ? loaded : 0;
+    }
+
+    private int runAll(List<Callable<Integer>> tasks) {
+        if (tasks.isEmpty()) {
+            return 0;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(
+                Math.max(1, Math.min(properties.getParallelism(), tasks.size())));
+        int loaded = 0;
+        try {
+            List<Future<Integer>> futures = executor.invokeAll(tasks,
+                    properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+            for (Future<Integer> future : futures) {
+                try {
+                    loaded += future.get();
+                } catch (CancellationException e) {
+                    logger.warn("Cache warm-up batch timed out after {}", properties.getTimeout());
+                } catch (ExecutionException e) {
+                    logger.warn("Cache warm-up batch failed", e.getCause());
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            executor.shutdownNow();
+        }
+        return loaded;
+    }
+}
@@ -0,0 +1,58 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import java.util.List;
+import java.util.StringJoiner;
+
+/**
+ * The FullTextQuery class turns what a user typed into a PostgreSQL tsquery: every word
+ * must occur, the last one possibly unfinished, so results show up while typing.
+ * Search results are keyset-paginated by rank and id; the token carries the rank.
+ */
+public final class FullTextQuery {
+
+    private FullTextQuery() {
+    }
+
+    /**
+     * Builds the tsquery of the entered words, each one as a prefix.
+     *
+     * @param input The words to search for.
+     * @return The query, for example {@code hello:* & wor:*}.
+     * @throws IllegalArgumentException If the input has no word.
+     */
+    public static String prefixQuery(String input) {
+        StringJoiner query = new StringJoiner(" & ");
+        if (input != null) {
+            // only letters and digits go through, so no tsquery operator can be injected
+            for (String word : input.split("[^\\p{L}\\p{N}]+")) {
+                if (!word.isEmpty()) {
+                    query.add(word + ":*");
+                }
+            }
+        }
+        if (query.length() == 0) {
+            throw new IllegalArgumentException("Search query has no words: " + input);
+        }
+        return query.toString();
+    }
+
+    /**
+     * Turns the hits queried with {@link KeysetToken#limitFor(int)} into a page.
+     */
+    static KeysetPage<SearchHit> pageOf(List<SearchHit> hits, int size) {
+        return KeysetToken.pageOf(hits, size, hit -> Float.toString(hit.getRank()), SearchHit::getId);
+    }
+
+    /**
+     * Reads the rank of the last hit of the previous page from its token.
+     */
+    static float rankOf(KeysetToken token) {
+        try {
+            return Float.parseFloat(token.sortKey());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid page token", e);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.dto.KeysetPage;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * The KeysetToken record is the position after which the next page of a keyset-paginated
+ * list starts: the sort key and the id of the last item of the previous page.
+ * Clients get it as an opaque URL-safe string and hand it back unchanged.
+ * Listings of texts and translations sort by a prefix of the content, see {@link #sortKeyOf},
+ * so a token stays small however long the content is.
+ */
+public record KeysetToken(String sortKey, long id) {
+
+    /**
+     * The length of the content prefix the listings sort by, in characters. It must match
+     * LEFT(..., 100) in the listing queries and the indexes of V9.
+     */
+    public static final int SORT_KEY_LENGTH = 100;
+
+    /**
+     * Returns the limit to query a page with: one row more than the page holds, which tells
+     * whether a next page exists without counting.
+     *
+     * @param size The size of the page.
+     */
+    public static Pageable limitFor(int size) {
+        return PageRequest.of(0, size + 1);
+    }
+
+    /**
+     * Returns the sort key of a content: its first {@link #SORT_KEY_LENGTH} characters,
+     * counted as code points like PostgreSQL does.
+     *
+     * @param content The content.
+     */
+    public static String sortKeyOf(String content) {
+        if (content.codePointCount(0, content.length()) <= SORT_KEY_LENGTH) {
+            return content;
+        }
+        return content.substring(0, content.offsetByCodePoints(0, SORT_KEY_LENGTH));
+    }
+
+    /**
+     * Turns the rows queried with {@link #limitFor(int)} into a page.
+     *
+     * @param rows The rows.
+     * @param size The size of the page.
+     * @param sortKey The sort key of a row.
+     * @param id The id of a row.
+     * @return The page, with a next token if there were more rows than fit.
+     */
+    public static <T> KeysetPage<T> pageOf(List<T> rows, int size, Function<T, String> sortKey,
+                                           Function<T, Long> id) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null);
+        }
+        List<T> content = rows.subList(0, size);
+        T last = content.get(size - 1);
+        return new KeysetPage<>(content, new KeysetToken(sortKey.apply(last), id.apply(last)).encode());
+    }
+
+    /**
+     * Encodes the token.
+     *
+     * @return The opaque token string.
+     */
+    public String encode() {
+        byte[] key = sortKey.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocate(Long.BYTES + key.length);
+        buffer.putLong(id).put(key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(buffer.array());
+    }
+
+    /**
+     * Decodes a token produced by {@link #encode()}.
+     *
+     * @param token The opaque token string.
+     * @return The token.
+     * @throws IllegalArgumentException If the string is not a valid token.
+     */
+    public static KeysetToken decode(String token) {
+        byte[] bytes;
+        try {
+            bytes = Base64.getUrlDecoder().decode(token);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid page token: " + token, e);
+        }
+        if (bytes.length < Long.BYTES) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        long id = buffer.getLong();
+        String sortKey = new String(bytes, Long.BYTES, bytes.length - Long.BYTES, StandardCharsets.UTF_8);
+        if (sortKey.codePointCount(0, sortKey.length()) > SORT_KEY_LENGTH) {
+            throw new IllegalArgumentException("Invalid page token: " + token);
+        }
+        return new KeysetToken(sortKey, id);
+    }
+}
@@ -2,15 +2,23 @@ package com.translate.webtranslator.service;
 
 import com.translate.webtranslator.aspect.RequestCounterAnnotation;
 import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.IdKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.LanguageSummary;
 import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.FetchPlan;
 import com.translate.webtranslator.repository.LanguageRepository;
 import com.translate.webtranslator.repository.TextRepository;
 import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The LanguageService class provides business logic operations for the Language entity
@@ -22,64 +30,66 @@ public class LanguageService {
     private LanguageRepository languageRepository;
     private TextRepository textRepository;
     private InMemoryCache languageCache;
+    // Built once, so a cache hit on getLanguageById doesn't allocate a capturing lambda.
+    private final Function<CacheKey, Object> languageLoader =
+            key -> languageRepository.findGraphById(((IdKey) key).getId()).orElse(null);
 
     /**
      * constructor with params.
      */
-    @Autowired
     public LanguageService(LanguageRepository languageRepository, TextRepository textRepository) {
         this.languageRepository = languageRepository;
         this.textRepository = textRepository;
         this.setLanguageCache(new InMemoryCache());
     }
 
-    
+    /**
+     * constructor with params and the language cache bean.
+     */
+    @Autowired
     public LanguageService(LanguageRepository languageRepository, TextRepository textRepository,
-			InMemoryCache languageCache) {
+			@Qualifier(CacheConfig.LANGUAGE_CACHE) InMemoryCache languageCache) {
 		this.languageRepository =  languageRepository;
 		this.textRepository = textRepository;
 		this.setLanguageCache(languageCache);
 	}
 
+    /**
+     * Retrieves every language with the number of its texts, ordered by name.
+     * Only the summary columns are selected, no text is loaded.
+     *
+     * @return The language summaries.
+     */
     @RequestCounterAnnotation
-	public List<Language> getAllLanguages() {
-		return languageRepository.findAll();
+	public List<LanguageSummary> getAllLanguages() {
+		return languageRepository.findAllSummaries();
     }
     
     /**
      * Retrieves a language by its ID.
-     * Caches the language object for future retrievals.
+     * Caches the language object for future retrievals; concurrent misses share one
+     * database load.
      *
      * @param languageId The ID of the language to retrieve.
      * @return The language with the specified ID, or null if not found.
      */
     @RequestCounterAnnotation
     public Language getLanguageById(Long languageId) {
-        Language cachedLanguage = (Language) getLanguageCache().get(new CacheKey(languageId));
-        if (cachedLanguage != null) {
-            return cachedLanguage;
-        }
-        Language language = languageRepository.findById(languageId).orElse(null);
-        if (language != null) {
-        	getLanguageCache().put(new CacheKey(languageId), language);
-        }
-        return language;
+        return (Language) getLanguageCache().get(CacheKey.id(languageId), languageLoader);
     }
     
     /**
      * Retrieves a language by its name.
-     * Caches the language object for future retrievals.
+     * Caches the language object for future retrievals. A name that doesn't exist is
+     * remembered as well, until a language with that name is saved.
      *
      * @param language The name of the language to retrieve.
      * @return The language with the specified name, or null if not found.
      */
     @RequestCounterAnnotation
     public Language getLanguageByLanguage(String language) {
-    	Language findLanguage = languageRepository.findByName(language);
-        if (findLanguage != null) {
-        	getLanguageCache().put(new CacheKey(language), findLanguage);
-        }
-        return findLanguage;
+        return (Language) getLanguageCache().get(CacheKey.content(language),
+                key -> languageRepository.findGraphByName(language));
     }
 
     /**
@@ -101,34 +111,35 @@ public class LanguageService {
         
     /**
      * Deletes a language by its ID.
-     * Removes the language from the cache.
+     * The cached copies are evicted by CacheInvalidationListener once the deletion commits.
      *
      * @param languageId The ID of the language to delete.
      * @return A string indicating the success of the deletion.
      */
     @RequestCounterAnnotation
+    @Transactional
     public String deleteLanguage(Long languageId) {
     	Language language = languageRepository.findById(languageId)
     			           .orElseThrow(() -> new IllegalStateException("Error to delete"));
-    	List<Text> textList = language.getTexts();
+    	Set<Text> textList = language.getTexts();
     	for (Text text : textList) {
     		text.getLanguages().remove(language);
     		textRepository.save(text);
     	}
         languageRepository.deleteById(languageId);
-        getLanguageCache().remove(new CacheKey(language.getName()));
         return "succes";
     }
     
     /**
      * Adds a text to the language's text list.
-     * Caches the updated language object.
+     * The cached language is evicted by CacheInvalidationListener once the link is saved.
      *
      * @param languageId The ID of the language.
      * @param textId The ID of the text to add.
      * @return The updated language.
      */
     @RequestCounterAnnotation
+    @Transactional
     public Language addTextInTextList(Long languageId, Long textId) {
     	Language language = languageRepository.findById(languageId)
     			.orElseThrow(() -> new IllegalStateException(
@@ -136,23 +147,26 @@ public class LanguageService {
     	Text text = textRepository.findById(textId)
     			.orElseThrow(() -> new IllegalStateException(
     					"text with id: " + textId + "doesnt exist"));
-    	if (!text.getLanguages().contains(language)) {
-    	    text.getLanguages().add(language);
+    	if (text.getLanguages().add(language)) {
     	    textRepository.save(text);
+    	    if (language.getTexts() != null) {
+    	        language.getTexts().add(text);
+    	    }
     	}
-    	getLanguageCache().put(new CacheKey(language.getName()), language);
+    	FetchPlan.initialize(language);
         return language;
     }
     
     /**
      * Removes a text from the language's text list.
-     * Caches the updated language object.
+     * The cached language is evicted by CacheInvalidationListener once the link is removed.
      *
      * @param languageId The ID of the language.
      * @param textId The ID of the text to remove.
      * @return The updated language.
      */
     @RequestCounterAnnotation
+    @Transactional
     public Language delTextInTextList(Long languageId, Long textId) {
         Text text = textRepository.findById(textId)
         		.orElseThrow(() -> new IllegalStateException("text doesnt exist"));
@@ -160,16 +174,19 @@ public class LanguageService {
         		.orElseThrow(() -> new IllegalStateException("language doesnt exist"));
         if (text.getLanguages().remove(language)) {
             textRepository.save(text);
+            if (language.getTexts() != null) {
+                language.getTexts().remove(text);
+            }
         }
-        getLanguageCache().put(new CacheKey(language.getName()), language);
-        return languageRepository.findById(languageId).orElse(null);
+        FetchPlan.initialize(language);
+        return language;
     }
     
     @RequestCounterAnnotation
     public List<String> bulkSaveLanguage(List<Language> languages) {
     	languageRepository.saveAll(languages);
         languages.forEach(language -> getLanguageCache()
-        		.put(new CacheKey(language.getId()), language));
+        		.put(CacheKey.id(language.getId()), language));
         return languages.stream()
                 .map(Language::getName)
                 .map(name -> name + " - created")
@@ -0,0 +1,247 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.aspect.RequestCounterAnnotation;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.SegmentTranslation;
+import com.translate.webtranslator.dto.TranslationCell;
+import com.translate.webtranslator.engine.TranslationBatcher;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The MachineTranslationService class translates texts with the configured translation engine.
+ * A text is only translated into the languages it has no machine translation for yet, and
+ * sentence by sentence: the text is split by {@link Segmenter}, the stored translations of its
+ * segments are loaded with one query, and only the segments without one go to the engine.
+ * So a document that changed in one sentence costs one sentence of engine work.
+ * Engine results are also memoized by content and language in the machine translation cache.
+ * Concurrent requests are sent together through the {@link TranslationBatcher}. New segments,
+ * their translations and the joined documents are each stored with one INSERT ... ON CONFLICT
+ * DO NOTHING, in a transaction of their own that is opened only after the engine answered,
+ * and the text is linked to the languages.
+ */
+@Service
+public class MachineTranslationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(MachineTranslationService.class);
+    private static final int SEGMENT_BATCH_SIZE = 1000;
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final LanguageRepository languageRepository;
+    private final TranslationBatcher translationBatcher;
+    private final InMemoryCache machineTranslationCache;
+    private final CacheInvalidationListener cacheInvalidationListener;
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * constructor with the repositories, the engine batcher and the machine translation cache.
+     */
+    public MachineTranslationService(TextRepository textRepository,
+                                     TranslationRepository translationRepository,
+                                     LanguageRepository languageRepository,
+                                     TranslationBatcher translationBatcher,
+                                     @Qualifier(CacheConfig.MACHINE_TRANSLATION_CACHE)
+                                     InMemoryCache machineTranslationCache,
+                                     CacheInvalidationListener cacheInvalidationListener,
+                                     PlatformTransactionManager transactionManager) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.languageRepository = languageRepository;
+        this.translationBatcher = translationBatcher;
+        this.machineTranslationCache = machineTranslationCache;
+        this.cacheInvalidationListener = cacheInvalidationListener;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Translates a text into languages, storing the translations it didn't have yet.
+     *
+     * @param textId The ID of the text.
+     * @param languageNames The names of the languages to translate into.
+     * @return The translations by language name, in the order of the names.
+     */
+    @RequestCounterAnnotation
+    public Map<String, String> translateText(Long textId, List<String> languageNames) {
+        Set<String> names = namesOf(languageNames);
+        Text text = textRepository.findById(textId)
+                .orElseThrow(() -> new IllegalStateException(
+                "Text with id: " + textId + " doesn't exist"));
+        Map<String, Long> languageIds = languageIdsOf(names);
+        Map<String, String> translations = new LinkedHashMap<>();
+        names.forEach(name -> translations.put(name, null));
+        for (TranslationCell cell : translationRepository.findMachineTranslations(List.of(textId),
+                languageIds.values())) {
+            translations.put(cell.getLanguage(), cell.getTranslatedText());
+        }
+        List<String> missing = names.stream().filter(name -> translations.get(name) == null).toList();
+        if (missing.isEmpty()) {
+            return translations;
+        }
+        List<Segmenter.Segment> segments = Segmenter.split(text.getTextToTranslate());
+        List<String> contents = segments.stream()
+                .map(Segmenter.Segment::content)
+                .filter(content -> !content.isEmpty())
+                .distinct()
+                .toList();
+        Map<String, Map<String, String>> segmentTranslations = storedSegmentTranslations(contents,
+                missing.stream().map(languageIds::get).toList());
+        // the segments without a stored translation, pairwise with their language
+        List<String> newContents = new ArrayList<>();
+        List<String> newLanguages = new ArrayList<>();
+        List<CompletableFuture<String>> pending = new ArrayList<>();
+        for (String language : missing) {
+            Map<String, String> known = segmentTranslations.computeIfAbsent(language,
+                    key -> new HashMap<>());
+            for (String content : contents) {
+                if (!known.containsKey(content)) {
+                    newContents.add(content);
+                    newLanguages.add(language);
+                    pending.add(translate(content, language));
+                }
+            }
+        }
+        List<String> newTranslations = await(pending);
+        for (int i = 0; i < newContents.size(); i++) {
+            segmentTranslations.get(newLanguages.get(i)).put(newContents.get(i), newTranslations.get(i));
+        }
+        List<String> documents = new ArrayList<>(missing.size());
+        for (String language : missing) {
+            String document = Segmenter.join(segments, segmentTranslations.get(language)::get);
+            documents.add(document);
+            translations.put(language, document);
+        }
+        logger.debug("Translated {} of {} segments of text {} into {}", newContents.size(),
+                contents.size() * missing.size(), textId, missing);
+
+        transactionTemplate.executeWithoutResult(status -> {
+            if (!newContents.isEmpty()) {
+                String[] distinctContents = newContents.stream().distinct().toArray(String[]::new);
+                translationRepository.insertSegments(distinctContents,
+                        Arrays.stream(distinctContents).map(ContentHash::of).toArray(Long[]::new));
+                translationRepository.insertSegmentTranslations(newContents.toArray(String[]::new),
+                        newContents.stream().map(ContentHash::of).toArray(Long[]::new),
+                        newLanguages.stream().map(languageIds::get).toArray(Long[]::new),
+                        newTranslations.toArray(String[]::new));
+            }
+            translationRepository.insertMachineTranslations(textId,
+                    missing.stream().map(languageIds::get).toArray(Long[]::new),
+                    documents.toArray(String[]::new),
+                    documents.stream().map(ContentHash::of).toArray(Long[]::new));
+            textRepository.insertLanguageLinks(text.getTextToTranslate(), text.getContentHash(), missing);
+            textRepository.findGraphById(textId).ifPresent(cacheInvalidationListener::onEntityChange);
+        });
+        return translations;
+    }
+
+    /**
+     * Loads the stored translations of segments, by language name and segment content.
+     */
+    private Map<String, Map<String, String>> storedSegmentTranslations(List<String> contents,
+                                                                      List<Long> languageIds) {
+        Map<String, Map<String, String>> translations = new HashMap<>();
+        Set<String> wanted = new HashSet<>(contents);
+        for (int from = 0; from < contents.size(); from += SEGMENT_BATCH_SIZE) {
+            List<Long> contentHashes = contents.subList(from,
+                    Math.min(contents.size(), from + SEGMENT_BATCH_SIZE)).stream().map(ContentHash::of).toList();
+            for (SegmentTranslation row : translationRepository.findSegmentTranslations(contentHashes,
+                    languageIds)) {
+                // a segment sharing the hash of another content is not ours
+                if (wanted.contains(row.getContent())) {
+                    translations.computeIfAbsent(row.getLanguage(), key -> new HashMap<>())
+                            .put(row.getContent(), row.getTranslatedText());
+                }
+            }
+        }
+        return translations;
+    }
+
+    /**
+     * Translates a content with the engine, unless its translation is cached.
+     *
+     * @param content The content to translate.
+     * @param language The name of the language to translate into.
+     * @return The translation, completed exceptionally if the engine failed.
+     */
+    public CompletableFuture<String> translate(String content, String language) {
+        CacheKey key = CacheKey.content(language + '\u0000' + content);
+        String cached = (String) machineTranslationCache.get(key);
+        if (cached != null) {
+            return CompletableFuture.completedFuture(cached);
+        }
+        return translationBatcher.translate(content, language).thenApply(translation -> {
+            machineTranslationCache.put(key, translation);
+            return translation;
+        });
+    }
+
+    /**
+     * Waits for translations, rethrowing the failure of the first one that failed.
+     */
+    static List<String> await(List<CompletableFuture<String>> translations) {
+        List<String> results = new ArrayList<>(translations.size());
+        try {
+            for (CompletableFuture<String> translation : translations) {
+                results.add(translation.join());
+            }
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Translation failed", e.getCause());
+        }
+        return results;
+    }
+
+    private static Set<String> namesOf(List<String> languageNames) {
+        Set<String> names = new LinkedHashSet<>();
+        if (languageNames != null) {
+            for (String name : languageNames) {
+                if (name != null && !name.isBlank()) {
+                    names.add(name);
+                }
+            }
+        }
+        if (names.isEmpty()) {
+            throw new IllegalArgumentException("At least one language is required");
+        }
+        return names;
+    }
+
+    private Map<String, Long> languageIdsOf(Set<String> names) {
+        Map<String, Long> languageIds = new HashMap<>();
+        for (Language language : languageRepository.findAllByNameIn(names)) {
+            languageIds.put(language.getName(), language.getId());
+        }
+        for (String name : names) {
+            if (!languageIds.containsKey(name)) {
+                throw new IllegalStateException("Language with name: " + name + " doesn't exist");
+            }
+        }
+        return languageIds;
+    }
+}
@@ -0,0 +1,81 @@
+package com.translate.webtranslator.service;
+
+import java.text.BreakIterator;
+import java.text.StringCharacterIterator;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+/**
+ * The Segmenter class splits a document into the segments it is translated by: its sentences,
+ * and the lines of text without a sentence end. The whitespace around a segment is not part
+ * of it, so a sentence is the same segment wherever it stands, and is kept as it is when the
+ * translations of the segments are joined back into a document.
+ */
+public final class Segmenter {
+
+    /**
+     * A segment with the whitespace before and after it. The content is empty for a piece
+     * of the document that is only whitespace.
+     */
+    public record Segment(String leading, String content, String trailing) {
+    }
+
+    private Segmenter() {
+    }
+
+    /**
+     * Splits a document into segments.
+     *
+     * @param document The document.
+     * @return The segments, whose leading, content and trailing parts make up the document.
+     */
+    public static List<Segment> split(String document) {
+        List<Segment> segments = new ArrayList<>();
+        BreakIterator sentences = BreakIterator.getSentenceInstance(Locale.ROOT);
+        for (int lineStart = 0; lineStart < document.length(); ) {
+            int newline = document.indexOf('\n', lineStart);
+            int lineEnd = newline < 0 ? document.length() : newline + 1;
+            sentences.setText(new StringCharacterIterator(document, lineStart, lineEnd, lineStart));
+            int start = sentences.first();
+            for (int end = sentences.next(); end != BreakIterator.DONE; start = end, end = sentences.next()) {
+                segments.add(segment(document, start, end));
+            }
+            lineStart = lineEnd;
+        }
+        return segments;
+    }
+
+    private static Segment segment(String document, int start, int end) {
+        int from = start;
+        int to = end;
+        while (from < to && Character.isWhitespace(document.charAt(from))) {
+            from++;
+        }
+        while (to > from && Character.isWhitespace(document.charAt(to - 1))) {
+            to--;
+        }
+        return new Segment(document.substring(start, from), document.substring(from, to),
+                document.substring(to, end));
+    }
+
+    /**
+     * Joins segments back into a document, replacing their contents.
+     *
+     * @param segments The segments of a document.
+     * @param translation The replacement of a non-empty segment content.
+     * @return The document with the replaced contents.
+     */
+    public static String join(List<Segment> segments, Function<String, String> translation) {
+        StringBuilder document = new StringBuilder();
+        for (Segment segment : segments) {
+            document.append(segment.leading());
+            if (!segment.content().isEmpty()) {
+                document.append(translation.apply(segment.content()));
+            }
+            document.append(segment.trailing());
+        }
+        return document.toString();
+    }
+}
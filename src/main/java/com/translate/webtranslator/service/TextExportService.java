@@ -0,0 +1,133 @@
+package com.translate.webtranslator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.translate.webtranslator.dto.ExportedText;
+import com.translate.webtranslator.dto.IdAndValue;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The TextExportService class writes the whole translation memory as gzip-compressed NDJSON,
+ * one {@link ExportedText} per line.
+ * It runs three queries, all ordered by text id and read through server-side cursors:
+ * the texts, the translations and the text-language links. It merges them the way a
+ * merge join does, so memory use doesn't depend on the size of the corpus and no entity
+ * is ever loaded. The queries run in one read-only REPEATABLE READ transaction, which keeps
+ * the cursors open and makes them see the same snapshot; under READ COMMITTED each query
+ * would see the rows committed before it started.
+ */
+@Service
+public class TextExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TextExportService.class);
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectWriter lineWriter;
+
+    /**
+     * constructor with the repositories, the transaction manager and the JSON mapper.
+     */
+    public TextExportService(TextRepository textRepository,
+                             TranslationRepository translationRepository,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.lineWriter = objectMapper.writerFor(ExportedText.class);
+    }
+
+    /**
+     * Writes every text to the stream, compressed with gzip. The stream is closed at the end.
+     *
+     * @param output The stream to write to.
+     * @return The number of exported texts.
+     * @throws IOException If the stream can't be written.
+     */
+    public long exportTexts(OutputStream output) throws IOException {
+        try {
+            Long exported = transactionTemplate.execute(status -> {
+                try (Stream<IdAndValue> texts = textRepository.streamTextsForExport();
+                     Stream<IdAndValue> translations = translationRepository.streamTranslationsForExport();
+                     Stream<IdAndValue> languages = textRepository.streamLanguagesForExport();
+                     OutputStream gzip = new GZIPOutputStream(output, GZIP_BUFFER_SIZE)) {
+                    return merge(texts.iterator(), new Cursor(translations.iterator()),
+                            new Cursor(languages.iterator()), gzip);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            logger.info("Exported {} texts", exported);
+            return exported != null ? exported : 0;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private long merge(Iterator<IdAndValue> texts, Cursor translations, Cursor languages,
+                       OutputStream output) throws IOException {
+        long exported = 0;
+        while (texts.hasNext()) {
+            IdAndValue text = texts.next();
+            output.write(lineWriter.writeValueAsBytes(new ExportedText(text.id(), text.value(),
+                    translations.valuesOf(text.id()), languages.valuesOf(text.id()))));
+            output.write('\n');
+            exported++;
+        }
+        return exported;
+    }
+
+    /**
+     * An iterator over rows ordered by id that hands out the values of one id at a time.
+     */
+    private static final class Cursor {
+
+        private final Iterator<IdAndValue> rows;
+        private IdAndValue next;
+
+        Cursor(Iterator<IdAndValue> rows) {
+            this.rows = rows;
+            this.next = rows.hasNext() ? rows.next() : null;
+        }
+
+        /**
+         * Returns the values of the id, skipping the rows of smaller ids, which belong to
+         * no exported text.
+         */
+        List<String> valuesOf(long id) {
+            while (next != null && next.id() < id) {
+                advance();
+            }
+            List<String> values = new ArrayList<>();
+            while (next != null && next.id() == id) {
+                values.add(next.value());
+                advance();
+            }
+            return values;
+        }
+
+        private void advance() {
+            next = rows.hasNext() ? rows.next() : null;
+        }
+    }
+}
@@ -0,0 +1,199 @@
+package com.translate.webtranslator.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * The TextImportReader class reads the rows of a text import one at a time, so an upload
+ * never has to fit into memory. A malformed row is returned with an error instead of a value,
+ * and reading goes on with the next one.
+ * NDJSON uploads hold one {@link TextImportService.TextImportRow} object per line. CSV uploads
+ * start with a header naming the columns textToTranslate, translations and languages, in any
+ * order; the list columns separate their values with semicolons. Fields may be quoted as
+ * described in RFC 4180, including quoted line breaks.
+ */
+abstract class TextImportReader implements Closeable {
+
+    private static final String LIST_SEPARATOR = ";";
+
+    protected final BufferedReader reader;
+    protected long lineNumber;
+
+    private TextImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    static TextImportReader open(TextImportService.Format format, InputStream input,
+                                 ObjectReader rowReader) {
+        return format == TextImportService.Format.CSV
+                ? new Csv(input) : new Ndjson(input, rowReader);
+    }
+
+    /**
+     * Reads the next row.
+     *
+     * @return The row, or null at the end of the upload.
+     * @throws IOException If the upload can't be read.
+     */
+    abstract ParsedRow next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    /**
+     * A row of the upload, or the reason it couldn't be parsed.
+     */
+    record ParsedRow(long line, TextImportService.TextImportRow row, String error) {
+    }
+
+    private static final class Ndjson extends TextImportReader {
+
+        private final ObjectReader rowReader;
+
+        Ndjson(InputStream input, ObjectReader rowReader) {
+            super(input);
+            this.rowReader = rowReader;
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            String line;
+            do {
+                line = reader.readLine();
+                if (line == null) {
+                    return null;
+                }
+                lineNumber++;
+            } while (line.isBlank());
+            try {
+                return new ParsedRow(lineNumber, rowReader.readValue(line), null);
+            } catch (JsonProcessingException e) {
+                return new ParsedRow(lineNumber, null, "Malformed JSON: " + e.getOriginalMessage());
+            }
+        }
+    }
+
+    private static final class Csv extends TextImportReader {
+
+        private int textColumn = -1;
+        private int translationsColumn = -1;
+        private int languagesColumn = -1;
+        private boolean headerRead;
+
+        Csv(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        ParsedRow next() throws IOException {
+            if (!headerRead) {
+                headerRead = true;
+                List<String> header = readRecord();
+                if (header == null) {
+                    return null;
+                }
+                for (int i = 0; i < header.size(); i++) {
+                    switch (header.get(i).trim().toLowerCase(Locale.ROOT)) {
+                        case "texttotranslate", "text" -> textColumn = i;
+                        case "translations", "translation" -> translationsColumn = i;
+                        case "languages", "language" -> languagesColumn = i;
+                        default -> {
+                            // Unknown columns are ignored.
+                        }
+                    }
+                }
+                if (textColumn < 0) {
+                    throw new IllegalArgumentException("CSV header has no textToTranslate column");
+                }
+            }
+            long line;
+            List<String> record;
+            do {
+                line = lineNumber + 1;
+                record = readRecord();
+                if (record == null) {
+                    return null;
+                }
+            } while (record.size() == 1 && record.get(0).isEmpty());
+            if (record.size() <= textColumn) {
+                return new ParsedRow(line, null, "Row has " + record.size() + " columns");
+            }
+            return new ParsedRow(line, new TextImportService.TextImportRow(record.get(textColumn),
+                    list(record, translationsColumn), list(record, languagesColumn)), null);
+        }
+
+        private static List<String> list(List<String> record, int column) {
+            if (column < 0 || column >= record.size() || record.get(column).isBlank()) {
+                return List.of();
+            }
+            return Arrays.stream(record.get(column).split(LIST_SEPARATOR))
+                    .map(String::trim)
+                    .toList();
+        }
+
+        /**
+         * Reads the fields of one record, which spans several lines when a quoted field
+         * contains line breaks.
+         *
+         * @return The fields, or null at the end of the upload.
+         */
+        private List<String> readRecord() throws IOException {
+            String line = reader.readLine();
+            if (line == null) {
+                return null;
+            }
+            lineNumber++;
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            int i = 0;
+            while (true) {
+                if (i == line.length()) {
+                    if (!quoted) {
+                        break;
+                    }
+                    line = reader.readLine();
+                    if (line == null) {
+                        break;
+                    }
+                    lineNumber++;
+                    field.append('\n');
+                    i = 0;
+                    continue;
+                }
+                char c = line.charAt(i++);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i < line.length() && line.charAt(i) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+}
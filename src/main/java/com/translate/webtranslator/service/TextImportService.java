@@ -0,0 +1,363 @@
+package com.translate.webtranslator.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import jakarta.persistence.EntityManager;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The TextImportService class imports texts with their translations and languages from
+ * an NDJSON or CSV stream.
+ * Rows are parsed one at a time and written in chunks, each chunk in its own transaction,
+ * so a chunk is committed while the rest of the upload is still arriving and memory use
+ * doesn't grow with the upload. Rows with the same content are merged into one text.
+ * Like in {@link TextUpsertService} every kind of row is written by set-based
+ * INSERT ... ON CONFLICT DO NOTHING statements, so texts, translations, languages and links
+ * that exist already, or that a concurrent import creates, are skipped instead of failing the
+ * chunk. Languages are matched by name and created when missing. The statements bypass the
+ * entity listeners, so the written rows are reported to {@link CacheInvalidationListener}.
+ * A row whose content hash belongs to another text fails alone.
+ * After every chunk the listener gets an {@link ImportProgress} with the rows imported so far
+ * and the rows that failed: malformed or blank rows fail alone, while a chunk whose
+ * transaction fails reports all of its rows as failed and the import goes on with the next one.
+ */
+@Service
+public class TextImportService {
+
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+    public static final int MAX_CHUNK_SIZE = 10_000;
+
+    private static final Logger logger = LoggerFactory.getLogger(TextImportService.class);
+    private static final int MAX_ERRORS_PER_CHUNK = 100;
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final LanguageRepository languageRepository;
+    private final CacheInvalidationListener cacheInvalidationListener;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectReader rowReader;
+
+    /**
+     * constructor with the repositories, the cache invalidation listener, the transaction manager
+     * and the JSON mapper.
+     */
+    public TextImportService(TextRepository textRepository,
+                             TranslationRepository translationRepository,
+                             LanguageRepository languageRepository,
+                             CacheInvalidationListener cacheInvalidationListener,
+                             EntityManager entityManager,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.languageRepository = languageRepository;
+        this.cacheInvalidationListener = cacheInvalidationListener;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rowReader = objectMapper.readerFor(TextImportRow.class);
+    }
+
+    /**
+     * Imports the texts of a stream.
+     *
+     * @param input The upload.
+     * @param format The format of the upload.
+     * @param chunkSize The number of rows written per transaction.
+     * @param listener The listener notified after every chunk.
+     * @return The progress after the last chunk.
+     * @throws IOException If the upload can't be read or the listener fails.
+     */
+    public ImportProgress importTexts(InputStream input, Format format, int chunkSize,
+                                      ProgressListener listener) throws IOException {
+        int size = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        Progress progress = new Progress();
+        List<TextImportReader.ParsedRow> chunk = new ArrayList<>(Math.min(size, DEFAULT_CHUNK_SIZE));
+        try (TextImportReader reader = TextImportReader.open(format, input, rowReader)) {
+            TextImportReader.ParsedRow parsed;
+            while ((parsed = nextRow(reader, progress)) != null) {
+                progress.lastLine = parsed.line();
+                String error = parsed.error() != null ? parsed.error() : validate(parsed.row());
+                if (error != null) {
+                    progress.fail(parsed.line(), parsed.line(), 1, error);
+                    continue;
+                }
+                chunk.add(parsed);
+                if (chunk.size() == size) {
+                    writeChunk(chunk, progress);
+                    listener.onProgress(progress.report(false));
+                    chunk.clear();
+                }
+            }
+        }
+        if (!chunk.isEmpty()) {
+            writeChunk(chunk, progress);
+        }
+        ImportProgress last = progress.report(true);
+        listener.onProgress(last);
+        logger.info("Imported {} texts, {} rows failed", last.totalImported(), last.totalFailed());
+        return last;
+    }
+
+    private static TextImportReader.ParsedRow nextRow(TextImportReader reader, Progress progress)
+            throws IOException {
+        try {
+            return reader.next();
+        } catch (IllegalArgumentException e) {
+            progress.fail(1, 1, 0, e.getMessage());
+            return null;
+        }
+    }
+
+    private static String validate(TextImportRow row) {
+        if (row == null || row.textToTranslate() == null || row.textToTranslate().isBlank()) {
+            return "textToTranslate is blank";
+        }
+        if (row.translations() != null
+                && row.translations().stream().anyMatch(value -> value == null || value.isBlank())) {
+            return "A translation is blank";
+        }
+        if (row.languages() != null
+                && row.languages().stream().anyMatch(value -> value == null || value.isBlank())) {
+            return "A language name is blank";
+        }
+        return null;
+    }
+
+    private void writeChunk(List<TextImportReader.ParsedRow> chunk, Progress progress) {
+        long firstLine = chunk.get(0).line();
+        long lastLine = chunk.get(chunk.size() - 1).line();
+        try {
+            List<ImportedText> rejected = transactionTemplate.execute(status -> {
+                List<ImportedText> rejectedTexts = writeTexts(merge(chunk));
+                // Nothing of a committed chunk is read again, so don't let the context grow.
+                entityManager.clear();
+                return rejectedTexts;
+            });
+            int rejectedRows = 0;
+            for (ImportedText text : rejected) {
+                rejectedRows += text.rows;
+                progress.fail(text.firstLine, text.firstLine, text.rows,
+                        "Another text has the content hash " + text.contentHash);
+            }
+            progress.imported += chunk.size() - rejectedRows;
+        } catch (RuntimeException e) {
+            logger.warn("Import of lines {}-{} failed", firstLine, lastLine, e);
+            progress.fail(firstLine, lastLine, chunk.size(), "Chunk failed: " + e.getMessage());
+        }
+    }
+
+    private static Collection<ImportedText> merge(List<TextImportReader.ParsedRow> chunk) {
+        Map<String, ImportedText> texts = new LinkedHashMap<>();
+        for (TextImportReader.ParsedRow parsed : chunk) {
+            TextImportRow row = parsed.row();
+            ImportedText text = texts.computeIfAbsent(row.textToTranslate(),
+                    content -> new ImportedText(content, parsed.line()));
+            text.rows++;
+            if (row.translations() != null) {
+                text.translations.addAll(row.translations());
+            }
+            if (row.languages() != null) {
+                text.languages.addAll(row.languages());
+            }
+        }
+        return texts.values();
+    }
+
+    /**
+     * Writes the texts of a chunk and returns the ones whose content hash belongs to another text.
+     */
+    private List<ImportedText> writeTexts(Collection<ImportedText> texts) {
+        List<String> contents = new ArrayList<>(texts.size());
+        List<Long> contentHashes = new ArrayList<>(texts.size());
+        Set<String> names = new LinkedHashSet<>();
+        Map<String, Long> translatedTexts = new HashMap<>();
+        List<String> translationTexts = new ArrayList<>();
+        List<Long> translationTextHashes = new ArrayList<>();
+        List<String> translationContents = new ArrayList<>();
+        List<Long> translationHashes = new ArrayList<>();
+        List<String> linkTexts = new ArrayList<>();
+        List<Long> linkTextHashes = new ArrayList<>();
+        List<String> linkNames = new ArrayList<>();
+        for (ImportedText text : texts) {
+            contents.add(text.content);
+            contentHashes.add(text.contentHash);
+            for (String translatedText : text.translations) {
+                translationTexts.add(text.content);
+                translationTextHashes.add(text.contentHash);
+                translationContents.add(translatedText);
+                translationHashes.add(translatedTexts.computeIfAbsent(translatedText, ContentHash::of));
+            }
+            for (String name : text.languages) {
+                linkTexts.add(text.content);
+                linkTextHashes.add(text.contentHash);
+                linkNames.add(name);
+            }
+            names.addAll(text.languages);
+        }
+
+        textRepository.insertAllIfAbsent(contents.toArray(String[]::new),
+                contentHashes.toArray(Long[]::new));
+        if (!names.isEmpty()) {
+            languageRepository.insertMissing(names.toArray(String[]::new));
+        }
+        if (!translationContents.isEmpty()) {
+            translationRepository.insertAllMissing(translationTexts.toArray(String[]::new),
+                    translationTextHashes.toArray(Long[]::new), translationContents.toArray(String[]::new),
+                    translationHashes.toArray(Long[]::new));
+        }
+        if (!linkNames.isEmpty()) {
+            textRepository.insertAllLanguageLinks(linkTexts.toArray(String[]::new),
+                    linkTextHashes.toArray(Long[]::new), linkNames.toArray(String[]::new));
+        }
+
+        List<Object> changed = new ArrayList<>();
+        Map<Long, Text> stored = new HashMap<>();
+        for (Text text : textRepository.findAllByContentHashIn(contentHashes)) {
+            stored.put(text.getContentHash(), text);
+            changed.add(text);
+        }
+        if (!names.isEmpty()) {
+            changed.addAll(languageRepository.findAllByNameIn(names));
+        }
+        for (String translatedText : translatedTexts.keySet()) {
+            // only the content key of a new translation can be cached, as a missing lookup
+            Translation translation = new Translation();
+            translation.setTranslatedText(translatedText);
+            changed.add(translation);
+        }
+        cacheInvalidationListener.onEntitiesChange(changed);
+
+        List<ImportedText> rejected = new ArrayList<>();
+        for (ImportedText text : texts) {
+            Text storedText = stored.get(text.contentHash);
+            if (storedText != null && !text.content.equals(storedText.getTextToTranslate())) {
+                rejected.add(text);
+            }
+        }
+        return rejected;
+    }
+
+    /**
+     * The formats an import can be uploaded in.
+     */
+    public enum Format {
+        NDJSON, CSV;
+
+        public static final String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+        /**
+         * Returns the format of a content type.
+         *
+         * @throws IllegalArgumentException If the content type is not supported.
+         */
+        public static Format of(String contentType) {
+            MediaType mediaType = MediaType.parseMediaType(contentType);
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType(NDJSON_MEDIA_TYPE))) {
+                return NDJSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.parseMediaType("text/csv"))) {
+                return CSV;
+            }
+            throw new IllegalArgumentException("Unsupported import format: " + contentType);
+        }
+    }
+
+    /**
+     * A text to import, with the translated texts and the names of its languages.
+     */
+    public record TextImportRow(String textToTranslate, List<String> translations,
+                                List<String> languages) {
+    }
+
+    /**
+     * The state of an import after a chunk.
+     *
+     * @param lastLine The last line read so far.
+     * @param totalImported The rows written so far.
+     * @param totalFailed The rows that failed so far.
+     * @param errors The failures since the previous report, at most 100 of them.
+     * @param done Whether the whole upload was read.
+     */
+    public record ImportProgress(int chunk, long lastLine, long totalImported, long totalFailed,
+                                 List<RowError> errors, boolean done) {
+    }
+
+    /**
+     * A failed row, or a range of rows when a whole chunk failed.
+     */
+    public record RowError(long firstLine, long lastLine, String message) {
+    }
+
+    /**
+     * Receives the progress of an import.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(ImportProgress progress) throws IOException;
+    }
+
+    /**
+     * The rows of a chunk with the same content, merged into one text.
+     */
+    private static final class ImportedText {
+
+        private final String content;
+        private final long contentHash;
+        private final long firstLine;
+        private final Set<String> translations = new LinkedHashSet<>();
+        private final Set<String> languages = new LinkedHashSet<>();
+        private int rows;
+
+        ImportedText(String content, long firstLine) {
+            this.content = content;
+            this.contentHash = ContentHash.of(content);
+            this.firstLine = firstLine;
+        }
+    }
+
+    private static final class Progress {
+
+        private int chunk;
+        private long lastLine;
+        private long imported;
+        private long failed;
+        private List<RowError> errors = new ArrayList<>();
+
+        void fail(long firstLine, long lastLine, int rows, String message) {
+            failed += rows;
+            if (errors.size() < MAX_ERRORS_PER_CHUNK) {
+                errors.add(new RowError(firstLine, lastLine, message));
+            }
+        }
+
+        ImportProgress report(boolean done) {
+            ImportProgress report = new ImportProgress(++chunk, lastLine, imported, failed,
+                    errors, done);
+            errors = new ArrayList<>();
+            return report;
+        }
+    }
+}
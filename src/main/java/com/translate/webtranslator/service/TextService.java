@@ -2,20 +2,29 @@ package com.translate.webtranslator.service;
 
 import com.translate.webtranslator.aspect.RequestCounterAnnotation;
 import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.IdKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TextSummary;
 import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.model.Text;
 import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.FetchPlan;
 import com.translate.webtranslator.repository.TextRepository;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The TextService class provides business logic operations for the Text entity
@@ -26,85 +35,112 @@ public class TextService {
 
     private TextRepository textRepository;
     private InMemoryCache textCache;
+    // Built once, so a cache hit on getTextById doesn't allocate a capturing lambda.
+    private final Function<CacheKey, Object> textLoader =
+            key -> textRepository.findGraphById(((IdKey) key).getId()).orElse(null);
 
-    @Autowired
     public TextService(TextRepository textRepository) {
         this.textRepository = textRepository;
         this.textCache = new InMemoryCache();
     }
 
-    public TextService(TextRepository textRepository, InMemoryCache textCache) {
+    @Autowired
+    public TextService(TextRepository textRepository,
+                       @Qualifier(CacheConfig.TEXT_CACHE) InMemoryCache textCache) {
 		this.textRepository = textRepository;
 		this.textCache = textCache;
 	}
 
     @RequestCounterAnnotation
-    public Page<Text> getTextsWithPagination(int page, int size) {
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("textToTranslate").ascending());
+    public Page<TextSummary> getTextsWithPagination(int page, int size) {
+        Pageable pageable = PageRequest.of(page - 1, size);
         return textRepository.findAllWithPagination(pageable);
     }
 
+    /**
+     * Retrieves a page of texts ordered by content, without counting all texts.
+     *
+     * @param page The number of the page, starting at 1.
+     * @param size The size of the page.
+     * @return The page, which only knows whether a next page exists.
+     */
+    @RequestCounterAnnotation
+    public Slice<TextSummary> getTextsSlice(int page, int size) {
+        return textRepository.findAllAsSlice(PageRequest.of(page - 1, size));
+    }
+
+    /**
+     * Retrieves the page of texts that follows a page token, ordered by the start of the
+     * content and id. The query seeks the index on (left(text_to_translate, 100), id) instead
+     * of skipping rows, so deep pages cost as much as the first one.
+     *
+     * @param token The token of the previous page, or null for the first page.
+     * @param size The size of the page.
+     * @return The page with the token of the next one.
+     */
+    @RequestCounterAnnotation
+    public KeysetPage<TextSummary> getTextsAfter(String token, int size) {
+        int pageSize = Math.max(1, size);
+        List<TextSummary> texts;
+        if (token == null || token.isEmpty()) {
+            texts = textRepository.findFirstKeysetPage(KeysetToken.limitFor(pageSize));
+        } else {
+            KeysetToken after = KeysetToken.decode(token);
+            texts = textRepository.findKeysetPageAfter(after.sortKey(), after.id(),
+                    KeysetToken.limitFor(pageSize));
+        }
+        return KeysetToken.pageOf(texts, pageSize,
+                text -> KeysetToken.sortKeyOf(text.textToTranslate()), TextSummary::id);
+    }
+
+    /**
+     * Searches texts by the words they contain, most relevant first. Every entered word
+     * must occur, the last one may be unfinished. English words also match their other forms.
+     *
+     * @param query The words to search for.
+     * @param token The token of the previous page, or null for the first page.
+     * @param size The size of the page.
+     * @return The page with the token of the next one.
+     */
+    @RequestCounterAnnotation
+    public KeysetPage<SearchHit> searchTexts(String query, String token, int size) {
+        String tsQuery = FullTextQuery.prefixQuery(query);
+        int pageSize = Math.max(1, size);
+        List<SearchHit> hits;
+        if (token == null || token.isEmpty()) {
+            hits = textRepository.searchFirstPage(tsQuery, pageSize + 1);
+        } else {
+            KeysetToken after = KeysetToken.decode(token);
+            hits = textRepository.searchPageAfter(tsQuery, FullTextQuery.rankOf(after), after.id(),
+                    pageSize + 1);
+        }
+        return FullTextQuery.pageOf(hits, pageSize);
+    }
+
     /**
      * Retrieves a text by its ID.
-     * Caches the text object for future retrievals.
+     * Caches the text object for future retrievals; concurrent misses share one database load.
      *
      * @param textId The ID of the text to retrieve.
      * @return The text with the specified ID, or null if not found.
      */
     @RequestCounterAnnotation
     public Text getTextById(Long textId) {
-    	Text cachedText = (Text) textCache.get(new CacheKey(textId));
-        if (cachedText != null) {
-            return cachedText;
-        } else {
-            Text text = textRepository.findById(textId).orElse(null);
-            if (text != null) {
-            	textCache.put(new CacheKey(textId), text);
-            }
-            return text;
-        }
+        return (Text) textCache.get(CacheKey.id(textId), textLoader);
     }
     
     /**
      * Retrieves a text by its content.
-     * Caches the text object for future retrievals.
+     * Caches the text object for future retrievals. A content that doesn't exist is
+     * remembered as well, until a text with that content is saved or renamed to it.
      *
      * @param text The content of the text to retrieve.
      * @return The text with the specified content, or null if not found.
      */
     @RequestCounterAnnotation
     public Text getTextByText(String text) {
-    	 Text cachedText = (Text) textCache.get(new CacheKey(text));
-    	 if (cachedText != null) {
-    		 return cachedText;
-    	 } else {
-    		 Text findText = textRepository.findByTextToTranslate(text).orElse(null);
-    	    if (findText != null) {
-    	        textCache.put(new CacheKey(text), findText);
-    	    }
-    	    return findText;
-    	 }
-    }
-
-    /**
-     * Saves a text.
-     * Caches the saved text object.
-     *
-     * @param text The text to save.
-     * @return A string indicating the success of the save operation.
-     */
-    @RequestCounterAnnotation
-    public Text saveText(Text text) {
-        if (text == null) {
-            throw new IllegalArgumentException("Text cannot be null");
-        }
-        Optional<Text> existingText = textRepository.findByTextToTranslate(text.getTextToTranslate());
-        if (existingText.isPresent()) {
-            return text;
-        }
-        Text savedText = textRepository.save(text);
-        textCache.put(new CacheKey(savedText.getId()), savedText);
-        return textRepository.save(text);
+        return (Text) textCache.get(CacheKey.content(text),
+                key -> textRepository.findGraphByTextToTranslate(text).orElse(null));
     }
 
     /**
@@ -116,6 +152,7 @@ public class TextService {
      * @return The updated text.
      */
     @RequestCounterAnnotation
+    @Transactional
     public Text updateText(Long textId, String newText) {
         Text text = textRepository.findById(textId)
                 .orElseThrow(() -> new IllegalStateException(
@@ -123,21 +160,22 @@ public class TextService {
         if (newText != null && !newText.isEmpty()) {
             text.setTextToTranslate(newText);
         }
-        textCache.put(new CacheKey(textId), text);
+        FetchPlan.initialize(text);
+        textCache.put(CacheKey.id(textId), text);
         return textRepository.save(text);
     }
 
     /**
      * Deletes a text by its ID.
-     * Removes the text from the cache.
+     * The cached copies are evicted by CacheInvalidationListener once the deletion commits.
      * Removes associations with translations and languages.
      *
      * @param textId The ID of the text to delete.
      * @return A string indicating the success of the deletion.
      */
     @RequestCounterAnnotation
+    @Transactional
     public String deleteText(Long textId) {
-    	textCache.remove(new CacheKey(textId));
     	Text text = textRepository.findById(textId)
                    .orElseThrow(() -> new IllegalStateException(
                    "Text with Id: " + textId + " doesn't exist!"));
@@ -145,7 +183,7 @@ public class TextService {
     	for (Translation translation : translationsList) {
     		translation.setText(null);
     	}
-    	List<Language> languagesList = text.getLanguages();
+    	Set<Language> languagesList = text.getLanguages();
     	for (Language language : languagesList) {
     		language.setTexts(null);
     	}
@@ -166,7 +204,7 @@ public class TextService {
     @RequestCounterAnnotation
     public List<String> bulkSaveText(List<Text> texts) {
        textRepository.saveAll(texts);
-       texts.forEach(text -> textCache.put(new CacheKey(text.getId()), text));
+       texts.forEach(text -> textCache.put(CacheKey.id(text.getId()), text));
        return texts.stream()
                .map(Text::getTextToTranslate)
                .map(textToTranslate -> textToTranslate + " - created")
@@ -0,0 +1,113 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.aspect.RequestCounterAnnotation;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * The TextUpsertService class saves a text with its translations and languages in one
+ * transaction, whether the text exists or not.
+ * Each kind of row is written by a single INSERT ... ON CONFLICT DO NOTHING: the text, all
+ * missing languages, all missing translations and all missing links. So the number of
+ * statements doesn't grow with the request, and saving the same text twice, even concurrently,
+ * adds nothing the second time. The statements bypass the entity listeners, so the saved text
+ * is reported to {@link CacheInvalidationListener} by hand.
+ * Texts are unique by their {@link ContentHash}; a text whose hash belongs to another
+ * content is not saved.
+ */
+@Service
+public class TextUpsertService {
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final LanguageRepository languageRepository;
+    private final CacheInvalidationListener cacheInvalidationListener;
+
+    /**
+     * constructor with the repositories and the cache invalidation listener.
+     */
+    public TextUpsertService(TextRepository textRepository,
+                             TranslationRepository translationRepository,
+                             LanguageRepository languageRepository,
+                             CacheInvalidationListener cacheInvalidationListener) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.languageRepository = languageRepository;
+        this.cacheInvalidationListener = cacheInvalidationListener;
+    }
+
+    /**
+     * Saves a text, adding the translations and languages it doesn't have yet.
+     * Languages are matched by name and created when missing.
+     *
+     * @param request The text with the translations and languages to add.
+     * @return The saved text with all its translations and languages.
+     */
+    @RequestCounterAnnotation
+    @Transactional
+    public Text upsert(Text request) {
+        if (request == null || request.getTextToTranslate() == null
+                || request.getTextToTranslate().isBlank()) {
+            throw new IllegalArgumentException("Text cannot be blank");
+        }
+        String content = request.getTextToTranslate();
+        long contentHash = ContentHash.of(content);
+        textRepository.insertIfAbsent(content, contentHash);
+
+        List<String> translatedTexts = translatedTexts(request);
+        if (!translatedTexts.isEmpty()) {
+            Long[] translationHashes = translatedTexts.stream().map(ContentHash::of).toArray(Long[]::new);
+            translationRepository.insertMissing(content, contentHash,
+                    translatedTexts.toArray(String[]::new), translationHashes);
+        }
+        Set<String> names = languageNames(request);
+        if (!names.isEmpty()) {
+            languageRepository.insertMissing(names.toArray(String[]::new));
+            textRepository.insertLanguageLinks(content, contentHash, names);
+        }
+
+        // the insert skips a text with the same content hash, whose content may differ
+        Text text = textRepository.findGraphByTextToTranslate(content)
+                .orElseThrow(() -> new IllegalStateException(
+                        "Another text has the content hash " + contentHash));
+        cacheInvalidationListener.onEntityChange(text);
+        return text;
+    }
+
+    private static List<String> translatedTexts(Text request) {
+        Set<String> translatedTexts = new LinkedHashSet<>();
+        if (request.getTranslations() != null) {
+            for (Translation translation : request.getTranslations()) {
+                if (translation != null && translation.getTranslatedText() != null
+                        && !translation.getTranslatedText().isBlank()) {
+                    translatedTexts.add(translation.getTranslatedText());
+                }
+            }
+        }
+        return new ArrayList<>(translatedTexts);
+    }
+
+    private static Set<String> languageNames(Text request) {
+        Set<String> names = new LinkedHashSet<>();
+        if (request.getLanguages() != null) {
+            for (Language language : request.getLanguages()) {
+                if (language != null && language.getName() != null && !language.getName().isBlank()) {
+                    names.add(language.getName());
+                }
+            }
+        }
+        return names;
+    }
+}
@@ -0,0 +1,180 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.aspect.RequestCounterAnnotation;
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.TranslationCell;
+import com.translate.webtranslator.dto.TranslationMatrix;
+import com.translate.webtranslator.dto.TranslationMatrixRequest;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+/**
+ * The TranslationMatrixService class looks up the translations of many texts into many
+ * languages in one call, so a client rendering a localized page doesn't need a request per
+ * string. Texts are resolved from the text cache first; the ones not cached are loaded
+ * CHUNK_SIZE at a time with one query selecting only their id and content. The translations
+ * of all texts into all languages are then loaded with one query per chunk of texts.
+ * The number of statements depends on the size of the request, never on single items.
+ */
+@Service
+public class TranslationMatrixService {
+
+    public static final int MAX_TEXTS = 10_000;
+    public static final int MAX_LANGUAGES = 100;
+
+    private static final int CHUNK_SIZE = 500;
+
+    private final TextRepository textRepository;
+    private final TranslationRepository translationRepository;
+    private final LanguageRepository languageRepository;
+    private final InMemoryCache textCache;
+
+    /**
+     * constructor with the repositories and the text cache.
+     */
+    public TranslationMatrixService(TextRepository textRepository,
+                                    TranslationRepository translationRepository,
+                                    LanguageRepository languageRepository,
+                                    @Qualifier(CacheConfig.TEXT_CACHE) InMemoryCache textCache) {
+        this.textRepository = textRepository;
+        this.translationRepository = translationRepository;
+        this.languageRepository = languageRepository;
+        this.textCache = textCache;
+    }
+
+    /**
+     * Looks up the translations of texts into languages. Texts that don't exist get a row
+     * without id, languages that don't exist a column without translations.
+     *
+     * @param request The ids and contents of the texts, and the names of the languages.
+     * @return A row per text with its translation into every language.
+     */
+    @RequestCounterAnnotation
+    public TranslationMatrix getMatrix(TranslationMatrixRequest request) {
+        List<Long> ids = request.ids() == null ? List.of()
+                : request.ids().stream().filter(id -> id != null).toList();
+        List<String> contents = request.texts() == null ? List.of()
+                : request.texts().stream().filter(content -> content != null).toList();
+        List<String> languages = languageNames(request.languages());
+        if (ids.size() + contents.size() > MAX_TEXTS) {
+            throw new IllegalArgumentException("At most " + MAX_TEXTS + " texts can be requested at once");
+        }
+        if (languages.size() > MAX_LANGUAGES) {
+            throw new IllegalArgumentException("At most " + MAX_LANGUAGES
+                    + " languages can be requested at once");
+        }
+
+        Map<Long, String> contentById = new HashMap<>();
+        Map<String, Long> idByContent = new HashMap<>();
+        Consumer<Text> found = text -> {
+            contentById.put(text.getId(), text.getTextToTranslate());
+            idByContent.put(text.getTextToTranslate(), text.getId());
+        };
+        Set<Long> uncachedIds = new LinkedHashSet<>();
+        for (Long id : ids) {
+            if (!contentById.containsKey(id)) {
+                Text text = cached(CacheKey.id(id));
+                if (text != null) {
+                    found.accept(text);
+                } else {
+                    uncachedIds.add(id);
+                }
+            }
+        }
+        Set<String> uncachedContents = new LinkedHashSet<>();
+        for (String content : contents) {
+            if (!idByContent.containsKey(content)) {
+                Text text = cached(CacheKey.content(content));
+                if (text != null) {
+                    found.accept(text);
+                } else {
+                    uncachedContents.add(content);
+                }
+            }
+        }
+        forEachChunk(new ArrayList<>(uncachedIds), textRepository::findSummariesByIdIn, summary -> {
+            contentById.put(summary.id(), summary.textToTranslate());
+            idByContent.put(summary.textToTranslate(), summary.id());
+        });
+        forEachChunk(new ArrayList<>(uncachedContents), chunk -> textRepository.findSummariesByContentHashIn(
+                chunk.stream().map(ContentHash::of).toList()), summary -> {
+                    // a text sharing the hash of another content is not requested
+                    if (uncachedContents.contains(summary.textToTranslate())) {
+                        contentById.put(summary.id(), summary.textToTranslate());
+                        idByContent.put(summary.textToTranslate(), summary.id());
+                    }
+                });
+
+        Map<Long, Map<String, String>> translations = new HashMap<>();
+        List<Long> languageIds = languages.isEmpty() ? List.of()
+                : languageRepository.findAllByNameIn(languages).stream().map(Language::getId).toList();
+        if (!languageIds.isEmpty()) {
+            forEachChunk(new ArrayList<>(contentById.keySet()),
+                    chunk -> translationRepository.findMachineTranslations(chunk, languageIds),
+                    (TranslationCell cell) -> translations
+                            .computeIfAbsent(cell.getTextId(), key -> new HashMap<>())
+                            .put(cell.getLanguage(), cell.getTranslatedText()));
+        }
+
+        List<TranslationMatrix.Row> rows = new ArrayList<>(ids.size() + contents.size());
+        for (Long id : ids) {
+            rows.add(row(contentById.containsKey(id) ? id : null, contentById.get(id), languages,
+                    translations));
+        }
+        for (String content : contents) {
+            rows.add(row(idByContent.get(content), content, languages, translations));
+        }
+        return new TranslationMatrix(languages, rows);
+    }
+
+    private Text cached(CacheKey key) {
+        return textCache.get(key) instanceof Text text ? text : null;
+    }
+
+    private static TranslationMatrix.Row row(Long textId, String content, List<String> languages,
+                                             Map<Long, Map<String, String>> translations) {
+        Map<String, String> textTranslations = textId == null ? Map.of()
+                : translations.getOrDefault(textId, Map.of());
+        Map<String, String> cells = new LinkedHashMap<>();
+        for (String language : languages) {
+            cells.put(language, textTranslations.get(language));
+        }
+        return new TranslationMatrix.Row(textId, content, cells);
+    }
+
+    private static List<String> languageNames(List<String> requested) {
+        Set<String> names = new LinkedHashSet<>();
+        if (requested != null) {
+            for (String name : requested) {
+                if (name != null && !name.isBlank()) {
+                    names.add(name);
+                }
+            }
+        }
+        return new ArrayList<>(names);
+    }
+
+    private static <K, T> void forEachChunk(List<K> keys, Function<List<K>, List<T>> query,
+                                            Consumer<T> action) {
+        for (int from = 0; from < keys.size(); from += CHUNK_SIZE) {
+            query.apply(keys.subList(from, Math.min(keys.size(), from + CHUNK_SIZE))).forEach(action);
+        }
+    }
+}
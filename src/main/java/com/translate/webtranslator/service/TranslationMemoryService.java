@@ -0,0 +1,192 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.aspect.RequestCounterAnnotation;
+import com.translate.webtranslator.cache.CacheInvalidationEvent;
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.IdKey;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.FuzzyMatch;
+import com.translate.webtranslator.dto.IdAndValue;
+import com.translate.webtranslator.dto.TextSummary;
+import com.translate.webtranslator.repository.TextRepository;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * The TranslationMemoryService class finds existing texts similar to a new one, so a text
+ * that differs by a word from a translated one doesn't have to be translated from scratch.
+ * The contents of all texts are held in a {@link TrigramIndex}, built on startup by streaming
+ * the texts table. Texts changed on this node arrive as committed CacheInvalidationEvents;
+ * their ids are queued and reloaded every translation-memory.refresh-interval with one query.
+ * Changes made on other nodes are picked up by the full rebuild every
+ * translation-memory.rebuild-interval.
+ */
+@Service
+public class TranslationMemoryService implements ApplicationRunner {
+
+    public static final int MAX_LIMIT = 100;
+
+    private static final Logger logger = LoggerFactory.getLogger(TranslationMemoryService.class);
+    private static final int REFRESH_BATCH_SIZE = 1000;
+
+    private final TextRepository textRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Set<Long> pending = ConcurrentHashMap.newKeySet();
+    private volatile TrigramIndex index = new TrigramIndex();
+    // The ids changed while a rebuild streams the table, null when no rebuild runs.
+    private volatile Set<Long> changedDuringRebuild;
+
+    /**
+     * constructor with the text repository and the transaction manager.
+     */
+    public TranslationMemoryService(TextRepository textRepository,
+                                    PlatformTransactionManager transactionManager) {
+        this.textRepository = textRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        try {
+            rebuild();
+        } catch (RuntimeException e) {
+            logger.warn("Failed to build the fuzzy search index, retrying with the next rebuild", e);
+        }
+    }
+
+    /**
+     * Finds the texts most similar to a query.
+     *
+     * @param query The text to compare with.
+     * @param limit The maximum number of matches, at most {@link #MAX_LIMIT}.
+     * @param minScore The minimum score of a match, from 0 to 1.
+     * @return The matches, best first.
+     */
+    @RequestCounterAnnotation
+    public List<FuzzyMatch> findSimilar(String query, int limit, double minScore) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Query cannot be blank");
+        }
+        if (minScore < 0 || minScore > 1) {
+            throw new IllegalArgumentException("minScore must be between 0 and 1");
+        }
+        List<TrigramIndex.Match> matches = index.search(query, Math.max(1, Math.min(limit, MAX_LIMIT)),
+                minScore);
+        if (matches.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, String> contents = new HashMap<>();
+        for (TextSummary text : textRepository.findSummariesByIdIn(
+                matches.stream().map(TrigramIndex.Match::id).toList())) {
+            contents.put(text.id(), text.textToTranslate());
+        }
+        List<FuzzyMatch> result = new ArrayList<>(matches.size());
+        for (TrigramIndex.Match match : matches) {
+            String content = contents.get(match.id());
+            if (content != null) {
+                result.add(new FuzzyMatch(match.id(), content, match.score()));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Queues the texts of a committed change for reindexing.
+     *
+     * @param event The keys made stale by an entity change.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onInvalidation(CacheInvalidationEvent event) {
+        Set<CacheKey> keys = event.keys().get(CacheConfig.TEXT_CACHE);
+        if (keys == null) {
+            return;
+        }
+        for (CacheKey key : keys) {
+            if (key instanceof IdKey idKey) {
+                pending.add(idKey.getId());
+            }
+        }
+    }
+
+    /**
+     * Reindexes the queued texts: texts that still exist with their current content,
+     * deleted ones are removed.
+     */
+    @Scheduled(fixedDelayString = "${translation-memory.refresh-interval:PT1S}")
+    public void refresh() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> ids = new ArrayList<>(pending);
+        pending.removeAll(ids);
+        Set<Long> changed = changedDuringRebuild;
+        if (changed != null) {
+            changed.addAll(ids);
+        }
+        try {
+            reindex(index, ids);
+        } catch (RuntimeException e) {
+            logger.warn("Failed to reindex {} texts, will retry", ids.size(), e);
+            pending.addAll(ids);
+        }
+    }
+
+    /**
+     * Builds a new index from the texts table and swaps it in.
+     */
+    @Scheduled(initialDelayString = "${translation-memory.rebuild-interval:PT1H}",
+               fixedDelayString = "${translation-memory.rebuild-interval:PT1H}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        TrigramIndex fresh = new TrigramIndex();
+        Set<Long> changed = ConcurrentHashMap.newKeySet();
+        changedDuringRebuild = changed;
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                try (Stream<IdAndValue> texts = textRepository.streamTextsForExport()) {
+                    texts.forEach(text -> {
+                        // a text reindexed meanwhile is newer than the streamed row
+                        if (!changed.contains(text.id())) {
+                            fresh.put(text.id(), text.value());
+                        }
+                    });
+                }
+            });
+            index = fresh;
+        } finally {
+            changedDuringRebuild = null;
+        }
+        reindex(fresh, new ArrayList<>(changed));
+        logger.info("Indexed {} texts for fuzzy search in {} ms", fresh.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void reindex(TrigramIndex target, List<Long> ids) {
+        for (int from = 0; from < ids.size(); from += REFRESH_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(ids.size(), from + REFRESH_BATCH_SIZE));
+            Set<Long> missing = new HashSet<>(batch);
+            for (TextSummary text : textRepository.findSummariesByIdIn(batch)) {
+                target.put(text.id(), text.textToTranslate());
+                missing.remove(text.id());
+            }
+            missing.forEach(target::remove);
+        }
+    }
+}
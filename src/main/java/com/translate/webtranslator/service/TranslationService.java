@@ -2,19 +2,28 @@ package com.translate.webtranslator.service;
 
 import com.translate.webtranslator.aspect.RequestCounterAnnotation;
 import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.IdKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TranslationSummary;
 import com.translate.webtranslator.model.Text;
 import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.FetchPlan;
 import com.translate.webtranslator.repository.TextRepository;
 import com.translate.webtranslator.repository.TranslationRepository;
 import java.util.List;
+import java.util.function.Function;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * The TranslationService class provides business logic operations for the Translation entity
@@ -26,11 +35,13 @@ public class TranslationService {
     private TranslationRepository translationRepository;
     private TextRepository textRepository;
     private InMemoryCache translationCache;
+    // Built once, so a cache hit on getById doesn't allocate a capturing lambda.
+    private final Function<CacheKey, Object> translationLoader =
+            key -> translationRepository.findGraphById(((IdKey) key).getId()).orElse(null);
 
     /**
      * constructor with params.
      */
-    @Autowired
     public TranslationService(TranslationRepository translationRepository,
     		                  TextRepository textRepository) {
         this.translationRepository = translationRepository;
@@ -38,18 +49,84 @@ public class TranslationService {
         this.translationCache = new InMemoryCache();
     }
 
+    /**
+     * constructor with params and the translation cache bean.
+     */
+    @Autowired
     public TranslationService(TranslationRepository translationRepository, TextRepository textRepository,
-			InMemoryCache translationCache) {
+			@Qualifier(CacheConfig.TRANSLATION_CACHE) InMemoryCache translationCache) {
 		this.textRepository = textRepository;
 		this.translationRepository = translationRepository;
 		this.translationCache = translationCache;
 	}
 
     @RequestCounterAnnotation
-    public Page<Translation> getTranslationsWithPagination(int page, int size) {
-        Pageable pageable = PageRequest.of(page - 1, size, Sort.by("translatedText").ascending());
+    public Page<TranslationSummary> getTranslationsWithPagination(int page, int size) {
+        Pageable pageable = PageRequest.of(page - 1, size);
         return translationRepository.findAllTranslatiosWithPagination(pageable);
     }
+
+    /**
+     * Retrieves a page of translations ordered by translated text, without counting all
+     * translations.
+     *
+     * @param page The number of the page, starting at 1.
+     * @param size The size of the page.
+     * @return The page, which only knows whether a next page exists.
+     */
+    @RequestCounterAnnotation
+    public Slice<TranslationSummary> getTranslationsSlice(int page, int size) {
+        return translationRepository.findAllAsSlice(PageRequest.of(page - 1, size));
+    }
+
+    /**
+     * Retrieves the page of translations that follows a page token, ordered by the start of
+     * the translated text and id. The query seeks the index on (left(translated_text, 100), id)
+     * instead of skipping rows.
+     *
+     * @param token The token of the previous page, or null for the first page.
+     * @param size The size of the page.
+     * @return The page with the token of the next one.
+     */
+    @RequestCounterAnnotation
+    public KeysetPage<TranslationSummary> getTranslationsAfter(String token, int size) {
+        int pageSize = Math.max(1, size);
+        List<TranslationSummary> translations;
+        if (token == null || token.isEmpty()) {
+            translations = translationRepository.findFirstKeysetPage(KeysetToken.limitFor(pageSize));
+        } else {
+            KeysetToken after = KeysetToken.decode(token);
+            translations = translationRepository.findKeysetPageAfter(after.sortKey(), after.id(),
+                    KeysetToken.limitFor(pageSize));
+        }
+        return KeysetToken.pageOf(translations, pageSize,
+                translation -> KeysetToken.sortKeyOf(translation.translatedText()),
+                TranslationSummary::id);
+    }
+
+    /**
+     * Searches translations by the words they contain, most relevant first. Every entered word
+     * must occur, the last one may be unfinished. English words also match their other forms.
+     *
+     * @param query The words to search for.
+     * @param token The token of the previous page, or null for the first page.
+     * @param size The size of the page.
+     * @return The page with the token of the next one.
+     */
+    @RequestCounterAnnotation
+    public KeysetPage<SearchHit> searchTranslations(String query, String token, int size) {
+        String tsQuery = FullTextQuery.prefixQuery(query);
+        int pageSize = Math.max(1, size);
+        List<SearchHit> hits;
+        if (token == null || token.isEmpty()) {
+            hits = translationRepository.searchFirstPage(tsQuery, pageSize + 1);
+        } else {
+            KeysetToken after = KeysetToken.decode(token);
+            hits = translationRepository.searchPageAfter(tsQuery, FullTextQuery.rankOf(after), after.id(),
+                    pageSize + 1);
+        }
+        return FullTextQuery.pageOf(hits, pageSize);
+    }
     
     /**
      * Saves a new translation.
@@ -64,25 +141,28 @@ public class TranslationService {
           if (newTranslation.getText() != null) {
               textRepository.save(newTranslation.getText());
           }
-          translationRepository.save(newTranslation);
-          translationCache.put(new CacheKey(newTranslation.getId()), newTranslation);
-          return newTranslation;
+          Translation savedTranslation = translationRepository.save(newTranslation);
+          if (savedTranslation.getId() != null) {
+              translationCache.put(CacheKey.id(savedTranslation.getId()), savedTranslation);
+          }
+          return savedTranslation;
     }
     
     /**
      * Deletes a translation by its ID.
-     * Removes the translation from the cache.
+     * The cached copies are evicted by CacheInvalidationListener once the deletion commits.
      *
      * @param translationId The ID of the translation to delete.
      * @return A string indicating the success of the deletion.
      */
     @RequestCounterAnnotation
+    @Transactional
     public Translation deleteTranslation(Long translationId) {
     	Translation translation = translationRepository.findById(translationId)
                 .orElseThrow(() -> new IllegalStateException(
                 "Translation with Id: " + translationId + " doesn't exist!"));
+        FetchPlan.initialize(translation);
         translationRepository.deleteById(translationId);
-        translationCache.remove(new CacheKey(translationId));
         return translation;
     }
     
@@ -94,6 +174,7 @@ public class TranslationService {
      * @return The updated translation.
      */
     @RequestCounterAnnotation
+    @Transactional
     public Translation setNewText(Long transaltionId, Long newTextId) {
         Translation translation = translationRepository.findById(transaltionId)
         		.orElseThrow(() -> new IllegalStateException(
@@ -103,41 +184,42 @@ public class TranslationService {
         		"text with id: " + newTextId + " doesnt exist"));
         translation.setText(text);
         Translation updatedTranslation = translationRepository.save(translation);
-        translationCache.put(new CacheKey(updatedTranslation.getId()), updatedTranslation);
+        FetchPlan.initialize(updatedTranslation);
+        translationCache.put(CacheKey.id(updatedTranslation.getId()), updatedTranslation);
         return updatedTranslation;
     }
 
     /**
      * Retrieves a translation by its ID.
-     * Caches the translation object for future retrievals.
+     * Caches the translation object for future retrievals; concurrent misses share one
+     * database load.
      *
      * @return The translation with the specified ID, or null if not found.
      */
     @RequestCounterAnnotation
     public Translation getById(Long translationid) {
-    	Translation cachedTranslation = (Translation) translationCache.get(
-    			                                   new CacheKey(translationid));
-        if (cachedTranslation != null) {
-            return cachedTranslation;
-        } else {
-            Translation translation = translationRepository.findById(translationid).orElse(null);
-            if (translation != null) {
-                translationCache.put(new CacheKey(translationid), translation);
-            }
-            return translation;
-        }
+        return (Translation) translationCache.get(CacheKey.id(translationid), translationLoader);
     }
     
+    /**
+     * Retrieves a translation by its translated text.
+     * Caches the translation object for future retrievals. A translated text that doesn't
+     * exist is remembered as well, until a translation with that text is saved.
+     *
+     * @param translation The translated text to look for.
+     * @return The translation with the specified text, or null if not found.
+     */
     @RequestCounterAnnotation
     public Translation getTranslationByTranslation(String translation) {
-        return translationRepository.findByTranslatedText(translation).orElse(null);
+        return (Translation) translationCache.get(CacheKey.content(translation),
+                key -> translationRepository.findGraphByTranslatedText(translation).orElse(null));
     }
     
     @RequestCounterAnnotation
     public List<String> bulkSaveTranslation(List<Translation> translations) {
     	translationRepository.saveAll(translations);
     	translations.forEach(translation -> translationCache
-    			.put(new CacheKey(translation.getId()), translation));
+    			.put(CacheKey.id(translation.getId()), translation));
         return translations.stream()
                 .map(Translation::getTranslatedText)
                 .map(translatedText -> translatedText + " - created")
@@ -0,0 +1,368 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.cache.LongLongHashMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * The TrigramIndex class finds the texts most similar to a query by the character trigrams
+ * they share. Trigrams are taken like pg_trgm does: lower case, words of letters and digits,
+ * each padded with two spaces in front and one behind. The score is the number of shared
+ * trigrams divided by the number of distinct trigrams of both, from 0 to 1.
+ * Every text gets an ordinal, and every trigram a posting list of the ordinals that contain it,
+ * kept as a sorted int array. A search only counts the rarest posting lists: a text missing
+ * from all of them can't share enough trigrams to reach the minimum score. The candidates are
+ * counted in a hash table sized to the postings read, then checked against the other lists by
+ * binary search, skipping those that can't reach the minimum score, or the score of the k-th
+ * best match once k are found, given their size.
+ * Removed texts stay in the posting lists until they outnumber the live ones, then the lists
+ * are compacted. Searches share a read lock, changes take the write lock.
+ */
+public final class TrigramIndex {
+
+    /**
+     * A text id with its score.
+     */
+    public record Match(long id, double score) {
+    }
+
+    private static final int INITIAL_CAPACITY = 1024;
+    private static final int MIN_COMPACTION = 1024;
+    private static final Comparator<Match> WORST_FIRST = Comparator.comparingDouble(Match::score)
+            .thenComparing(Comparator.comparingLong(Match::id).reversed());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final LongLongHashMap ordinals = new LongLongHashMap(INITIAL_CAPACITY);
+    private final LongLongHashMap postingNumbers = new LongLongHashMap(INITIAL_CAPACITY);
+    // By ordinal: the text id and its number of distinct trigrams, 0 once it is removed.
+    private long[] ids = new long[INITIAL_CAPACITY];
+    private int[] trigramCounts = new int[INITIAL_CAPACITY];
+    private int nextOrdinal;
+    private int removed;
+    // By posting number: the ordinals containing the trigram, ascending.
+    private int[][] postings = new int[INITIAL_CAPACITY][];
+    private int[] postingSizes = new int[INITIAL_CAPACITY];
+    private int postingCount;
+
+    /**
+     * Indexes the content of a text, replacing the content indexed for it before.
+     *
+     * @param id The id of the text.
+     * @param content The content of the text.
+     */
+    public void put(long id, String content) {
+        long[] trigrams = trigrams(content);
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(id);
+            if (trigrams.length == 0) {
+                return;
+            }
+            int ordinal = nextOrdinal++;
+            if (ordinal == ids.length) {
+                ids = Arrays.copyOf(ids, ordinal * 2);
+                trigramCounts = Arrays.copyOf(trigramCounts, ordinal * 2);
+            }
+            ids[ordinal] = id;
+            trigramCounts[ordinal] = trigrams.length;
+            ordinals.put(id, ordinal);
+            for (long trigram : trigrams) {
+                append(postingNumber(trigram), ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Removes a text from the index.
+     *
+     * @param id The id of the text.
+     */
+    public void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeOrdinal(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns the number of indexed texts.
+     */
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return nextOrdinal - removed;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the texts most similar to a query.
+     *
+     * @param query The text to compare with.
+     * @param limit The maximum number of matches.
+     * @param minScore The minimum score of a match, from 0 to 1.
+     * @return The matches, best first, ties by ascending id.
+     */
+    public List<Match> search(String query, int limit, double minScore) {
+        long[] trigrams = trigrams(query);
+        if (trigrams.length == 0 || limit <= 0) {
+            return List.of();
+        }
+        // score >= minScore needs at least this many shared trigrams, whatever the text
+        int minShared = Math.max(1, (int) Math.ceil(minScore * trigrams.length - 1e-9));
+        if (minShared > trigrams.length) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            int[] lists = new int[trigrams.length];
+            int found = 0;
+            for (long trigram : trigrams) {
+                long number = postingNumbers.get(trigram);
+                if (number != LongLongHashMap.MISSING) {
+                    lists[found++] = (int) number;
+                }
+            }
+            lists = sortBySize(Arrays.copyOf(lists, found));
+            // The trigrams nobody has are the rarest, so they open the prefix.
+            int prefixLength = trigrams.length - minShared + 1 - (trigrams.length - found);
+            if (prefixLength <= 0) {
+                return List.of();
+            }
+            return collect(lists, prefixLength, trigrams.length, limit, minScore, minShared);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private List<Match> collect(int[] lists, int prefixLength, int queryTrigrams, int limit,
+                                double minScore, int minShared) {
+        long scanned = 0;
+        for (int i = 0; i < prefixLength; i++) {
+            scanned += postingSizes[lists[i]];
+        }
+        Counts counts = new Counts((int) Math.min(scanned, nextOrdinal));
+        for (int i = 0; i < prefixLength; i++) {
+            int[] posting = postings[lists[i]];
+            for (int j = 0, size = postingSizes[lists[i]]; j < size; j++) {
+                counts.increment(posting[j]);
+            }
+        }
+        PriorityQueue<Match> best = new PriorityQueue<>(limit + 1, WORST_FIRST);
+        double threshold = minScore;
+        for (int c = 0; c < counts.size; c++) {
+            int ordinal = counts.ordinal(c);
+            int shared = counts.count(c);
+            int textTrigrams = trigramCounts[ordinal];
+            if (textTrigrams == 0) {
+                continue;
+            }
+            // shared / (query + text - shared) >= threshold, solved for shared
+            int needed = Math.max(minShared,
+                    (int) Math.ceil(threshold * (queryTrigrams + textTrigrams) / (1 + threshold) - 1e-9));
+            if (needed > textTrigrams) {
+                continue;
+            }
+            for (int i = prefixLength; i < lists.length && shared + lists.length - i >= needed; i++) {
+                if (Arrays.binarySearch(postings[lists[i]], 0, postingSizes[lists[i]], ordinal) >= 0) {
+                    shared++;
+                }
+            }
+            double score = (double) shared / (queryTrigrams + textTrigrams - shared);
+            if (shared >= needed && score >= threshold) {
+                best.add(new Match(ids[ordinal], score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+                if (best.size() == limit) {
+                    // only a text scoring at least the worst of the best can still get in
+                    threshold = Math.max(minScore, best.peek().score());
+                }
+            }
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(WORST_FIRST.reversed());
+        return matches;
+    }
+
+    private int[] sortBySize(int[] lists) {
+        return Arrays.stream(lists).boxed()
+                .sorted(Comparator.comparingInt(number -> postingSizes[number]))
+                .mapToInt(Integer::intValue)
+                .toArray();
+    }
+
+    private void removeOrdinal(long id) {
+        long ordinal = ordinals.remove(id);
+        if (ordinal != LongLongHashMap.MISSING) {
+            trigramCounts[(int) ordinal] = 0;
+            removed++;
+            if (removed >= MIN_COMPACTION && removed > nextOrdinal - removed) {
+                compact();
+            }
+        }
+    }
+
+    /**
+     * Drops removed texts from the posting lists and renumbers the others, keeping their order.
+     */
+    private void compact() {
+        int[] renumbered = new int[nextOrdinal];
+        int live = 0;
+        for (int ordinal = 0; ordinal < nextOrdinal; ordinal++) {
+            if (trigramCounts[ordinal] == 0) {
+                renumbered[ordinal] = -1;
+                continue;
+            }
+            renumbered[ordinal] = live;
+            ids[live] = ids[ordinal];
+            trigramCounts[live] = trigramCounts[ordinal];
+            ordinals.put(ids[live], live);
+            live++;
+        }
+        for (int number = 0; number < postingCount; number++) {
+            int[] posting = postings[number];
+            int size = 0;
+            for (int i = 0; i < postingSizes[number]; i++) {
+                int ordinal = renumbered[posting[i]];
+                if (ordinal >= 0) {
+                    posting[size++] = ordinal;
+                }
+            }
+            postingSizes[number] = size;
+            if (size < posting.length / 4) {
+                postings[number] = Arrays.copyOf(posting, Math.max(4, size * 2));
+            }
+        }
+        Arrays.fill(trigramCounts, live, nextOrdinal, 0);
+        nextOrdinal = live;
+        removed = 0;
+    }
+
+    private int postingNumber(long trigram) {
+        long number = postingNumbers.get(trigram);
+        if (number != LongLongHashMap.MISSING) {
+            return (int) number;
+        }
+        if (postingCount == postings.length) {
+            postings = Arrays.copyOf(postings, postingCount * 2);
+            postingSizes = Arrays.copyOf(postingSizes, postingCount * 2);
+        }
+        postings[postingCount] = new int[4];
+        postingNumbers.put(trigram, postingCount);
+        return postingCount++;
+    }
+
+    private void append(int number, int ordinal) {
+        int size = postingSizes[number];
+        if (size == postings[number].length) {
+            postings[number] = Arrays.copyOf(postings[number], size * 2);
+        }
+        postings[number][size] = ordinal;
+        postingSizes[number] = size + 1;
+    }
+
+    /**
+     * Counts the prefix lists an ordinal appears in, by open addressing over the candidates only,
+     * so a search allocates for the postings it reads rather than for the whole index.
+     * Candidates keep the order they were first seen in.
+     */
+    private static final class Counts {
+
+        // By slot: the candidate number plus one, 0 when the slot is free.
+        private final int[] slots;
+        private final int[] ordinals;
+        private final int[] counts;
+        private int size;
+
+        Counts(int expectedSize) {
+            slots = new int[Integer.highestOneBit(Math.max(8, expectedSize) * 2 - 1) << 1];
+            ordinals = new int[Math.max(1, expectedSize)];
+            counts = new int[ordinals.length];
+        }
+
+        void increment(int ordinal) {
+            int mask = slots.length - 1;
+            int hash = ordinal * 0x9E3779B9;
+            for (int slot = (hash ^ hash >>> 16) & mask; ; slot = (slot + 1) & mask) {
+                int candidate = slots[slot] - 1;
+                if (candidate < 0) {
+                    ordinals[size] = ordinal;
+                    counts[size] = 1;
+                    slots[slot] = ++size;
+                    return;
+                }
+                if (ordinals[candidate] == ordinal) {
+                    counts[candidate]++;
+                    return;
+                }
+            }
+        }
+
+        int ordinal(int candidate) {
+            return ordinals[candidate];
+        }
+
+        int count(int candidate) {
+            return counts[candidate];
+        }
+    }
+
+    /**
+     * Returns the distinct trigrams of a text, ascending. A trigram is its three chars
+     * packed into the low 48 bits of a long.
+     */
+    static long[] trigrams(String text) {
+        if (text == null) {
+            return new long[0];
+        }
+        String normalized = text.toLowerCase(Locale.ROOT);
+        long[] trigrams = new long[normalized.length() * 2 + 4];
+        int count = 0;
+        int start = -1;
+        for (int i = 0; i <= normalized.length(); i++) {
+            boolean wordChar = i < normalized.length()
+                    && Character.isLetterOrDigit(normalized.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                if (count + (i - start) + 2 > trigrams.length) {
+                    trigrams = Arrays.copyOf(trigrams, trigrams.length * 2 + i - start);
+                }
+                count = addWord(normalized, start, i, trigrams, count);
+                start = -1;
+            }
+        }
+        Arrays.sort(trigrams, 0, count);
+        int distinct = 0;
+        for (int i = 0; i < count; i++) {
+            if (distinct == 0 || trigrams[distinct - 1] != trigrams[i]) {
+                trigrams[distinct++] = trigrams[i];
+            }
+        }
+        return Arrays.copyOf(trigrams, distinct);
+    }
+
+    private static int addWord(String text, int start, int end, long[] trigrams, int count) {
+        // "  word " gives "  w", " wo", "wor", "ord", "rd "
+        char first = ' ';
+        char second = ' ';
+        for (int i = start; i <= end; i++) {
+            char third = i < end ? text.charAt(i) : ' ';
+            trigrams[count++] = (long) first << 32 | (long) second << 16 | third;
+            first = second;
+            second = third;
+        }
+        return count;
+    }
+}
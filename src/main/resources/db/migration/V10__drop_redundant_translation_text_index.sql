@@ -0,0 +1,5 @@
+-- Since V8 uq_translation_text_id_language_content_hash starts with text_id, so it serves the
+-- lookups of the translations of a text and the foreign key checks, and the planner prefers it.
+-- The single-column index only costs writes.
+
+DROP INDEX idx_translation_text_id;
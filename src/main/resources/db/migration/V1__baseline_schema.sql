@@ -0,0 +1,36 @@
+-- The schema as Hibernate created it with ddl-auto=update. Every statement is guarded, so
+-- this also applies cleanly to a database that already has these tables.
+
+CREATE TABLE IF NOT EXISTS text (
+    id                BIGINT       NOT NULL PRIMARY KEY,
+    text_to_translate VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS translation (
+    id              BIGINT       NOT NULL PRIMARY KEY,
+    translated_text VARCHAR(255),
+    text_id         BIGINT       REFERENCES text (id)
+);
+
+CREATE TABLE IF NOT EXISTS language (
+    id   BIGINT       NOT NULL PRIMARY KEY,
+    name VARCHAR(255)
+);
+
+CREATE TABLE IF NOT EXISTS text_language (
+    text_id     BIGINT NOT NULL REFERENCES text (id),
+    language_id BIGINT NOT NULL REFERENCES language (id)
+);
+
+CREATE SEQUENCE IF NOT EXISTS text_seq INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS translation_seq INCREMENT BY 100;
+CREATE SEQUENCE IF NOT EXISTS language_seq INCREMENT BY 100;
+
+CREATE INDEX IF NOT EXISTS idx_text_text_to_translate_id ON text (text_to_translate, id);
+CREATE INDEX IF NOT EXISTS idx_translation_translated_text_id ON translation (translated_text, id);
+
+-- Ids used to come from identity columns. Move each sequence past the ids already taken,
+-- so the blocks handed out by the pooled optimizer never collide with existing rows.
+SELECT setval('text_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM text), (SELECT last_value FROM text_seq)));
+SELECT setval('translation_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM translation), (SELECT last_value FROM translation_seq)));
+SELECT setval('language_seq', GREATEST((SELECT COALESCE(MAX(id), 0) FROM language), (SELECT last_value FROM language_seq)));
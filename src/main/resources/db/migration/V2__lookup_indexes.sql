@@ -0,0 +1,34 @@
+-- Texts and languages are looked up by content on every save, and the join table by either
+-- side. Duplicates that slipped in without a constraint are merged into the row with the
+-- lowest id before the unique constraints are added.
+
+CREATE TEMPORARY TABLE text_duplicate ON COMMIT DROP AS
+SELECT id, MIN(id) OVER (PARTITION BY text_to_translate) AS keep_id
+FROM text WHERE text_to_translate IS NOT NULL;
+DELETE FROM text_duplicate WHERE id = keep_id;
+UPDATE translation t SET text_id = d.keep_id FROM text_duplicate d WHERE t.text_id = d.id;
+UPDATE text_language tl SET text_id = d.keep_id FROM text_duplicate d WHERE tl.text_id = d.id;
+DELETE FROM text t USING text_duplicate d WHERE t.id = d.id;
+
+CREATE TEMPORARY TABLE language_duplicate ON COMMIT DROP AS
+SELECT id, MIN(id) OVER (PARTITION BY name) AS keep_id
+FROM language WHERE name IS NOT NULL;
+DELETE FROM language_duplicate WHERE id = keep_id;
+UPDATE text_language tl SET language_id = d.keep_id FROM language_duplicate d WHERE tl.language_id = d.id;
+DELETE FROM language l USING language_duplicate d WHERE l.id = d.id;
+
+DELETE FROM text_language a USING text_language b
+WHERE a.ctid > b.ctid AND a.text_id = b.text_id AND a.language_id = b.language_id;
+
+-- findByTextToTranslate and findByName
+ALTER TABLE text ADD CONSTRAINT uq_text_text_to_translate UNIQUE (text_to_translate);
+ALTER TABLE language ADD CONSTRAINT uq_language_name UNIQUE (name);
+
+-- findByTranslatedText is served by idx_translation_translated_text_id. The same translated
+-- text may belong to several texts, so it is not unique. Translations are also loaded and
+-- deleted by their text.
+CREATE INDEX idx_translation_text_id ON translation (text_id);
+
+-- Languages of a text, and texts of a language
+ALTER TABLE text_language ADD CONSTRAINT pk_text_language PRIMARY KEY (text_id, language_id);
+CREATE INDEX idx_text_language_language_id ON text_language (language_id, text_id);
@@ -0,0 +1,15 @@
+-- Lookups by content go through a fixed-width fingerprint instead of the full text:
+-- the first 8 bytes of the SHA-256 of the UTF-8 content, as computed by ContentHash.
+
+ALTER TABLE text ADD COLUMN content_hash BIGINT;
+ALTER TABLE translation ADD COLUMN content_hash BIGINT;
+
+UPDATE text
+SET content_hash = ('x' || substr(encode(sha256(convert_to(text_to_translate, 'UTF8')), 'hex'), 1, 16))::bit(64)::bigint
+WHERE text_to_translate IS NOT NULL;
+UPDATE translation
+SET content_hash = ('x' || substr(encode(sha256(convert_to(translated_text, 'UTF8')), 'hex'), 1, 16))::bit(64)::bigint
+WHERE translated_text IS NOT NULL;
+
+CREATE INDEX idx_text_content_hash ON text (content_hash);
+CREATE INDEX idx_translation_content_hash ON translation (content_hash);
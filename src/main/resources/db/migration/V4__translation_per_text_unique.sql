@@ -0,0 +1,8 @@
+-- A text has each translation once, so saving the same text again can skip the translations
+-- it already has with INSERT ... ON CONFLICT. Duplicates are merged into the lowest id first.
+
+DELETE FROM translation a USING translation b
+WHERE a.text_id = b.text_id AND a.translated_text = b.translated_text AND a.id > b.id;
+
+ALTER TABLE translation ADD CONSTRAINT uq_translation_text_id_translated_text
+    UNIQUE (text_id, translated_text);
@@ -0,0 +1,13 @@
+-- Full-text search over texts and translations. The vector holds every word twice: stemmed
+-- by the english configuration, so "translations" finds "translation", and as the simple
+-- configuration keeps it, which is what matches words of the other languages.
+
+ALTER TABLE text ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('english', coalesce(text_to_translate, ''))
+        || to_tsvector('simple', coalesce(text_to_translate, ''))) STORED;
+ALTER TABLE translation ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('english', coalesce(translated_text, ''))
+        || to_tsvector('simple', coalesce(translated_text, ''))) STORED;
+
+CREATE INDEX idx_text_search_vector ON text USING GIN (search_vector);
+CREATE INDEX idx_translation_search_vector ON translation USING GIN (search_vector);
@@ -0,0 +1,16 @@
+-- Machine translations know the language they were made for: a text has at most one
+-- per language. Translations entered by hand keep a null language, and a text still has
+-- each of them once. Machine translations of a deleted language go with it.
+
+ALTER TABLE translation ADD COLUMN language_id BIGINT
+    CONSTRAINT fk_translation_language_id REFERENCES language (id) ON DELETE CASCADE;
+
+ALTER TABLE translation DROP CONSTRAINT uq_translation_text_id_translated_text;
+
+CREATE UNIQUE INDEX uq_translation_text_id_language_translated_text
+    ON translation (text_id, COALESCE(language_id, 0), translated_text);
+
+CREATE UNIQUE INDEX uq_translation_text_id_language_id
+    ON translation (text_id, language_id) WHERE language_id IS NOT NULL;
+
+CREATE INDEX idx_translation_language_id ON translation (language_id);
@@ -0,0 +1,41 @@
+-- Long documents are translated sentence by sentence. Every sentence, or segment, is stored
+-- once however many texts contain it, keyed by its ContentHash, together with its
+-- translations. A document that changed in one sentence reuses the translations of all others.
+
+-- Texts and translations may be whole documents. The btree indexes on the full content
+-- still hold each value, so one is limited to about 2.7 kB after compression.
+-- A column a generated column reads can't change its type, so the search vectors of V5
+-- are dropped with their indexes and added again.
+ALTER TABLE text DROP COLUMN search_vector;
+ALTER TABLE translation DROP COLUMN search_vector;
+
+ALTER TABLE text ALTER COLUMN text_to_translate TYPE TEXT;
+ALTER TABLE translation ALTER COLUMN translated_text TYPE TEXT;
+
+ALTER TABLE text ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('english', coalesce(text_to_translate, ''))
+        || to_tsvector('simple', coalesce(text_to_translate, ''))) STORED;
+ALTER TABLE translation ADD COLUMN search_vector tsvector GENERATED ALWAYS AS (
+    to_tsvector('english', coalesce(translated_text, ''))
+        || to_tsvector('simple', coalesce(translated_text, ''))) STORED;
+
+CREATE INDEX idx_text_search_vector ON text USING GIN (search_vector);
+CREATE INDEX idx_translation_search_vector ON translation USING GIN (search_vector);
+
+CREATE SEQUENCE segment_seq;
+
+CREATE TABLE segment (
+    id           BIGINT NOT NULL PRIMARY KEY,
+    content_hash BIGINT NOT NULL,
+    content      TEXT   NOT NULL,
+    CONSTRAINT uq_segment_content_hash UNIQUE (content_hash)
+);
+
+CREATE TABLE segment_translation (
+    segment_id      BIGINT NOT NULL REFERENCES segment (id) ON DELETE CASCADE,
+    language_id     BIGINT NOT NULL REFERENCES language (id) ON DELETE CASCADE,
+    translated_text TEXT   NOT NULL,
+    CONSTRAINT pk_segment_translation PRIMARY KEY (segment_id, language_id)
+);
+
+CREATE INDEX idx_segment_translation_language_id ON segment_translation (language_id);
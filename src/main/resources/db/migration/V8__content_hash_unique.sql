@@ -0,0 +1,17 @@
+-- Since V7 texts and translations may be whole documents, and a btree index entry can't hold
+-- a value over about 2.7 kB. So no index keeps the full content any more: a text is unique by
+-- its ContentHash, and a translation by its text, language and ContentHash. Lookups by content
+-- still compare the full content on the rows with a matching hash, and an upsert whose content
+-- shares the hash of another stored content fails instead of matching it.
+
+ALTER TABLE text DROP CONSTRAINT uq_text_text_to_translate;
+DROP INDEX idx_text_content_hash;
+ALTER TABLE text ADD CONSTRAINT uq_text_content_hash UNIQUE (content_hash);
+
+DROP INDEX uq_translation_text_id_language_translated_text;
+CREATE UNIQUE INDEX uq_translation_text_id_language_content_hash
+    ON translation (text_id, COALESCE(language_id, 0), content_hash);
+
+-- The indexes of the ordered listings on the full content go as well.
+DROP INDEX idx_text_text_to_translate_id;
+DROP INDEX idx_translation_translated_text_id;
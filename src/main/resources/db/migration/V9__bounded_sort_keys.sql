@@ -0,0 +1,7 @@
+-- The ordered listings lost their indexes in V8, because a btree entry can't hold a whole
+-- document. They order by the first 100 characters of the content and the id instead, which
+-- keeps the index entries and the keyset page tokens small. The expressions must match the
+-- listing queries of TextRepository and TranslationRepository.
+
+CREATE INDEX idx_text_sort_key_id ON text (left(text_to_translate, 100), id);
+CREATE INDEX idx_translation_sort_key_id ON translation (left(translated_text, 100), id);
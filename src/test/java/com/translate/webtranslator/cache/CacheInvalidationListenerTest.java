@@ -0,0 +1,120 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+
+@ExtendWith(MockitoExtension.class)
+class CacheInvalidationListenerTest {
+
+	@Mock
+	private ApplicationEventPublisher publisher;
+
+	@Test
+	void shouldInvalidateOldAndNewContentOfUpdatedText() {
+		Text text = text(1L, "old content");
+		text.rememberPersistedState();
+		text.setTextToTranslate("new content");
+		Translation translation = new Translation();
+		translation.setId(2L);
+		translation.setTranslatedText("translation");
+		text.setTranslations(new ArrayList<>(List.of(translation)));
+		Language language = new Language();
+		language.setId(3L);
+		language.setName("English");
+		text.setLanguages(new LinkedHashSet<>(List.of(language)));
+
+		CacheInvalidationEvent event = publish(text);
+
+		assertEquals(Set.of(CacheKey.id(1L), CacheKey.content("old content"), CacheKey.content("new content")),
+				event.keys().get(CacheConfig.TEXT_CACHE));
+		assertEquals(Set.of(CacheKey.id(2L), CacheKey.content("translation")),
+				event.keys().get(CacheConfig.TRANSLATION_CACHE));
+		assertEquals(Set.of(CacheKey.id(3L), CacheKey.content("English")),
+				event.keys().get(CacheConfig.LANGUAGE_CACHE));
+	}
+
+	@Test
+	void shouldInvalidateOldAndNewTextOfMovedTranslation() {
+		Translation translation = new Translation();
+		translation.setId(5L);
+		translation.setTranslatedText("hola");
+		translation.setText(text(1L, "hello"));
+		translation.rememberPersistedState();
+		translation.setText(text(2L, "hi"));
+
+		CacheInvalidationEvent event = publish(translation);
+
+		assertEquals(Set.of(CacheKey.id(1L), CacheKey.content("hello"), CacheKey.id(2L), CacheKey.content("hi")),
+				event.keys().get(CacheConfig.TEXT_CACHE));
+		assertEquals(Set.of(CacheKey.id(5L), CacheKey.content("hola")),
+				event.keys().get(CacheConfig.TRANSLATION_CACHE));
+		assertNull(event.keys().get(CacheConfig.LANGUAGE_CACHE));
+	}
+
+	@Test
+	void shouldInvalidateLanguageByIdAndName() {
+		Language language = new Language();
+		language.setId(3L);
+		language.setName("English");
+		language.rememberPersistedState();
+		language.setTexts(new LinkedHashSet<>(List.of(text(1L, "hello"))));
+
+		CacheInvalidationEvent event = publish(language);
+
+		assertEquals(Set.of(CacheKey.id(3L), CacheKey.content("English")),
+				event.keys().get(CacheConfig.LANGUAGE_CACHE));
+		assertEquals(Set.of(CacheKey.id(1L), CacheKey.content("hello")),
+				event.keys().get(CacheConfig.TEXT_CACHE));
+	}
+
+	@Test
+	void shouldEvictKeysFromNamedCaches() {
+		InMemoryCache textCache = new InMemoryCache(CacheConfig.TEXT_CACHE, new CacheSpec(), Weigher.SINGLETON);
+		InMemoryCache languageCache = new InMemoryCache(CacheConfig.LANGUAGE_CACHE, new CacheSpec(),
+				Weigher.SINGLETON);
+		textCache.put(CacheKey.id(1L), "text");
+		textCache.put(CacheKey.id(2L), "other text");
+		languageCache.put(CacheKey.id(1L), "language");
+		CacheInvalidator invalidator = new CacheInvalidator(List.of(textCache, languageCache));
+
+		invalidator.invalidate(new CacheInvalidationEvent(
+				Map.of(CacheConfig.TEXT_CACHE, Set.of(CacheKey.id(1L)))));
+
+		assertNull(textCache.get(CacheKey.id(1L)));
+		assertEquals("other text", textCache.get(CacheKey.id(2L)));
+		assertEquals("language", languageCache.get(CacheKey.id(1L)));
+	}
+
+	private CacheInvalidationEvent publish(Object entity) {
+		new CacheInvalidationListener(publisher).onEntityChange(entity);
+		ArgumentCaptor<CacheInvalidationEvent> captor = ArgumentCaptor.forClass(CacheInvalidationEvent.class);
+		verify(publisher).publishEvent(captor.capture());
+		return captor.getValue();
+	}
+
+	private static Text text(Long id, String content) {
+		Text text = new Text();
+		text.setId(id);
+		text.setTextToTranslate(content);
+		return text;
+	}
+}
@@ -0,0 +1,52 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.model.ContentHash;
+import org.junit.jupiter.api.io.TempDir;
+
+class CacheSnapshotStoreTest {
+
+	@TempDir
+	Path directory;
+
+	@Test
+	void shouldReadBackWrittenEntries() throws IOException {
+		CacheSnapshotStore store = new CacheSnapshotStore(directory);
+		String longText = "привет ".repeat(20_000);
+		List<CacheSnapshotEntry> entries = List.of(
+				new CacheSnapshotEntry(CacheKey.id(7L), null),
+				new CacheSnapshotEntry(CacheKey.content(longText), "value".getBytes(StandardCharsets.UTF_8)));
+
+		assertEquals(2, store.write("textCache", entries));
+		assertEquals(2, store.write("textCache", entries));
+		assertTrue(Files.size(directory.resolve("textCache.snapshot")) < 100);
+		List<CacheSnapshotEntry> read = store.read("textCache");
+
+		assertEquals(2, read.size());
+		assertEquals(CacheKey.id(7L), read.get(0).key());
+		assertNull(read.get(0).value());
+		assertEquals(CacheKey.contentHash(ContentHash.of(longText)), read.get(1).key());
+		assertArrayEquals("value".getBytes(StandardCharsets.UTF_8), read.get(1).value());
+	}
+
+	@Test
+	void shouldReturnNothingForMissingOrCorruptSnapshots() throws IOException {
+		CacheSnapshotStore store = new CacheSnapshotStore(directory);
+		assertTrue(store.read("textCache").isEmpty());
+
+		Files.write(directory.resolve("textCache.snapshot"), new byte[] {1, 2, 3});
+		assertTrue(store.read("textCache").isEmpty());
+	}
+}
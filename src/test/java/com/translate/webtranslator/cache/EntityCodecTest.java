@@ -0,0 +1,65 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+
+class EntityCodecTest {
+
+	private final EntityCodec codec = new EntityCodec();
+
+	@Test
+	void shouldRoundTripTextGraph() {
+		Text text = new Text();
+		text.setId(1L);
+		text.setTextToTranslate("Привет");
+		Translation translation = new Translation();
+		translation.setId(2L);
+		translation.setTranslatedText("Hello");
+		translation.setText(text);
+		text.setTranslations(new ArrayList<>(List.of(translation)));
+		Language language = new Language();
+		language.setId(3L);
+		language.setName("English");
+		text.setLanguages(new LinkedHashSet<>(List.of(language)));
+
+		Text decoded = (Text) codec.decode(codec.encode(text));
+
+		assertEquals(1L, decoded.getId());
+		assertEquals("Привет", decoded.getTextToTranslate());
+		assertEquals("Привет", decoded.getPersistedTextToTranslate());
+		assertEquals(1, decoded.getTranslations().size());
+		assertEquals("Hello", decoded.getTranslations().get(0).getTranslatedText());
+		assertSame(decoded, decoded.getTranslations().get(0).getText());
+		assertEquals("English", decoded.getLanguages().iterator().next().getName());
+	}
+
+	@Test
+	void shouldRoundTripTranslation() {
+		Translation translation = new Translation();
+		translation.setId(2L);
+		translation.setTranslatedText("Hello");
+
+		Translation decoded = (Translation) codec.decode(codec.encode(translation));
+
+		assertEquals(2L, decoded.getId());
+		assertEquals("Hello", decoded.getTranslatedText());
+		assertNull(decoded.getText());
+	}
+
+	@Test
+	void shouldNotEncodeOtherValues() {
+		assertNull(codec.encode("text"));
+		assertNull(codec.encode(new Language()));
+	}
+}
@@ -0,0 +1,138 @@
+package com.translate.webtranslator.cache;
+
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Contention benchmark comparing the sharded InMemoryCache with the previous
+ * single-monitor FIFO implementation.
+ * Each measurement runs a read-mostly workload (90% get, 10% put) over a fixed key space
+ * for 1 to 64 threads, after warm-up iterations, and prints throughput in ops/s.
+ * Run it with {@code java -cp target/test-classes:target/classes
+ * com.translate.webtranslator.cache.InMemoryCacheBenchmark}.
+ */
+public final class InMemoryCacheBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8, 16, 32, 64};
+    private static final int CACHE_SIZE = 1_000;
+    private static final int KEY_SPACE = 2_000;
+    private static final int WARMUP_ITERATIONS = 2;
+    private static final int MEASUREMENT_ITERATIONS = 3;
+    private static final long ITERATION_MILLIS = 1_000;
+
+    private InMemoryCacheBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CacheKey[] keys = new CacheKey[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            keys[i] = CacheKey.id((long) i);
+        }
+        System.out.printf("%-8s %20s %20s %10s%n", "threads", "synchronized ops/s",
+                "sharded ops/s", "speedup");
+        for (int threads : THREADS) {
+            SynchronizedFifoCache legacy = new SynchronizedFifoCache(CACHE_SIZE);
+            double legacyOps = measure(threads, keys, legacy::get, legacy::put);
+            InMemoryCache sharded = new InMemoryCache(CACHE_SIZE);
+            double shardedOps = measure(threads, keys, sharded::get, sharded::put);
+            System.out.printf("%-8d %20.0f %20.0f %9.2fx%n", threads, legacyOps, shardedOps,
+                    shardedOps / legacyOps);
+        }
+    }
+
+    private static double measure(int threads, CacheKey[] keys, Reader reader, Writer writer)
+            throws InterruptedException {
+        for (CacheKey key : keys) {
+            writer.put(key, key);
+        }
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            runIteration(threads, keys, reader, writer);
+        }
+        double total = 0;
+        for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+            total += runIteration(threads, keys, reader, writer);
+        }
+        return total / MEASUREMENT_ITERATIONS;
+    }
+
+    private static double runIteration(int threads, CacheKey[] keys, Reader reader, Writer writer)
+            throws InterruptedException {
+        LongAdder operations = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            Thread worker = new Thread(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                long ops = 0;
+                try {
+                    start.await();
+                    while (System.nanoTime() < deadline[0]) {
+                        for (int i = 0; i < 64; i++) {
+                            CacheKey key = keys[random.nextInt(keys.length)];
+                            if (random.nextInt(10) == 0) {
+                                writer.put(key, key);
+                            } else {
+                                reader.get(key);
+                            }
+                        }
+                        ops += 64;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    operations.add(ops);
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        deadline[0] = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+        start.countDown();
+        done.await();
+        return operations.sum() * 1_000.0 / ITERATION_MILLIS;
+    }
+
+    @FunctionalInterface
+    private interface Reader {
+        Object get(CacheKey key);
+    }
+
+    @FunctionalInterface
+    private interface Writer {
+        void put(CacheKey key, Object value);
+    }
+
+    /**
+     * Copy of the previous InMemoryCache: one monitor and FIFO eviction through a LinkedList.
+     */
+    private static final class SynchronizedFifoCache {
+
+        private final Map<CacheKey, Object> cacheMap = new HashMap<>();
+        private final Queue<CacheKey> keyQueue = new LinkedList<>();
+        private final int maxSize;
+
+        SynchronizedFifoCache(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        synchronized void put(CacheKey cacheKey, Object value) {
+            if (cacheMap.put(cacheKey, value) == null) {
+                keyQueue.add(cacheKey);
+                if (cacheMap.size() > maxSize) {
+                    cacheMap.remove(keyQueue.poll());
+                }
+            }
+        }
+
+        synchronized Object get(CacheKey cacheKey) {
+            return cacheMap.get(cacheKey);
+        }
+    }
+}
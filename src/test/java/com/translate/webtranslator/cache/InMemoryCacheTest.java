@@ -0,0 +1,397 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+class InMemoryCacheTest {
+
+	@Test
+	void shouldReturnStoredValue() {
+		InMemoryCache cache = new InMemoryCache(10);
+		cache.put(CacheKey.id(1L), "one");
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		assertNull(cache.get(CacheKey.id(2L)));
+	}
+
+	@Test
+	void shouldUpdateValueWithoutGrowing() {
+		InMemoryCache cache = new InMemoryCache(10);
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.id(1L), "uno");
+		assertEquals("uno", cache.get(CacheKey.id(1L)));
+		assertEquals(1, cache.getSize());
+	}
+
+	@Test
+	void shouldEvictLeastRecentlyUsedEntry() {
+		InMemoryCache cache = new InMemoryCache(3, 1);
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.id(2L), "two");
+		cache.put(CacheKey.id(3L), "three");
+		cache.get(CacheKey.id(1L));
+		cache.put(CacheKey.id(4L), "four");
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		assertNull(cache.get(CacheKey.id(2L)));
+		assertEquals(3, cache.getSize());
+	}
+
+	@Test
+	void shouldRemoveAndClearEntries() {
+		InMemoryCache cache = new InMemoryCache(10);
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.content("text"), "two");
+		cache.remove(CacheKey.id(1L));
+		assertNull(cache.get(CacheKey.id(1L)));
+		assertEquals(1, cache.getSize());
+		cache.clear();
+		assertEquals(0, cache.getSize());
+		cache.put(CacheKey.id(1L), "again");
+		assertEquals("again", cache.get(CacheKey.id(1L)));
+	}
+
+	@Test
+	void shouldMatchContentKeysKnownOnlyByFingerprint() {
+		InMemoryCache cache = new InMemoryCache(10, 1);
+		cache.put(CacheKey.content("a", 1L), "a");
+		assertNull(cache.get(CacheKey.content("b", 1L)));
+		assertEquals("a", cache.get(CacheKey.contentHash(1L)));
+		cache.put(CacheKey.content("b", 1L), "b");
+		assertNull(cache.get(CacheKey.content("a", 1L)));
+		assertEquals(1, cache.getSize());
+		cache.remove(CacheKey.contentHash(1L));
+		assertNull(cache.get(CacheKey.content("b", 1L)));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void shouldKeepIdAndContentKeysApart() {
+		InMemoryCache cache = new InMemoryCache(10);
+		cache.put(CacheKey.id(5L), "by id");
+		cache.put(CacheKey.content("5"), "by content");
+		assertEquals("by id", cache.get(CacheKey.id(5L)));
+		assertEquals("by content", cache.get(CacheKey.content("5")));
+		assertSame(CacheKey.id(5L), CacheKey.id(5L));
+		cache.remove(CacheKey.id(5L));
+		assertNull(cache.get(CacheKey.id(5L)));
+		assertEquals(1, cache.getSize());
+	}
+
+	@Test
+	void shouldSplitCapacityAcrossShards() {
+		InMemoryCache cache = new InMemoryCache(5, 16);
+		assertEquals(4, cache.getShardCount());
+		for (long i = 0; i < 100; i++) {
+			cache.put(CacheKey.id(i), i);
+		}
+		assertTrue(cache.getSize() <= 5);
+	}
+
+	@Test
+	void shouldRejectNonPositiveSize() {
+		assertThrows(IllegalArgumentException.class, () -> new InMemoryCache(0));
+	}
+
+	@Test
+	void shouldStayBoundedUnderConcurrentWrites() throws Exception {
+		InMemoryCache cache = new InMemoryCache(64, 8);
+		ExecutorService executor = Executors.newFixedThreadPool(8);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < 8; t++) {
+			final long offset = t * 10_000L;
+			futures.add(executor.submit(() -> {
+				for (long i = 0; i < 10_000; i++) {
+					cache.put(CacheKey.id(offset + i), i);
+					cache.get(CacheKey.id(offset + i / 2));
+					if (i % 7 == 0) {
+						cache.remove(CacheKey.id(offset + i));
+					}
+				}
+			}));
+		}
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+		assertTrue(cache.getSize() <= 64);
+	}
+
+	@Test
+	void shouldHideExpiredEntriesUntilCleanUp() {
+		AtomicLong now = new AtomicLong();
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(10);
+		spec.setExpireAfterWrite(Duration.ofSeconds(10));
+		InMemoryCache cache = new InMemoryCache("test", spec, Weigher.SINGLETON, now::get);
+		cache.put(CacheKey.id(1L), "one");
+		now.set(Duration.ofSeconds(9).toNanos());
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		now.set(Duration.ofSeconds(10).toNanos());
+		assertNull(cache.get(CacheKey.id(1L)));
+		assertEquals(1, cache.getSize());
+		assertEquals(1, cache.cleanUp());
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void shouldExpireAfterAccess() {
+		AtomicLong now = new AtomicLong();
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(10);
+		spec.setExpireAfterAccess(Duration.ofSeconds(5));
+		InMemoryCache cache = new InMemoryCache("test", spec, Weigher.SINGLETON, now::get);
+		cache.put(CacheKey.id(1L), "one");
+		now.set(Duration.ofSeconds(4).toNanos());
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		now.set(Duration.ofSeconds(8).toNanos());
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		now.set(Duration.ofSeconds(13).toNanos());
+		assertNull(cache.get(CacheKey.id(1L)));
+	}
+
+	@Test
+	void shouldEvictByWeight() {
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(100);
+		spec.setMaxWeight(DataSize.ofBytes(10));
+		spec.setConcurrencyLevel(1);
+		InMemoryCache cache = new InMemoryCache("test", spec,
+				(key, value) -> ((String) value).length());
+		cache.put(CacheKey.id(1L), "aaaa");
+		cache.put(CacheKey.id(2L), "bbbb");
+		cache.put(CacheKey.id(3L), "cccc");
+		assertNull(cache.get(CacheKey.id(1L)));
+		assertEquals(8, cache.getWeight());
+		cache.put(CacheKey.id(4L), "this value is too heavy");
+		assertNull(cache.get(CacheKey.id(4L)));
+		assertEquals(2, cache.getSize());
+	}
+
+	@Test
+	void shouldCountHitsMissesAndEvictions() {
+		InMemoryCache cache = new InMemoryCache(2, 1);
+		cache.put(CacheKey.id(1L), "one");
+		cache.get(CacheKey.id(1L));
+		cache.get(CacheKey.id(1L));
+		cache.get(CacheKey.id(2L));
+		cache.put(CacheKey.id(2L), "two");
+		cache.put(CacheKey.id(3L), "three");
+		CacheStats stats = cache.getStats();
+		assertEquals(2, stats.getHitCount());
+		assertEquals(1, stats.getMissCount());
+		assertEquals(3, stats.getPutCount());
+		assertEquals(1, stats.getEvictionCount());
+	}
+
+	@Test
+	void shouldReturnHottestKeysFirst() {
+		InMemoryCache cache = new InMemoryCache(10);
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.id(2L), "two");
+		cache.put(CacheKey.id(3L), "three");
+		for (int i = 0; i < 5; i++) {
+			cache.get(CacheKey.id(2L));
+		}
+		cache.get(CacheKey.id(3L));
+		List<HotKey> hottest = cache.hottestKeys(2);
+		assertEquals(2, hottest.size());
+		assertEquals(new HotKey(CacheKey.id(2L).toString(), 5), hottest.get(0));
+		assertEquals(new HotKey(CacheKey.id(3L).toString(), 1), hottest.get(1));
+	}
+
+	@Test
+	void shouldCoalesceConcurrentLoads() throws Exception {
+		InMemoryCache cache = new InMemoryCache(10);
+		AtomicInteger loads = new AtomicInteger();
+		CountDownLatch loaderStarted = new CountDownLatch(1);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService executor = Executors.newFixedThreadPool(4);
+		List<Future<Object>> futures = new ArrayList<>();
+		futures.add(executor.submit(() -> cache.get(CacheKey.id(1L), key -> {
+			loads.incrementAndGet();
+			loaderStarted.countDown();
+			awaitQuietly(release);
+			return "one";
+		})));
+		assertTrue(loaderStarted.await(5, TimeUnit.SECONDS));
+		for (int i = 0; i < 3; i++) {
+			futures.add(executor.submit(() -> cache.get(CacheKey.id(1L), key -> {
+				loads.incrementAndGet();
+				return "other";
+			})));
+		}
+		release.countDown();
+		for (Future<Object> future : futures) {
+			assertEquals("one", future.get(5, TimeUnit.SECONDS));
+		}
+		executor.shutdown();
+		assertEquals(1, loads.get());
+		assertEquals(1, cache.getStats().getLoadSuccessCount());
+	}
+
+	@Test
+	void shouldCacheFailedLoadsForFailureTtl() {
+		AtomicLong now = new AtomicLong();
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(10);
+		spec.setFailureTtl(Duration.ofSeconds(2));
+		InMemoryCache cache = new InMemoryCache("test", spec, Weigher.SINGLETON, now::get);
+		AtomicInteger loads = new AtomicInteger();
+		Function<CacheKey, Object> failing = key -> {
+			loads.incrementAndGet();
+			throw new IllegalStateException("database is down");
+		};
+		assertThrows(IllegalStateException.class, () -> cache.get(CacheKey.id(1L), failing));
+		assertThrows(IllegalStateException.class, () -> cache.get(CacheKey.id(1L), failing));
+		assertNull(cache.get(CacheKey.id(1L)));
+		assertEquals(1, loads.get());
+		now.set(Duration.ofSeconds(2).toNanos());
+		assertEquals("one", cache.get(CacheKey.id(1L), key -> "one"));
+		assertEquals(1, cache.getStats().getLoadFailureCount());
+	}
+
+	@Test
+	void shouldNotCacheMissingValues() {
+		InMemoryCache cache = new InMemoryCache(10);
+		assertNull(cache.get(CacheKey.id(1L), key -> null));
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void shouldRememberMissingValuesForAbsentTtl() {
+		AtomicLong now = new AtomicLong();
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(10);
+		spec.setAbsentTtl(Duration.ofSeconds(30));
+		InMemoryCache cache = new InMemoryCache("test", spec, Weigher.SINGLETON, now::get);
+		AtomicInteger loads = new AtomicInteger();
+		Function<CacheKey, Object> missing = key -> {
+			loads.incrementAndGet();
+			return null;
+		};
+		assertNull(cache.get(CacheKey.content("unknown"), missing));
+		assertNull(cache.get(CacheKey.content("unknown"), missing));
+		assertNull(cache.get(CacheKey.content("unknown")));
+		assertEquals(1, loads.get());
+		cache.remove(CacheKey.content("unknown"));
+		assertNull(cache.get(CacheKey.content("unknown"), missing));
+		assertEquals(2, loads.get());
+		cache.put(CacheKey.content("unknown"), "known");
+		assertEquals("known", cache.get(CacheKey.content("unknown"), missing));
+		now.set(Duration.ofSeconds(60).toNanos());
+		assertEquals("known", cache.get(CacheKey.content("unknown"), missing));
+	}
+
+	@Test
+	void shouldNotCacheLoadThatRacedWithRemoval() {
+		InMemoryCache cache = new InMemoryCache(10);
+		Object loaded = cache.get(CacheKey.id(1L), key -> {
+			cache.remove(key);
+			return "stale";
+		});
+		assertEquals("stale", loaded);
+		assertNull(cache.get(CacheKey.id(1L)));
+		assertEquals("fresh", cache.get(CacheKey.id(1L), key -> "fresh"));
+	}
+
+	@Test
+	void shouldMoveEvictedEntriesOffHeapAndBack() {
+		InMemoryCache cache = new InMemoryCache("test", offHeapSpec(2), Weigher.SINGLETON, new StringCodec());
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.id(2L), "two");
+		cache.put(CacheKey.id(3L), "three");
+		assertEquals(2, cache.getSize());
+		assertEquals(1, cache.getOffHeapSize());
+		assertEquals("one", cache.get(CacheKey.id(1L)));
+		assertEquals(2, cache.getSize());
+		assertEquals(1, cache.getOffHeapSize());
+		assertEquals(1, cache.getStats().getPromotionCount());
+		assertEquals(2, cache.getStats().getDemotionCount());
+		assertEquals(0, cache.getStats().getMissCount());
+	}
+
+	@Test
+	void shouldRemoveAndOverwriteOffHeapCopies() {
+		InMemoryCache cache = new InMemoryCache("test", offHeapSpec(1), Weigher.SINGLETON, new StringCodec());
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.id(2L), "two");
+		cache.remove(CacheKey.id(1L));
+		assertNull(cache.get(CacheKey.id(1L)));
+		cache.put(CacheKey.id(3L), "three");
+		cache.put(CacheKey.id(2L), "deux");
+		cache.remove(CacheKey.id(2L));
+		assertNull(cache.get(CacheKey.id(2L)));
+		assertEquals("three", cache.get(CacheKey.id(3L)));
+		cache.clear();
+		assertEquals(0, cache.getOffHeapSize());
+	}
+
+	@Test
+	void shouldSnapshotHottestEntriesAndRestoreThem() {
+		InMemoryCache cache = new InMemoryCache("test", offHeapSpec(10), Weigher.SINGLETON, new StringCodec());
+		cache.put(CacheKey.id(1L), "one");
+		cache.put(CacheKey.content("two"), "two");
+		cache.get(CacheKey.content("two"));
+		cache.get(CacheKey.content("two"));
+		cache.get(CacheKey.id(1L));
+		List<CacheSnapshotEntry> keysOnly = cache.snapshot(false);
+		assertEquals(List.of(CacheKey.content("two"), CacheKey.id(1L)),
+				keysOnly.stream().map(CacheSnapshotEntry::key).toList());
+		assertNull(keysOnly.get(0).value());
+
+		InMemoryCache restored = new InMemoryCache("test", offHeapSpec(10), Weigher.SINGLETON, new StringCodec());
+		for (CacheSnapshotEntry entry : cache.snapshot(true)) {
+			assertTrue(restored.restore(entry.key(), entry.value()));
+		}
+		assertEquals("one", restored.get(CacheKey.id(1L)));
+		assertEquals("two", restored.get(CacheKey.content("two")));
+	}
+
+	private static CacheSpec offHeapSpec(int maxEntries) {
+		CacheSpec spec = new CacheSpec();
+		spec.setMaxEntries(maxEntries);
+		spec.setConcurrencyLevel(1);
+		spec.setOffHeapSize(DataSize.ofKilobytes(256));
+		return spec;
+	}
+
+	private static final class StringCodec implements ValueCodec {
+
+		@Override
+		public byte[] encode(Object value) {
+			return value instanceof String string ? string.getBytes(StandardCharsets.UTF_8) : null;
+		}
+
+		@Override
+		public Object decode(byte[] bytes) {
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+	}
+
+	private static void awaitQuietly(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
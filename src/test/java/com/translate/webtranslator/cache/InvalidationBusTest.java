@@ -0,0 +1,121 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.model.ContentHash;
+
+class InvalidationBusTest {
+
+	@Test
+	void shouldEvictKeysOnOtherNodes() {
+		InProcessInvalidationTransport transport = new InProcessInvalidationTransport();
+		InMemoryCache cacheA = cache();
+		InMemoryCache cacheB = cache();
+		InvalidationBus busA = new InvalidationBus("a", transport, List.of(cacheA), 100);
+		InvalidationBus busB = new InvalidationBus("b", transport, List.of(cacheB), 100);
+		cacheA.put(CacheKey.id(1L), "stale");
+		cacheB.put(CacheKey.id(1L), "stale");
+		cacheB.put(CacheKey.content("hello"), "stale");
+		cacheB.put(CacheKey.id(2L), "fresh");
+
+		busA.onInvalidation(event(CacheKey.id(1L), CacheKey.content("hello")));
+		assertEquals("stale", cacheB.get(CacheKey.id(1L)));
+		busA.flush();
+
+		assertNull(cacheB.get(CacheKey.id(1L)));
+		assertNull(cacheB.get(CacheKey.content("hello")));
+		assertEquals("fresh", cacheB.get(CacheKey.id(2L)));
+		assertEquals("stale", cacheA.get(CacheKey.id(1L)));
+		assertEquals(1, busA.getSentMessages());
+		assertEquals(0, busA.getReceivedMessages());
+		assertEquals(1, busB.getReceivedMessages());
+	}
+
+	@Test
+	void shouldSendDuplicateKeysOnce() {
+		InProcessInvalidationTransport transport = new InProcessInvalidationTransport();
+		List<String> payloads = new ArrayList<>();
+		transport.subscribe(payloads::add);
+		InvalidationBus bus = new InvalidationBus("a", transport, List.of(cache()), 100);
+		bus.onInvalidation(event(CacheKey.id(1L)));
+		bus.onInvalidation(event(CacheKey.id(1L)));
+		bus.flush();
+		bus.flush();
+		assertEquals(List.of("{\"node\":\"a\",\"cache\":\"test\",\"clear\":false,\"keys\":[\"L1\"]}"), payloads);
+	}
+
+	@Test
+	void shouldFlushFullBatchAtOnce() {
+		InProcessInvalidationTransport transport = new InProcessInvalidationTransport();
+		InvalidationBus bus = new InvalidationBus("a", transport, List.of(cache()), 2);
+		bus.onInvalidation(event(CacheKey.id(1L)));
+		assertEquals(0, bus.getSentMessages());
+		bus.onInvalidation(event(CacheKey.id(2L)));
+		assertEquals(1, bus.getSentMessages());
+	}
+
+	@Test
+	void shouldSplitMessagesAndSendContentsByFingerprint() {
+		InProcessInvalidationTransport transport = new InProcessInvalidationTransport(80);
+		InMemoryCache cacheB = cache();
+		InvalidationBus busA = new InvalidationBus("a", transport, List.of(cache()), 100);
+		new InvalidationBus("b", transport, List.of(cacheB), 100);
+		for (long i = 0; i < 20; i++) {
+			cacheB.put(CacheKey.id(i), i);
+		}
+		busA.onInvalidation(event(CacheKey.id(1L), CacheKey.id(2L), CacheKey.id(3L), CacheKey.id(4L),
+				CacheKey.id(5L), CacheKey.id(6L), CacheKey.id(7L), CacheKey.id(8L)));
+		busA.flush();
+		assertEquals(2, busA.getSentMessages());
+		assertNull(cacheB.get(CacheKey.id(8L)));
+		assertEquals(9L, cacheB.get(CacheKey.id(9L)));
+
+		String longText = "a text that is far too long to fit into one message ".repeat(1000);
+		cacheB.put(CacheKey.content(longText), "stale");
+		busA.onInvalidation(event(CacheKey.content(longText)));
+		busA.flush();
+		assertNull(cacheB.get(CacheKey.content(longText)));
+		assertEquals(9L, cacheB.get(CacheKey.id(9L)));
+	}
+
+	@Test
+	void shouldClearCachesWhenMessagesWereLost() {
+		InMemoryCache cache = cache();
+		cache.put(CacheKey.id(1L), "one");
+		new InvalidationBus("a", new InProcessInvalidationTransport(), List.of(cache), 100).onMessagesLost();
+		assertEquals(0, cache.getSize());
+	}
+
+	@Test
+	void shouldRoundTripCacheKeys() {
+		for (CacheKey cacheKey : List.of(CacheKey.id(42L), CacheKey.id(-7L))) {
+			assertEquals(cacheKey, CacheKeyCodec.decode(CacheKeyCodec.encode(cacheKey)));
+		}
+		for (String content : List.of("", "Long text: with separators", "42")) {
+			assertEquals(CacheKey.contentHash(ContentHash.of(content)),
+					CacheKeyCodec.decode(CacheKeyCodec.encode(CacheKey.content(content))));
+		}
+		assertNotEquals(CacheKey.id(42L), CacheKey.content("42"));
+		assertThrows(IllegalArgumentException.class, () -> CacheKeyCodec.decode("X1"));
+		assertThrows(IllegalArgumentException.class, () -> CacheKeyCodec.decode("Shello"));
+		assertThrows(IllegalArgumentException.class, () -> CacheKeyCodec.decode("Lone"));
+	}
+
+	private static InMemoryCache cache() {
+		return new InMemoryCache("test", new CacheSpec(), Weigher.SINGLETON);
+	}
+
+	private static CacheInvalidationEvent event(CacheKey... keys) {
+		return new CacheInvalidationEvent(Map.of("test", Set.of(keys)));
+	}
+}
@@ -0,0 +1,57 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class LongObjectIndexTest {
+
+	@Test
+	void shouldPutReplaceAndRemoveByIdentity() {
+		LongObjectIndex<Entry> index = new LongObjectIndex<>(Entry::key);
+		Entry first = new Entry(0);
+		Entry second = new Entry(0);
+		assertNull(index.put(first));
+		assertSame(first, index.put(second));
+		assertFalse(index.remove(0, first));
+		assertTrue(index.remove(0, second));
+		assertNull(index.get(0));
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	void shouldMatchHashMapWithRandomOperations() {
+		LongObjectIndex<Entry> index = new LongObjectIndex<>(Entry::key);
+		Map<Long, Entry> expected = new HashMap<>();
+		Random random = new Random(11);
+		for (int i = 0; i < 50_000; i++) {
+			long key = random.nextInt(3000) - 1000L;
+			Entry current = expected.get(key);
+			if (current != null && random.nextInt(3) == 0) {
+				assertTrue(index.remove(key, current));
+				expected.remove(key);
+			} else {
+				Entry entry = new Entry(key);
+				assertSame(current, index.put(entry));
+				expected.put(key, entry);
+			}
+		}
+		assertEquals(expected.size(), index.size());
+		for (long key = -1000; key < 2000; key++) {
+			assertSame(expected.get(key), index.get(key));
+		}
+		index.clear();
+		assertNull(index.get(5));
+	}
+
+	private record Entry(long key) {
+	}
+}
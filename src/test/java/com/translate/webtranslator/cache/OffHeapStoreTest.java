@@ -0,0 +1,102 @@
+package com.translate.webtranslator.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class OffHeapStoreTest {
+
+	@Test
+	void shouldStoreAndTakeValues() {
+		OffHeapStore store = new OffHeapStore(1024 * 1024);
+		assertTrue(store.put(CacheKey.id(1L), bytes("one"), 42));
+		assertTrue(store.put(CacheKey.content("one"), bytes("text"), 43));
+		OffHeapStore.Entry entry = store.get(CacheKey.id(1L));
+		assertEquals("one", string(entry.value()));
+		assertEquals(42, entry.writeTime());
+		assertEquals("text", string(store.take(CacheKey.content("one")).value()));
+		assertNull(store.get(CacheKey.content("one")));
+		assertNull(store.get(CacheKey.content("1")));
+		assertEquals(1, store.getEntryCount());
+	}
+
+	@Test
+	void shouldReplaceAndRemoveValues() {
+		OffHeapStore store = new OffHeapStore(1024 * 1024);
+		store.put(CacheKey.id(1L), bytes("one"), 1);
+		store.put(CacheKey.id(1L), bytes("uno"), 2);
+		assertEquals("uno", string(store.get(CacheKey.id(1L)).value()));
+		assertEquals(1, store.getEntryCount());
+		store.remove(CacheKey.id(1L));
+		assertNull(store.get(CacheKey.id(1L)));
+	}
+
+	@Test
+	void shouldIgnoreKeysThatAreNotStored() {
+		OffHeapStore store = new OffHeapStore(1024 * 1024);
+		store.put(CacheKey.id(1L), bytes("one"), 1);
+		assertNull(store.take(CacheKey.id(2L)));
+		store.remove(CacheKey.id(2L));
+		store.remove(CacheKey.content("one"));
+		assertEquals(1, store.getEntryCount());
+		assertEquals("one", string(store.get(CacheKey.id(1L)).value()));
+	}
+
+	@Test
+	void shouldRecycleOldestSegmentWhenFull() {
+		OffHeapStore store = new OffHeapStore(2 * 64 * 1024);
+		byte[] value = new byte[1000];
+		for (long i = 0; i < 1000; i++) {
+			assertTrue(store.put(CacheKey.id(i), value, i));
+		}
+		assertNull(store.get(CacheKey.id(0L)));
+		assertEquals(1000, store.get(CacheKey.id(999L)).value().length);
+		assertTrue(store.getUsedBytes() <= store.getCapacityBytes());
+		assertTrue(store.getEntryCount() < 1000);
+		assertFalse(store.put(CacheKey.id(-1L), new byte[64 * 1024], 0));
+	}
+
+	@Test
+	void shouldKeepIndexConsistentWithRandomOperations() {
+		OffHeapStore store = new OffHeapStore(1024 * 1024);
+		LongLongHashMap expected = new LongLongHashMap(16);
+		Random random = new Random(7);
+		for (int i = 0; i < 20_000; i++) {
+			long key = random.nextInt(2000);
+			if (random.nextInt(4) == 0) {
+				store.remove(CacheKey.id(key));
+				expected.remove(key);
+			} else {
+				store.put(CacheKey.id(key), bytes(Long.toString(i)), i);
+				expected.put(key, i);
+			}
+		}
+		for (long key = 0; key < 2000; key++) {
+			OffHeapStore.Entry entry = store.get(CacheKey.id(key));
+			long writeTime = expected.get(key);
+			if (writeTime == LongLongHashMap.MISSING) {
+				assertNull(entry);
+			} else {
+				assertEquals(Long.toString(writeTime), string(entry.value()));
+			}
+		}
+		assertEquals(expected.size(), store.getEntryCount());
+		store.clear();
+		assertEquals(0, store.getEntryCount());
+		assertNull(store.get(CacheKey.id(1L)));
+	}
+
+	private static byte[] bytes(String value) {
+		return value.getBytes(StandardCharsets.UTF_8);
+	}
+
+	private static String string(byte[] value) {
+		return new String(value, StandardCharsets.UTF_8);
+	}
+}
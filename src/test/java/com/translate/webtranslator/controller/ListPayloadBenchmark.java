@@ -0,0 +1,97 @@
+package com.translate.webtranslator.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translate.webtranslator.dto.LanguageSummary;
+import com.translate.webtranslator.dto.TextSummary;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Payload and serialization benchmark of the list endpoints. "entities" is what they returned
+ * before: languages with all their texts, and texts with their translations and languages.
+ * "summaries" is what they return now: LanguageSummary and TextSummary rows.
+ * For both it prints the JSON size of one response and the mean time Jackson takes to write it.
+ * The database side is not included; the summaries also replace a query per association
+ * with one query selecting only the listed columns.
+ * Run it with {@code java -cp target/test-classes:target/classes:<jackson>
+ * com.translate.webtranslator.controller.ListPayloadBenchmark [languages] [texts] [translations]}.
+ */
+public final class ListPayloadBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int ITERATIONS = 1_000;
+
+    private ListPayloadBenchmark() {
+    }
+
+    public static void main(String[] args) throws JsonProcessingException {
+        int languageCount = args.length > 0 ? Integer.parseInt(args[0]) : 20;
+        int textCount = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        int translationsPerText = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        ObjectMapper objectMapper = new ObjectMapper();
+
+        List<Language> languages = new ArrayList<>();
+        for (int i = 0; i < languageCount; i++) {
+            Language language = new Language();
+            language.setId((long) i);
+            language.setName("language " + i);
+            language.setTexts(new LinkedHashSet<>());
+            languages.add(language);
+        }
+        List<Text> texts = new ArrayList<>();
+        for (int i = 0; i < textCount; i++) {
+            Text text = new Text();
+            text.setId((long) i);
+            text.setTextToTranslate("text to translate number " + i);
+            List<Translation> translations = new ArrayList<>();
+            for (int j = 0; j < translationsPerText; j++) {
+                Translation translation = new Translation();
+                translation.setId((long) i * translationsPerText + j);
+                translation.setTranslatedText("translation " + j + " of text " + i);
+                translation.setText(text);
+                translations.add(translation);
+            }
+            text.setTranslations(translations);
+            Set<Language> textLanguages = new LinkedHashSet<>(List.of(languages.get(i % languageCount),
+                    languages.get((i + 1) % languageCount)));
+            text.setLanguages(textLanguages);
+            textLanguages.forEach(language -> language.getTexts().add(text));
+            texts.add(text);
+        }
+        List<LanguageSummary> languageSummaries = languages.stream()
+                .map(language -> new LanguageSummary(language.getId(), language.getName(),
+                        language.getTexts().size()))
+                .toList();
+        List<Text> page = texts.subList(0, Math.min(PAGE_SIZE, texts.size()));
+        List<TextSummary> pageSummaries = page.stream()
+                .map(text -> new TextSummary(text.getId(), text.getTextToTranslate()))
+                .toList();
+
+        System.out.printf("%-22s %14s %14s%n", "response", "bytes", "us/response");
+        report(objectMapper, "languages/entities", languages);
+        report(objectMapper, "languages/summaries", languageSummaries);
+        report(objectMapper, "texts page/entities", page);
+        report(objectMapper, "texts page/summaries", pageSummaries);
+    }
+
+    private static void report(ObjectMapper objectMapper, String name, Object response)
+            throws JsonProcessingException {
+        int bytes = objectMapper.writeValueAsBytes(response).length;
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(response);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            objectMapper.writeValueAsBytes(response);
+        }
+        double micros = (System.nanoTime() - start) / 1_000.0 / ITERATIONS;
+        System.out.printf("%-22s %14d %14.1f%n", name, bytes, micros);
+    }
+}
@@ -0,0 +1,201 @@
+package com.translate.webtranslator.controller;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Counts the SQL statements each read endpoint and the text upsert run against PostgreSQL, so a lazy
+ * association that starts loading row by row fails the build. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"spring.jpa.properties.hibernate.generate_statistics=true",
+		"cache.warmup.enabled=false",
+		"cache.snapshot.enabled=false",
+		"translation-memory.refresh-interval=PT1H"})
+@AutoConfigureMockMvc
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class StatementCountTest {
+
+	private static final int TEXTS = 30;
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private TextRepository textRepository;
+
+	@Autowired
+	private LanguageRepository languageRepository;
+
+	@Autowired
+	private List<InMemoryCache> caches;
+
+	private Statistics statistics;
+	private Text text;
+	private Translation translation;
+	private Language language;
+
+	@BeforeAll
+	void seed() {
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			List<Language> languages = new ArrayList<>();
+			for (String name : List.of("English", "German", "French")) {
+				Language newLanguage = new Language();
+				newLanguage.setName(name);
+				languages.add(languageRepository.save(newLanguage));
+			}
+			for (int i = 0; i < TEXTS; i++) {
+				Text newText = new Text();
+				newText.setTextToTranslate("text " + i);
+				newText.setLanguages(new LinkedHashSet<>(List.of(languages.get(i % 3), languages.get((i + 1) % 3))));
+				List<Translation> translations = new ArrayList<>();
+				for (int j = 0; j < 2; j++) {
+					Translation newTranslation = new Translation();
+					newTranslation.setTranslatedText("translation " + i + "." + j);
+					newTranslation.setText(newText);
+					translations.add(newTranslation);
+				}
+				newText.setTranslations(translations);
+				textRepository.save(newText);
+				text = newText;
+				translation = translations.get(0);
+			}
+			language = languages.get(0);
+		});
+	}
+
+	@Test
+	void textPage() throws Exception {
+		// the summaries and the count
+		assertStatements(2, "/api/texts?page=1&size=20");
+	}
+
+	@Test
+	void textSlice() throws Exception {
+		assertStatements(1, "/api/texts?page=2&size=20&count=false");
+	}
+
+	@Test
+	void textSeek() throws Exception {
+		assertStatements(1, "/api/texts/seek?size=20");
+	}
+
+	@Test
+	void textById() throws Exception {
+		assertStatements(3, "/api/texts/find/byId/" + text.getId());
+	}
+
+	@Test
+	void textByText() throws Exception {
+		assertStatements(3, "/api/texts/find/byText/" + text.getTextToTranslate());
+	}
+
+	@Test
+	void translationSlice() throws Exception {
+		assertStatements(1, "/api/translations?page=1&size=20&count=false");
+	}
+
+	@Test
+	void translationSeek() throws Exception {
+		assertStatements(1, "/api/translations/seek?size=20");
+	}
+
+	@Test
+	void translationById() throws Exception {
+		assertStatements(1, "/api/translations/find/byId/" + translation.getId());
+	}
+
+	@Test
+	void translationByTranslation() throws Exception {
+		assertStatements(1, "/api/translations/find/byTranslation/" + translation.getTranslatedText());
+	}
+
+	@Test
+	void allLanguages() throws Exception {
+		// one grouped query counts the texts of every language
+		assertStatements(1, "/api/languages");
+	}
+
+	@Test
+	void languageById() throws Exception {
+		// the language, its texts, then the translations and languages of those texts
+		assertStatements(4, "/api/languages/find/byId/" + language.getId());
+	}
+
+	@Test
+	void languageByName() throws Exception {
+		assertStatements(4, "/api/languages/find/byLanguage/" + language.getName());
+	}
+
+	@Test
+	void upsertText() throws Exception {
+		String body = """
+				{"textToTranslate": "upserted",
+				 "translations": [{"translatedText": "one"}, {"translatedText": "two"}, {"translatedText": "three"}],
+				 "languages": [{"name": "English"}, {"name": "Spanish"}]}
+				""";
+		// the text, the translations, the languages and the links, then the text is loaded back
+		assertRequestStatements(7, post("/api/texts/create").contentType(MediaType.APPLICATION_JSON).content(body));
+		// saving it again inserts nothing
+		assertRequestStatements(7, post("/api/texts/create").contentType(MediaType.APPLICATION_JSON).content(body));
+		Text upserted = textRepository.findGraphByTextToTranslate("upserted").orElseThrow();
+		assertEquals(3, upserted.getTranslations().size());
+		assertEquals(2, upserted.getLanguages().size());
+	}
+
+	private void assertStatements(long expected, String url) throws Exception {
+		assertRequestStatements(expected, get(url));
+	}
+
+	private void assertRequestStatements(long expected, RequestBuilder request) throws Exception {
+		caches.forEach(InMemoryCache::clear);
+		statistics.clear();
+		mockMvc.perform(request).andExpect(status().isOk());
+		assertEquals(expected, statistics.getPrepareStatementCount(), request.toString());
+	}
+}
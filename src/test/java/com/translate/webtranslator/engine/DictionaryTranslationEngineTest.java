@@ -0,0 +1,37 @@
+package com.translate.webtranslator.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+class DictionaryTranslationEngineTest {
+
+	private final DictionaryTranslationEngine engine = new DictionaryTranslationEngine();
+
+	@Test
+	void translatesWordByWordKeepingCaseAndPunctuation() {
+		assertThat(engine.translate(List.of("Hello, world!", "GOOD morning", "hello qwerty"), "German"))
+				.containsExactly("Hallo, Welt!", "GUT Morgen", "hallo qwerty");
+	}
+
+	@Test
+	void dropsWordsTheLanguageDoesNotHave() {
+		assertThat(engine.translate(List.of("the cat and the dog"), "Russian"))
+				.containsExactly("кошка и собака");
+	}
+
+	@Test
+	void isDeterministic() {
+		assertThat(engine.translate(List.of("Welcome home, friend"), "french"))
+				.isEqualTo(engine.translate(List.of("Welcome home, friend"), "French"));
+	}
+
+	@Test
+	void unknownLanguage() {
+		assertThrows(IllegalArgumentException.class, () -> engine.translate(List.of("hello"), "Klingon"));
+		assertThrows(IllegalArgumentException.class, () -> engine.translate(List.of("hello"), "../german"));
+	}
+}
@@ -0,0 +1,147 @@
+package com.translate.webtranslator.engine;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class TranslationBatcherTest {
+
+	private final List<List<String>> calls = Collections.synchronizedList(new ArrayList<>());
+	private TranslationBatcher batcher;
+
+	@AfterEach
+	void close() {
+		if (batcher != null) {
+			batcher.close();
+		}
+	}
+
+	@Test
+	void collectsConcurrentRequestsOfOneLanguageIntoOneCall() {
+		batcher = new TranslationBatcher(upperCaseEngine(), spec(10, Duration.ofMillis(50), 1,
+				Duration.ofSeconds(5)));
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		for (String text : List.of("a", "b", "c", "b")) {
+			results.add(batcher.translate(text, "German"));
+		}
+		CompletableFuture<String> french = batcher.translate("a", "French");
+
+		assertThat(results.stream().map(CompletableFuture::join)).containsExactly("A", "B", "C", "B");
+		assertThat(french.join()).isEqualTo("A");
+		assertThat(calls).containsExactlyInAnyOrder(List.of("a", "b", "c"), List.of("a"));
+	}
+
+	@Test
+	void sendsAFullBatchWithoutWaiting() {
+		batcher = new TranslationBatcher(upperCaseEngine(), spec(2, Duration.ofHours(1), 1,
+				Duration.ofSeconds(5)));
+		CompletableFuture<String> first = batcher.translate("a", "German");
+		CompletableFuture<String> second = batcher.translate("b", "German");
+
+		assertThat(first.orTimeout(5, TimeUnit.SECONDS).join()).isEqualTo("A");
+		assertThat(second.join()).isEqualTo("B");
+	}
+
+	@Test
+	void limitsConcurrentCalls() throws InterruptedException {
+		AtomicInteger running = new AtomicInteger();
+		AtomicInteger maxRunning = new AtomicInteger();
+		TranslationEngine slowEngine = new TestEngine((texts, language) -> {
+			maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+			sleep(20);
+			running.decrementAndGet();
+			return texts;
+		});
+		batcher = new TranslationBatcher(slowEngine, spec(1, Duration.ZERO, 2, Duration.ofSeconds(5)));
+		List<CompletableFuture<String>> results = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			results.add(batcher.translate("text " + i, "German"));
+		}
+		results.forEach(CompletableFuture::join);
+
+		assertThat(maxRunning.get()).isBetween(1, 2);
+	}
+
+	@Test
+	void failsCallsThatTakeTooLong() {
+		CountDownLatch release = new CountDownLatch(1);
+		batcher = new TranslationBatcher(new TestEngine((texts, language) -> {
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return texts;
+		}), spec(1, Duration.ZERO, 1, Duration.ofMillis(50)));
+
+		CompletionException error = assertThrows(CompletionException.class,
+				() -> batcher.translate("hello", "German").join());
+		assertThat(error.getCause()).isInstanceOf(IllegalStateException.class)
+				.hasMessageContaining("timed out");
+		release.countDown();
+	}
+
+	@Test
+	void failsWhenTheEngineAnswersWithTheWrongCount() {
+		batcher = new TranslationBatcher(new TestEngine((texts, language) -> List.of()),
+				spec(1, Duration.ZERO, 1, Duration.ofSeconds(5)));
+
+		CompletionException error = assertThrows(CompletionException.class,
+				() -> batcher.translate("hello", "German").join());
+		assertThat(error.getCause()).isInstanceOf(IllegalStateException.class);
+	}
+
+	private TranslationEngine upperCaseEngine() {
+		return new TestEngine((texts, language) -> {
+			calls.add(texts);
+			return texts.stream().map(String::toUpperCase).toList();
+		});
+	}
+
+	private static EngineSpec spec(int maxBatchSize, Duration batchWindow, int maxConcurrency,
+			Duration timeout) {
+		EngineSpec spec = new EngineSpec();
+		spec.setMaxBatchSize(maxBatchSize);
+		spec.setBatchWindow(batchWindow);
+		spec.setMaxConcurrency(maxConcurrency);
+		spec.setTimeout(timeout);
+		return spec;
+	}
+
+	private static void sleep(long millis) {
+		try {
+			Thread.sleep(millis);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	private interface Translator {
+		List<String> translate(List<String> texts, String language);
+	}
+
+	private record TestEngine(Translator translator) implements TranslationEngine {
+
+		@Override
+		public String getName() {
+			return "test";
+		}
+
+		@Override
+		public List<String> translate(List<String> texts, String targetLanguage) {
+			return translator.translate(texts, targetLanguage);
+		}
+	}
+}
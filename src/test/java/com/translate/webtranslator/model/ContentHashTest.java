@@ -0,0 +1,32 @@
+package com.translate.webtranslator.model;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+class ContentHashTest {
+
+	@Test
+	void shouldTakeTheFirstEightBytesOfSha256() {
+		// SHA-256("abc") = ba7816bf8f01cfea 414140de5dae2223 b00361a396177a9c b410ff61f20015ad
+		assertEquals(0xba7816bf8f01cfeaL, ContentHash.of("abc"));
+	}
+
+	@Test
+	void shouldHashUtf8() {
+		assertNotEquals(ContentHash.of("привет"), ContentHash.of("привет "));
+		assertEquals(ContentHash.of("привет"), ContentHash.of(new String("привет")));
+	}
+
+	@Test
+	void entityShouldRecomputeTheHashWhenTheContentChanges() {
+		Text text = new Text();
+		assertNull(text.getContentHash());
+		text.setTextToTranslate("Hello");
+		assertEquals(ContentHash.of("Hello"), text.getContentHash());
+		text.setTextToTranslate("Hello world");
+		assertEquals(ContentHash.of("Hello world"), text.getContentHash());
+	}
+}
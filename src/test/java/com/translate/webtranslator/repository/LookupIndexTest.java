@@ -0,0 +1,165 @@
+package com.translate.webtranslator.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.translate.webtranslator.model.ContentHash;
+
+/**
+ * Checks with EXPLAIN that the lookups by content and the join table lookups are index scans
+ * on a schema built by the Flyway migrations. Sequential scans are disabled for the session,
+ * because on tables this small the planner would rightly prefer them. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"cache.warmup.enabled=false",
+		"cache.snapshot.enabled=false"})
+class LookupIndexTest {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void findByTextToTranslate() {
+		assertThat(explain("SELECT * FROM text WHERE content_hash = 42"))
+				.contains("uq_text_content_hash");
+	}
+
+	@Test
+	void findByTranslatedText() {
+		assertThat(explain("SELECT * FROM translation WHERE content_hash = 42"))
+				.contains("idx_translation_content_hash");
+	}
+
+	@Test
+	void textKeysetPage() {
+		assertThat(explain("SELECT id FROM text WHERE (left(text_to_translate, 100), id) > ('a', 1) "
+				+ "ORDER BY left(text_to_translate, 100), id LIMIT 21"))
+				.contains("idx_text_sort_key_id");
+	}
+
+	@Test
+	void translationKeysetPage() {
+		assertThat(explain("SELECT id FROM translation WHERE (left(translated_text, 100), id) > ('a', 1) "
+				+ "ORDER BY left(translated_text, 100), id LIMIT 21"))
+				.contains("idx_translation_sort_key_id");
+	}
+
+	@Test
+	void contentHashShouldMatchTheMigration() {
+		Long hash = jdbcTemplate.queryForObject("SELECT ('x' || substr(encode(sha256(convert_to("
+				+ "'привет', 'UTF8')), 'hex'), 1, 16))::bit(64)::bigint", Long.class);
+		assertThat(hash).isEqualTo(ContentHash.of("привет"));
+	}
+
+	@Test
+	void findByName() {
+		assertThat(explain("SELECT * FROM language WHERE name = 'English'"))
+				.contains("uq_language_name");
+	}
+
+	@Test
+	void translationsOfText() {
+		assertThat(explain("SELECT * FROM translation WHERE text_id = 1"))
+				.contains("uq_translation_text_id_language_content_hash");
+	}
+
+	@Test
+	void languagesOfText() {
+		assertThat(explain("SELECT language_id FROM text_language WHERE text_id = 1"))
+				.contains("pk_text_language");
+	}
+
+	@Test
+	void textsOfLanguage() {
+		assertThat(explain("SELECT text_id FROM text_language WHERE language_id = 1"))
+				.contains("idx_text_language_language_id");
+	}
+
+	@Test
+	void searchTexts() {
+		assertThat(explain("SELECT id FROM text WHERE search_vector @@ to_tsquery('simple', 'hel:*')"))
+				.contains("idx_text_search_vector");
+	}
+
+	@Test
+	void searchTranslations() {
+		assertThat(explain("SELECT id FROM translation WHERE search_vector @@ to_tsquery('simple', 'hel:*')"))
+				.contains("idx_translation_search_vector");
+	}
+
+	@Test
+	void searchVectorStemsAndKeepsTheWord() {
+		jdbcTemplate.update("INSERT INTO text (id, text_to_translate, content_hash) "
+				+ "VALUES (nextval('text_seq'), 'Running dogs', 7)");
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM text WHERE search_vector @@ "
+				+ "(to_tsquery('english', 'run') || to_tsquery('simple', 'run'))", Long.class))
+				.isEqualTo(1L);
+		assertThat(jdbcTemplate.queryForObject("SELECT count(*) FROM text WHERE search_vector @@ "
+				+ "(to_tsquery('english', 'runn:*') || to_tsquery('simple', 'runn:*'))", Long.class))
+				.isEqualTo(1L);
+	}
+
+	@Test
+	void longDocumentsAreUniqueByContentHash() {
+		StringBuilder document = new StringBuilder();
+		for (int i = 0; document.length() < 20_000; i++) {
+			document.append("Sentence number ").append(i).append(" of a long document. ");
+		}
+		String content = document.toString();
+		long contentHash = ContentHash.of(content);
+		jdbcTemplate.update("INSERT INTO text (id, text_to_translate, content_hash) "
+				+ "VALUES (nextval('text_seq'), ?, ?)", content, contentHash);
+		jdbcTemplate.update("INSERT INTO translation (id, translated_text, content_hash, text_id) "
+				+ "SELECT nextval('translation_seq'), ?, ?, id FROM text WHERE content_hash = ?",
+				content, contentHash, contentHash);
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"INSERT INTO text (id, text_to_translate, content_hash) "
+				+ "VALUES (nextval('text_seq'), 'another content', ?)", contentHash));
+	}
+
+	@Test
+	void duplicateLanguageNameIsRejected() {
+		jdbcTemplate.update("INSERT INTO language (id, name) VALUES (nextval('language_seq'), 'Esperanto')");
+		assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+				"INSERT INTO language (id, name) VALUES (nextval('language_seq'), 'Esperanto')"));
+	}
+
+	private String explain(String query) {
+		return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+			try (Statement statement = connection.createStatement()) {
+				statement.execute("SET enable_seqscan = off");
+				List<String> plan = new ArrayList<>();
+				try (ResultSet rows = statement.executeQuery("EXPLAIN " + query)) {
+					while (rows.next()) {
+						plan.add(rows.getString(1));
+					}
+				}
+				statement.execute("RESET enable_seqscan");
+				String joined = String.join("\n", plan);
+				assertThat(joined).doesNotContain("Seq Scan");
+				return joined;
+			}
+		});
+	}
+}
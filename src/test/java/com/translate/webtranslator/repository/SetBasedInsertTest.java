@@ -0,0 +1,129 @@
+package com.translate.webtranslator.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import com.translate.webtranslator.model.ContentHash;
+
+/**
+ * Runs the set-based INSERT ... ON CONFLICT statements with more than one row against
+ * PostgreSQL, since the unit tests only see the repositories as mocks. Running them twice
+ * adds nothing the second time. Skipped without Docker.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(properties = {
+		"cache.warmup.enabled=false",
+		"cache.snapshot.enabled=false"})
+@Transactional
+class SetBasedInsertTest {
+
+	@Container
+	@ServiceConnection
+	static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:16-alpine");
+
+	@Autowired
+	private TextRepository textRepository;
+
+	@Autowired
+	private TranslationRepository translationRepository;
+
+	@Autowired
+	private LanguageRepository languageRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Test
+	void upsertStatements() {
+		String[] names = {"Upsert German", "Upsert French"};
+		String[] translatedTexts = {"hallo", "bonjour"};
+		Long[] translationHashes = {ContentHash.of("hallo"), ContentHash.of("bonjour")};
+		for (int run = 0; run < 2; run++) {
+			textRepository.insertIfAbsent("hello", ContentHash.of("hello"));
+			translationRepository.insertMissing("hello", ContentHash.of("hello"), translatedTexts,
+					translationHashes);
+			languageRepository.insertMissing(names);
+			textRepository.insertLanguageLinks("hello", ContentHash.of("hello"), List.of(names));
+		}
+
+		assertThat(count("SELECT COUNT(*) FROM translation tr JOIN text t ON t.id = tr.text_id "
+				+ "WHERE t.text_to_translate = 'hello'")).isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM language WHERE name LIKE 'Upsert %'")).isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM text_language tl JOIN text t ON t.id = tl.text_id "
+				+ "WHERE t.text_to_translate = 'hello'")).isEqualTo(2);
+	}
+
+	@Test
+	void machineTranslations() {
+		languageRepository.insertMissing(new String[] {"Machine German", "Machine French"});
+		textRepository.insertIfAbsent("machine", ContentHash.of("machine"));
+		long textId = count("SELECT id FROM text WHERE text_to_translate = 'machine'");
+		Long[] languageIds = {
+				count("SELECT id FROM language WHERE name = 'Machine German'"),
+				count("SELECT id FROM language WHERE name = 'Machine French'")};
+		String[] documents = {"Maschine", "machine"};
+		Long[] hashes = {ContentHash.of("Maschine"), ContentHash.of("machine")};
+		for (int run = 0; run < 2; run++) {
+			translationRepository.insertMachineTranslations(textId, languageIds, documents, hashes);
+		}
+
+		assertThat(count("SELECT COUNT(*) FROM translation WHERE text_id = " + textId
+				+ " AND language_id IS NOT NULL")).isEqualTo(2);
+	}
+
+	@Test
+	void segments() {
+		languageRepository.insertMissing(new String[] {"Segment German", "Segment French"});
+		Long german = count("SELECT id FROM language WHERE name = 'Segment German'");
+		Long french = count("SELECT id FROM language WHERE name = 'Segment French'");
+		String[] contents = {"Good morning.", "Hello world!"};
+		Long[] hashes = {ContentHash.of("Good morning."), ContentHash.of("Hello world!")};
+		for (int run = 0; run < 2; run++) {
+			translationRepository.insertSegments(contents, hashes);
+			translationRepository.insertSegmentTranslations(
+					new String[] {"Good morning.", "Hello world!", "Hello world!"},
+					new Long[] {hashes[0], hashes[1], hashes[1]},
+					new Long[] {german, german, french},
+					new String[] {"Guten Morgen.", "Hallo Welt!", "Bonjour monde !"});
+		}
+
+		assertThat(count("SELECT COUNT(*) FROM segment")).isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM segment_translation")).isEqualTo(3);
+	}
+
+	@Test
+	void importStatements() {
+		String[] texts = {"import one", "import two"};
+		Long[] hashes = {ContentHash.of("import one"), ContentHash.of("import two")};
+		for (int run = 0; run < 2; run++) {
+			textRepository.insertAllIfAbsent(texts, hashes);
+			languageRepository.insertMissing(new String[] {"Import German", "Import French"});
+			translationRepository.insertAllMissing(texts, hashes, new String[] {"eins", "zwei"},
+					new Long[] {ContentHash.of("eins"), ContentHash.of("zwei")});
+			textRepository.insertAllLanguageLinks(new String[] {"import one", "import one", "import two"},
+					new Long[] {hashes[0], hashes[0], hashes[1]},
+					new String[] {"Import German", "Import French", "Import German"});
+		}
+
+		assertThat(count("SELECT COUNT(*) FROM text WHERE text_to_translate LIKE 'import %'")).isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM translation tr JOIN text t ON t.id = tr.text_id "
+				+ "WHERE t.text_to_translate LIKE 'import %'")).isEqualTo(2);
+		assertThat(count("SELECT COUNT(*) FROM text_language tl JOIN text t ON t.id = tl.text_id "
+				+ "WHERE t.text_to_translate LIKE 'import %'")).isEqualTo(3);
+	}
+
+	private long count(String query) {
+		return jdbcTemplate.queryForObject(query, Long.class);
+	}
+}
@@ -0,0 +1,119 @@
+package com.translate.webtranslator.service;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Properties;
+
+/**
+ * Throughput benchmark of the two ways Hibernate can insert a bulk of texts into PostgreSQL.
+ * "identity" is what the entities did before: every row is its own INSERT ... RETURNING id
+ * round trip, because the id is only known once the row exists. "sequence" is what they do
+ * now: ids are taken from a sequence in blocks of 100 (one nextval per block, as the pooled
+ * optimizer does), and the rows go out as JDBC batches of 100, which the driver rewrites into
+ * multi-row INSERTs. Both modes commit once and print rows/s.
+ * The benchmark works on its own scratch tables, which it drops afterwards.
+ * Run it with {@code java -cp target/test-classes:<postgresql driver>
+ * com.translate.webtranslator.service.BulkInsertBenchmark [jdbcUrl] [user] [password] [rows]}.
+ */
+public final class BulkInsertBenchmark {
+
+    private static final int BATCH_SIZE = 100;
+    private static final int WARMUP_ROWS = 5_000;
+
+    private BulkInsertBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        String url = args.length > 0 ? args[0] : "jdbc:postgresql://localhost:5432/translatorDataBase";
+        Properties properties = new Properties();
+        properties.setProperty("user", args.length > 1 ? args[1] : "postgres");
+        properties.setProperty("password", args.length > 2 ? args[2] : "0244");
+        properties.setProperty("reWriteBatchedInserts", "true");
+        int rows = args.length > 3 ? Integer.parseInt(args[3]) : 100_000;
+        try (Connection connection = DriverManager.getConnection(url, properties)) {
+            connection.setAutoCommit(false);
+            try {
+                createTables(connection);
+                insertWithIdentity(connection, WARMUP_ROWS);
+                insertWithSequence(connection, WARMUP_ROWS);
+                System.out.printf("%-10s %12s %12s%n", "mode", "rows", "rows/s");
+                System.out.printf("%-10s %12d %12.0f%n", "identity", rows, insertWithIdentity(connection, rows));
+                System.out.printf("%-10s %12d %12.0f%n", "sequence", rows, insertWithSequence(connection, rows));
+            } finally {
+                dropTables(connection);
+            }
+        }
+    }
+
+    private static double insertWithIdentity(Connection connection, int rows) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO bench_identity_text (text_to_translate) VALUES (?)",
+                Statement.RETURN_GENERATED_KEYS)) {
+            for (int i = 0; i < rows; i++) {
+                insert.setString(1, "text " + i);
+                insert.executeUpdate();
+                try (ResultSet keys = insert.getGeneratedKeys()) {
+                    keys.next();
+                }
+            }
+        }
+        connection.commit();
+        return rows * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static double insertWithSequence(Connection connection, int rows) throws SQLException {
+        long start = System.nanoTime();
+        try (PreparedStatement nextBlock = connection.prepareStatement("SELECT nextval('bench_text_seq')");
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO bench_sequence_text (id, text_to_translate) VALUES (?, ?)")) {
+            long nextId = 0;
+            long blockEnd = 0;
+            for (int i = 0; i < rows; i++) {
+                if (nextId == blockEnd) {
+                    try (ResultSet block = nextBlock.executeQuery()) {
+                        block.next();
+                        blockEnd = block.getLong(1);
+                        nextId = blockEnd - BATCH_SIZE;
+                    }
+                }
+                insert.setLong(1, ++nextId);
+                insert.setString(2, "text " + i);
+                insert.addBatch();
+                if ((i + 1) % BATCH_SIZE == 0) {
+                    insert.executeBatch();
+                }
+            }
+            insert.executeBatch();
+        }
+        connection.commit();
+        return rows * 1e9 / (System.nanoTime() - start);
+    }
+
+    private static void createTables(Connection connection) throws SQLException {
+        dropTables(connection);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE bench_identity_text (id BIGINT GENERATED BY DEFAULT AS IDENTITY"
+                    + " PRIMARY KEY, text_to_translate VARCHAR(255))");
+            statement.execute("CREATE TABLE bench_sequence_text (id BIGINT PRIMARY KEY,"
+                    + " text_to_translate VARCHAR(255))");
+            statement.execute("CREATE SEQUENCE bench_text_seq START WITH " + BATCH_SIZE
+                    + " INCREMENT BY " + BATCH_SIZE);
+        }
+        connection.commit();
+    }
+
+    private static void dropTables(Connection connection) throws SQLException {
+        connection.rollback();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS bench_identity_text");
+            statement.execute("DROP TABLE IF EXISTS bench_sequence_text");
+            statement.execute("DROP SEQUENCE IF EXISTS bench_text_seq");
+        }
+        connection.commit();
+    }
+}
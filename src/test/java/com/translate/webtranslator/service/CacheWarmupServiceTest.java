@@ -0,0 +1,153 @@
+package com.translate.webtranslator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.CacheSnapshotStore;
+import com.translate.webtranslator.cache.CacheSpec;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.cache.Weigher;
+import com.translate.webtranslator.config.CacheConfig;
+import com.translate.webtranslator.config.CacheProperties;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CacheWarmupServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private LanguageRepository languageRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@TempDir
+	Path directory;
+
+	private InMemoryCache textCache;
+	private InMemoryCache languageCache;
+	private CacheSnapshotStore snapshotStore;
+	private CacheProperties properties;
+	private CacheWarmupService warmupService;
+
+	@BeforeEach
+	void setUp() {
+		textCache = new InMemoryCache(CacheConfig.TEXT_CACHE, new CacheSpec(), Weigher.SINGLETON);
+		languageCache = new InMemoryCache(CacheConfig.LANGUAGE_CACHE, new CacheSpec(), Weigher.SINGLETON);
+		snapshotStore = new CacheSnapshotStore(directory);
+		properties = new CacheProperties();
+		properties.getWarmup().setBatchSize(2);
+		warmupService = new CacheWarmupService(textRepository, translationRepository, languageRepository,
+				textCache, new InMemoryCache(CacheConfig.TRANSLATION_CACHE, new CacheSpec(), Weigher.SINGLETON),
+				languageCache, snapshotStore, transactionManager, properties);
+	}
+
+	@Test
+	void shouldLoadSnapshotKeysInBatches() throws IOException {
+		InMemoryCache previous = new InMemoryCache(CacheConfig.TEXT_CACHE, new CacheSpec(), Weigher.SINGLETON);
+		List<Text> texts = new ArrayList<>();
+		for (long id = 1; id <= 3; id++) {
+			Text text = text(id, "text " + id);
+			texts.add(text);
+			previous.put(CacheKey.id(id), text);
+		}
+		previous.put(CacheKey.content("hello"), text(4L, "hello"));
+		snapshotStore.write(CacheConfig.TEXT_CACHE, previous.snapshot(false));
+		when(textRepository.findAllById(any())).thenAnswer(invocation -> {
+			Iterable<Long> ids = invocation.getArgument(0);
+			List<Text> found = new ArrayList<>();
+			ids.forEach(id -> found.add(texts.get((int) (id - 1))));
+			return found;
+		});
+		when(textRepository.findAllByContentHashIn(List.of(ContentHash.of("hello"))))
+				.thenReturn(List.of(text(4L, "hello")));
+
+		assertEquals(4, warmupService.warmUp());
+
+		assertSame(texts.get(2), textCache.get(CacheKey.id(3L)));
+		assertEquals("hello", ((Text) textCache.get(CacheKey.content("hello"))).getTextToTranslate());
+		assertEquals(4, textCache.getSize());
+		verify(languageRepository, never()).findMostUsed(any());
+	}
+
+	@Test
+	void shouldResolveLanguageNamesWithOneFindAll() throws IOException {
+		InMemoryCache previous = new InMemoryCache(CacheConfig.LANGUAGE_CACHE, new CacheSpec(), Weigher.SINGLETON);
+		List<Language> languages = new ArrayList<>();
+		for (String name : List.of("English", "German", "French", "Spanish")) {
+			Language language = language((long) languages.size() + 1, name);
+			languages.add(language);
+			if (!name.equals("Spanish")) {
+				previous.put(CacheKey.content(name), language);
+			}
+		}
+		snapshotStore.write(CacheConfig.LANGUAGE_CACHE, previous.snapshot(false));
+		when(languageRepository.findAll()).thenReturn(languages);
+
+		assertEquals(3, warmupService.warmUp());
+
+		verify(languageRepository, times(1)).findAll();
+		assertSame(languages.get(2), languageCache.get(CacheKey.content("French")));
+		assertEquals(3, languageCache.getSize());
+	}
+
+	@Test
+	void shouldWarmMostUsedLanguages() {
+		properties.getWarmup().setTopLanguages(1);
+		Language language = language(5L, "English");
+		when(languageRepository.findMostUsed(PageRequest.of(0, 1))).thenReturn(List.of(language));
+
+		assertEquals(1, warmupService.warmUp());
+
+		assertSame(language, languageCache.get(CacheKey.id(5L)));
+		assertSame(language, languageCache.get(CacheKey.content("English")));
+	}
+
+	private static Language language(Long id, String name) {
+		Language language = new Language();
+		language.setId(id);
+		language.setName(name);
+		language.setTexts(new LinkedHashSet<>());
+		return language;
+	}
+
+	private static Text text(Long id, String value) {
+		Text text = new Text();
+		text.setId(id);
+		text.setTextToTranslate(value);
+		text.setTranslations(new ArrayList<>());
+		text.setLanguages(new LinkedHashSet<>());
+		return text;
+	}
+}
@@ -0,0 +1,66 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+
+class FullTextQueryTest {
+
+	@Test
+	void prefixQuery_everyWordAsPrefix() {
+		assertThat(FullTextQuery.prefixQuery("Hello, wor")).isEqualTo("Hello:* & wor:*");
+		assertThat(FullTextQuery.prefixQuery("привет мир")).isEqualTo("привет:* & мир:*");
+	}
+
+	@Test
+	void prefixQuery_dropsOperators() {
+		assertThat(FullTextQuery.prefixQuery("a & !b | (c:*)")).isEqualTo("a:* & b:* & c:*");
+	}
+
+	@Test
+	void prefixQuery_noWords() {
+		assertThrows(IllegalArgumentException.class, () -> FullTextQuery.prefixQuery(" !& "));
+		assertThrows(IllegalArgumentException.class, () -> FullTextQuery.prefixQuery(null));
+	}
+
+	@Test
+	void pageOf_tokenCarriesRank() {
+		float rank = 0.0607927f;
+		KeysetPage<SearchHit> page = FullTextQuery.pageOf(
+				List.of(hit(3L, "one", rank), hit(8L, "two", rank)), 1);
+		KeysetToken next = KeysetToken.decode(page.next());
+		assertThat(FullTextQuery.rankOf(next)).isEqualTo(rank);
+		assertThat(next.id()).isEqualTo(3L);
+	}
+
+	@Test
+	void rankOf_invalidToken() {
+		assertThrows(IllegalArgumentException.class,
+				() -> FullTextQuery.rankOf(new KeysetToken("not a rank", 1L)));
+	}
+
+	static SearchHit hit(long id, String content, float rank) {
+		return new SearchHit() {
+			@Override
+			public Long getId() {
+				return id;
+			}
+
+			@Override
+			public String getContent() {
+				return content;
+			}
+
+			@Override
+			public Float getRank() {
+				return rank;
+			}
+		};
+	}
+}
@@ -0,0 +1,58 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.dto.KeysetPage;
+
+class KeysetTokenTest {
+
+	@Test
+	void encodeAndDecode_roundTrip() {
+		KeysetToken token = new KeysetToken("Привет, мир / ?&=", 42L);
+		String encoded = token.encode();
+		assertThat(encoded).matches("[A-Za-z0-9_-]+");
+		assertThat(KeysetToken.decode(encoded)).isEqualTo(token);
+	}
+
+	@Test
+	void decode_invalidToken() {
+		assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode("not a token!"));
+		assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode("AAAA"));
+	}
+
+	@Test
+	void sortKeyOf_cutsCodePoints() {
+		String emoji = "\uD83D\uDE00";
+		String content = "a".repeat(KeysetToken.SORT_KEY_LENGTH - 1) + emoji + "tail";
+		assertThat(KeysetToken.sortKeyOf(content)).isEqualTo("a".repeat(KeysetToken.SORT_KEY_LENGTH - 1) + emoji);
+		assertThat(KeysetToken.sortKeyOf("short")).isEqualTo("short");
+	}
+
+	@Test
+	void decode_rejectsLongSortKey() {
+		String token = new KeysetToken("a".repeat(KeysetToken.SORT_KEY_LENGTH + 1), 1L).encode();
+		assertThrows(IllegalArgumentException.class, () -> KeysetToken.decode(token));
+	}
+
+	@Test
+	void pageOf_lastPage() {
+		KeysetPage<String> page = KeysetToken.pageOf(List.of("a", "b"), 2, Function.identity(),
+				value -> (long) value.charAt(0));
+		assertThat(page.content()).containsExactly("a", "b");
+		assertThat(page.next()).isNull();
+	}
+
+	@Test
+	void pageOf_moreRows() {
+		KeysetPage<String> page = KeysetToken.pageOf(List.of("a", "b", "c"), 2, Function.identity(),
+				value -> (long) value.charAt(0));
+		assertThat(page.content()).containsExactly("a", "b");
+		assertThat(KeysetToken.decode(page.next())).isEqualTo(new KeysetToken("b", 'b'));
+	}
+}
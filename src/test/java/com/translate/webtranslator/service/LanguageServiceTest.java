@@ -3,16 +3,21 @@ package com.translate.webtranslator.service;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +28,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import com.translate.webtranslator.cache.CacheKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.dto.LanguageSummary;
 import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.model.Text;
 import com.translate.webtranslator.repository.LanguageRepository;
@@ -60,19 +66,14 @@ class LanguageServiceTest {
 
 	@Test
 	void testGetAllLanguages() {
-		List<Language> expectedLanguages = new ArrayList<>();
-		Language language1 = new Language();
-		language1.setId(1L);
-		language1.setName("English");
-		Language language2 = new Language();
-		language2.setId(2L);
-		language2.setName("French");
-		expectedLanguages.add(language1);
-		expectedLanguages.add(language2);
-		when(languageRepository.findAll()).thenReturn(expectedLanguages);
-		List<Language> actualLanguages = languageService.getAllLanguages();
+		List<LanguageSummary> expectedLanguages = List.of(
+				new LanguageSummary(1L, "English", 3),
+				new LanguageSummary(2L, "French", 0));
+		when(languageRepository.findAllSummaries()).thenReturn(expectedLanguages);
+		List<LanguageSummary> actualLanguages = languageService.getAllLanguages();
 		assertEquals(expectedLanguages, actualLanguages);
-		verify(languageRepository, times(1)).findAll();
+		verify(languageRepository, times(1)).findAllSummaries();
+		verify(languageRepository, never()).findAll();
 	}
 
 	@Test
@@ -80,8 +81,7 @@ class LanguageServiceTest {
 		Language cachedLanguage = new Language();
 		cachedLanguage.setId(1L);
 		cachedLanguage.setName("English");
-		languageCache.put(new CacheKey(1L), cachedLanguage);
-		when(languageCache.get(new CacheKey(1L))).thenReturn(cachedLanguage);
+		when(languageCache.get(eq(CacheKey.id(1L)), any())).thenReturn(cachedLanguage);
 		Language language = languageService.getLanguageById(1L);
 		assertNotNull(cachedLanguage);
 		assertEquals(cachedLanguage, language);
@@ -93,10 +93,11 @@ class LanguageServiceTest {
 		Language uncachedLanguage = new Language();
 		uncachedLanguage.setId(1L);
 		uncachedLanguage.setName("English");
-		when(languageRepository.findById(1L)).thenReturn(Optional.of(uncachedLanguage));
+		loadThroughCache();
+		when(languageRepository.findGraphById(1L)).thenReturn(Optional.of(uncachedLanguage));
 		Language language = languageService.getLanguageById(1L);
 		assertEquals(uncachedLanguage, language);
-		verify(languageRepository, times(1)).findById(1L);
+		verify(languageRepository, times(1)).findGraphById(1L);
 	}
 
 	@Test
@@ -104,10 +105,16 @@ class LanguageServiceTest {
 		Language uncachedLanguage = new Language();
 		uncachedLanguage.setId(1L);
 		uncachedLanguage.setName("English");
-		when(languageRepository.findByName("English")).thenReturn(uncachedLanguage);
+		loadThroughCache();
+		when(languageRepository.findGraphByName("English")).thenReturn(uncachedLanguage);
 		Language language = languageService.getLanguageByLanguage("English");
 		assertEquals(uncachedLanguage, language);
-		verify(languageRepository, times(1)).findByName("English");
+		verify(languageRepository, times(1)).findGraphByName("English");
+	}
+
+	private void loadThroughCache() {
+		when(languageCache.get(any(CacheKey.class), any())).thenAnswer(invocation -> invocation
+				.<Function<CacheKey, Object>>getArgument(1).apply(invocation.getArgument(0)));
 	}
 
 	@Test
@@ -147,7 +154,7 @@ class LanguageServiceTest {
         Text text = new Text();
         text.setTextToTranslate("text");
 
-        language.setTexts(List.of(text));
+        language.setTexts(Set.of(text));
 
         when(languageRepository.save(any())).thenReturn(language);
         when(textRepository.save(any())).thenReturn(text);
@@ -166,7 +173,7 @@ class LanguageServiceTest {
 		Long textId = 1L;
 		Text text = new Text();
 		text.setId(textId);
-		text.setLanguages(new ArrayList<>());
+		text.setLanguages(new HashSet<>());
 		when(languageRepository.findById(languageId)).thenReturn(Optional.of(language));
 		when(textRepository.findById(textId)).thenReturn(Optional.of(text));
 		when(textRepository.save(any(Text.class))).thenReturn(null);
@@ -174,10 +181,42 @@ class LanguageServiceTest {
 		verify(languageRepository).findById(languageId);
 		verify(textRepository).findById(textId);
 		verify(textRepository).save(any(Text.class));
-		verify(languageCache).put(new CacheKey(language.getName()), language);
+		verify(languageCache, never()).put(any(), any());
 		assertEquals(language, result);
 		assertEquals(1, text.getLanguages().size());
-		assertEquals(language, text.getLanguages().get(0));
+		assertEquals(language, text.getLanguages().iterator().next());
+	}
+
+	@Test
+	void testLinksStayInSetsOnceSaved() {
+		Language language = new Language();
+		language.setName("English");
+		Text text = new Text();
+		text.setTextToTranslate("text");
+		Set<Language> languages = new HashSet<>(Set.of(language));
+		Set<Text> texts = new HashSet<>(Set.of(text));
+		language.setId(1L);
+		text.setId(2L);
+		assertTrue(languages.contains(language));
+		assertTrue(texts.contains(text));
+	}
+
+	@Test
+	void testAddTextInTextListAlreadyLinked() {
+		Language language = new Language();
+		language.setId(1L);
+		language.setName("English");
+		Language linkedCopy = new Language();
+		linkedCopy.setId(1L);
+		linkedCopy.setName("English");
+		Text text = new Text();
+		text.setId(2L);
+		text.setLanguages(new HashSet<>(Set.of(linkedCopy)));
+		when(languageRepository.findById(1L)).thenReturn(Optional.of(language));
+		when(textRepository.findById(2L)).thenReturn(Optional.of(text));
+		languageService.addTextInTextList(1L, 2L);
+		verify(textRepository, never()).save(any(Text.class));
+		assertEquals(1, text.getLanguages().size());
 	}
 
 	@Test
@@ -189,7 +228,7 @@ class LanguageServiceTest {
 		Long textId = 1L;
 		Text text = new Text();
 		text.setId(textId);
-		text.setLanguages(new ArrayList<>());
+		text.setLanguages(new HashSet<>());
 		text.getLanguages().add(language);
 		when(textRepository.findById(textId)).thenReturn(Optional.of(text));
 		when(languageRepository.findById(languageId)).thenReturn(Optional.of(language));
@@ -198,7 +237,7 @@ class LanguageServiceTest {
 		Language result = languageService.delTextInTextList(languageId, textId);
 		verify(textRepository).findById(textId);
 		verify(textRepository).save(any(Text.class));
-		verify(languageCache).put(new CacheKey(language.getName()), language);
+		verify(languageCache, never()).put(any(), any());
 		assertEquals(language, result);
 		assertEquals(0, text.getLanguages().size());
 	}
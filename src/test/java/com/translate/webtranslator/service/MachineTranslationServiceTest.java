@@ -0,0 +1,211 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.AdditionalMatchers.aryEq;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.dto.SegmentTranslation;
+import com.translate.webtranslator.dto.TranslationCell;
+import com.translate.webtranslator.engine.TranslationBatcher;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class MachineTranslationServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private LanguageRepository languageRepository;
+
+	@Mock
+	private TranslationBatcher translationBatcher;
+
+	@Mock
+	private CacheInvalidationListener cacheInvalidationListener;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private MachineTranslationService machineTranslationService;
+
+	@BeforeEach
+	void setUp() {
+		machineTranslationService = new MachineTranslationService(textRepository, translationRepository,
+				languageRepository, translationBatcher, new InMemoryCache(), cacheInvalidationListener,
+				transactionManager);
+	}
+
+	@Test
+	void translatesOnlyTheMissingLanguages() {
+		Text text = text(1L, "Hello world");
+		when(textRepository.findById(1L)).thenReturn(Optional.of(text));
+		when(textRepository.findGraphById(1L)).thenReturn(Optional.of(text));
+		when(languageRepository.findAllByNameIn(any()))
+				.thenReturn(List.of(language(10L, "German"), language(11L, "French")));
+		when(translationRepository.findMachineTranslations(any(), any()))
+				.thenReturn(List.of(cell(1L, "French", "Bonjour monde")));
+		when(translationBatcher.translate("Hello world", "German"))
+				.thenReturn(CompletableFuture.completedFuture("Hallo Welt"));
+
+		Map<String, String> translations = machineTranslationService.translateText(1L,
+				List.of("German", "French", "German"));
+
+		assertThat(translations).containsExactly(Map.entry("German", "Hallo Welt"),
+				Map.entry("French", "Bonjour monde"));
+		verify(translationBatcher, never()).translate(anyString(), eq("French"));
+		verify(translationRepository).insertMachineTranslations(eq(1L), aryEq(new Long[] {10L}),
+				aryEq(new String[] {"Hallo Welt"}), any());
+		verify(textRepository).insertLanguageLinks("Hello world", text.getContentHash(), List.of("German"));
+		verify(cacheInvalidationListener).onEntityChange(text);
+	}
+
+	@Test
+	void translatesOnlyTheSegmentsWithoutAStoredTranslation() {
+		Text text = text(1L, "Good morning. Hello world!\nGood morning.");
+		when(textRepository.findById(1L)).thenReturn(Optional.of(text));
+		when(languageRepository.findAllByNameIn(any())).thenReturn(List.of(language(10L, "German")));
+		when(translationRepository.findSegmentTranslations(any(), eq(List.of(10L))))
+				.thenReturn(List.of(segment("Good morning.", "German", "Guten Morgen.")));
+		when(translationBatcher.translate("Hello world!", "German"))
+				.thenReturn(CompletableFuture.completedFuture("Hallo Welt!"));
+
+		assertThat(machineTranslationService.translateText(1L, List.of("German")))
+				.containsExactly(Map.entry("German", "Guten Morgen. Hallo Welt!\nGuten Morgen."));
+		verify(translationBatcher, times(1)).translate(anyString(), anyString());
+		verify(translationRepository).insertSegments(aryEq(new String[] {"Hello world!"}), any());
+		verify(translationRepository).insertSegmentTranslations(aryEq(new String[] {"Hello world!"}), any(),
+				aryEq(new Long[] {10L}), aryEq(new String[] {"Hallo Welt!"}));
+		verify(translationRepository).insertMachineTranslations(eq(1L), aryEq(new Long[] {10L}),
+				aryEq(new String[] {"Guten Morgen. Hallo Welt!\nGuten Morgen."}), any());
+	}
+
+	@Test
+	void writesNothingWhenAllLanguagesAreTranslated() {
+		when(textRepository.findById(1L)).thenReturn(Optional.of(text(1L, "Hello")));
+		when(languageRepository.findAllByNameIn(any())).thenReturn(List.of(language(10L, "German")));
+		when(translationRepository.findMachineTranslations(any(), any()))
+				.thenReturn(List.of(cell(1L, "German", "Hallo")));
+
+		assertThat(machineTranslationService.translateText(1L, List.of("German")))
+				.containsExactly(Map.entry("German", "Hallo"));
+		verify(translationRepository, never()).insertMachineTranslations(anyLong(), any(), any(), any());
+		verify(transactionManager, never()).getTransaction(any());
+	}
+
+	@Test
+	void memoizesEngineResults() {
+		when(translationBatcher.translate("Hello", "German"))
+				.thenReturn(CompletableFuture.completedFuture("Hallo"));
+
+		assertThat(machineTranslationService.translate("Hello", "German").join()).isEqualTo("Hallo");
+		assertThat(machineTranslationService.translate("Hello", "German").join()).isEqualTo("Hallo");
+		verify(translationBatcher, times(1)).translate("Hello", "German");
+	}
+
+	@Test
+	void rethrowsEngineFailures() {
+		when(textRepository.findById(1L)).thenReturn(Optional.of(text(1L, "Hello")));
+		when(languageRepository.findAllByNameIn(any())).thenReturn(List.of(language(10L, "Klingon")));
+		when(translationBatcher.translate("Hello", "Klingon")).thenReturn(CompletableFuture.failedFuture(
+				new IllegalArgumentException("No dictionary for language: Klingon")));
+
+		assertThrows(IllegalArgumentException.class,
+				() -> machineTranslationService.translateText(1L, List.of("Klingon")));
+		verify(translationRepository, never()).insertMachineTranslations(anyLong(), any(), any(), any());
+	}
+
+	@Test
+	void rejectsUnknownLanguagesAndTexts() {
+		assertThrows(IllegalArgumentException.class,
+				() -> machineTranslationService.translateText(1L, List.of(" ")));
+		when(textRepository.findById(2L)).thenReturn(Optional.empty());
+		assertThrows(IllegalStateException.class,
+				() -> machineTranslationService.translateText(2L, List.of("German")));
+		when(textRepository.findById(1L)).thenReturn(Optional.of(text(1L, "Hello")));
+		when(languageRepository.findAllByNameIn(any())).thenReturn(List.of());
+		assertThrows(IllegalStateException.class,
+				() -> machineTranslationService.translateText(1L, List.of("German")));
+	}
+
+	private static Text text(Long id, String content) {
+		Text text = new Text();
+		text.setId(id);
+		text.setTextToTranslate(content);
+		return text;
+	}
+
+	private static Language language(Long id, String name) {
+		Language language = new Language();
+		language.setId(id);
+		language.setName(name);
+		return language;
+	}
+
+	private static SegmentTranslation segment(String content, String language, String translatedText) {
+		return new SegmentTranslation() {
+			@Override
+			public String getContent() {
+				return content;
+			}
+
+			@Override
+			public String getLanguage() {
+				return language;
+			}
+
+			@Override
+			public String getTranslatedText() {
+				return translatedText;
+			}
+		};
+	}
+
+	private static TranslationCell cell(Long textId, String language, String translatedText) {
+		return new TranslationCell() {
+			@Override
+			public Long getTextId() {
+				return textId;
+			}
+
+			@Override
+			public String getLanguage() {
+				return language;
+			}
+
+			@Override
+			public String getTranslatedText() {
+				return translatedText;
+			}
+		};
+	}
+}
@@ -0,0 +1,36 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import com.translate.webtranslator.service.Segmenter.Segment;
+
+class SegmenterTest {
+
+	@Test
+	void splitsSentencesAndLines() {
+		List<Segment> segments = Segmenter.split("Hello world. How are you?\nA title\n\n  Last one.  ");
+
+		assertThat(segments).extracting(Segment::content)
+				.containsExactly("Hello world.", "How are you?", "A title", "", "Last one.");
+		assertThat(segments.get(4)).isEqualTo(new Segment("  ", "Last one.", "  "));
+	}
+
+	@Test
+	void joinKeepsTheWhitespace() {
+		String document = " One.  Two!\n\nThree ";
+
+		assertThat(Segmenter.join(Segmenter.split(document), content -> content)).isEqualTo(document);
+		assertThat(Segmenter.join(Segmenter.split(document), String::toUpperCase))
+				.isEqualTo(" ONE.  TWO!\n\nTHREE ");
+	}
+
+	@Test
+	void emptyDocument() {
+		assertThat(Segmenter.split("")).isEmpty();
+		assertThat(Segmenter.split("  ")).containsExactly(new Segment("  ", "", ""));
+	}
+}
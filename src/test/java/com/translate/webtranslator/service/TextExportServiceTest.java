@@ -0,0 +1,70 @@
+package com.translate.webtranslator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translate.webtranslator.dto.IdAndValue;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TextExportServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void shouldMergeOrderedStreamsIntoGzippedLines() throws IOException {
+		when(textRepository.streamTextsForExport()).thenReturn(Stream.of(
+				new IdAndValue(1L, "one"), new IdAndValue(2L, "two"), new IdAndValue(4L, "four")));
+		when(translationRepository.streamTranslationsForExport()).thenReturn(Stream.of(
+				new IdAndValue(1L, "uno"), new IdAndValue(1L, "eins"), new IdAndValue(3L, "orphan"),
+				new IdAndValue(4L, "cuatro")));
+		when(textRepository.streamLanguagesForExport()).thenReturn(Stream.of(
+				new IdAndValue(2L, "English")));
+		TextExportService exportService = new TextExportService(textRepository, translationRepository,
+				transactionManager, new ObjectMapper());
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+
+		assertEquals(3, exportService.exportTexts(output));
+
+		String exported;
+		try (GZIPInputStream input = new GZIPInputStream(new ByteArrayInputStream(output.toByteArray()))) {
+			exported = new String(input.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		assertEquals(List.of(
+				"{\"id\":1,\"textToTranslate\":\"one\",\"translations\":[\"uno\",\"eins\"],\"languages\":[]}",
+				"{\"id\":2,\"textToTranslate\":\"two\",\"translations\":[],\"languages\":[\"English\"]}",
+				"{\"id\":4,\"textToTranslate\":\"four\",\"translations\":[\"cuatro\"],\"languages\":[]}"),
+				exported.lines().toList());
+		ArgumentCaptor<TransactionDefinition> transaction = ArgumentCaptor.forClass(TransactionDefinition.class);
+		verify(transactionManager).getTransaction(transaction.capture());
+		assertTrue(transaction.getValue().isReadOnly());
+		assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, transaction.getValue().getIsolationLevel());
+	}
+}
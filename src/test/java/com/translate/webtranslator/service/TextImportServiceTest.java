@@ -0,0 +1,174 @@
+package com.translate.webtranslator.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+import com.translate.webtranslator.service.TextImportService.ImportProgress;
+
+import jakarta.persistence.EntityManager;
+
+@ExtendWith(MockitoExtension.class)
+class TextImportServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private LanguageRepository languageRepository;
+
+	@Mock
+	private CacheInvalidationListener cacheInvalidationListener;
+
+	@Mock
+	private EntityManager entityManager;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	private TextImportService textImportService;
+
+	@BeforeEach
+	void setUp() {
+		textImportService = new TextImportService(textRepository, translationRepository, languageRepository,
+				cacheInvalidationListener, entityManager, transactionManager, new ObjectMapper());
+	}
+
+	@Test
+	void shouldImportNdjsonInChunksAndReportBadLines() throws IOException {
+		String upload = """
+				{"textToTranslate": "one", "translations": ["uno"], "languages": ["English", "Spanish"]}
+				{"textToTranslate": "two", "languages": ["Spanish"]}
+				not json
+
+				{"textToTranslate": " "}
+				{"textToTranslate": "three"}
+				""";
+		List<ImportProgress> reports = new ArrayList<>();
+
+		ImportProgress last = textImportService.importTexts(stream(upload), TextImportService.Format.NDJSON,
+				2, reports::add);
+
+		assertEquals(2, reports.size());
+		assertFalse(reports.get(0).done());
+		assertEquals(2, reports.get(0).totalImported());
+		assertSame(last, reports.get(1));
+		assertTrue(last.done());
+		assertEquals(3, last.totalImported());
+		assertEquals(2, last.totalFailed());
+		assertEquals(List.of(3L, 5L), last.errors().stream().map(TextImportService.RowError::firstLine).toList());
+
+		verify(textRepository).insertAllIfAbsent(new String[] {"one", "two"},
+				new Long[] {ContentHash.of("one"), ContentHash.of("two")});
+		verify(textRepository).insertAllIfAbsent(new String[] {"three"},
+				new Long[] {ContentHash.of("three")});
+		verify(languageRepository).insertMissing(new String[] {"English", "Spanish"});
+		verify(translationRepository).insertAllMissing(new String[] {"one"},
+				new Long[] {ContentHash.of("one")}, new String[] {"uno"}, new Long[] {ContentHash.of("uno")});
+		verify(textRepository).insertAllLanguageLinks(new String[] {"one", "one", "two"},
+				new Long[] {ContentHash.of("one"), ContentHash.of("one"), ContentHash.of("two")},
+				new String[] {"English", "Spanish", "Spanish"});
+		verify(cacheInvalidationListener, times(2)).onEntitiesChange(anyCollection());
+		verify(entityManager, times(2)).clear();
+	}
+
+	@Test
+	void shouldImportCsvWithQuotedFields() throws IOException {
+		String upload = "languages,textToTranslate,translations\n"
+				+ "English;German,\"Hello, \"\"world\"\"\",Hallo\n"
+				+ ",\"two\nlines\",\n";
+
+		ImportProgress last = textImportService.importTexts(stream(upload), TextImportService.Format.CSV,
+				10, progress -> { });
+
+		assertEquals(2, last.totalImported());
+		verify(textRepository).insertAllIfAbsent(new String[] {"Hello, \"world\"", "two\nlines"},
+				new Long[] {ContentHash.of("Hello, \"world\""), ContentHash.of("two\nlines")});
+		verify(textRepository).insertAllLanguageLinks(new String[] {"Hello, \"world\"", "Hello, \"world\""},
+				new Long[] {ContentHash.of("Hello, \"world\""), ContentHash.of("Hello, \"world\"")},
+				new String[] {"English", "German"});
+	}
+
+	@Test
+	void shouldMergeRowsWithTheSameContent() throws IOException {
+		String upload = """
+				{"textToTranslate": "one", "translations": ["uno"], "languages": ["Spanish"]}
+				{"textToTranslate": "one", "translations": ["uno", "eins"], "languages": ["German"]}
+				""";
+
+		ImportProgress last = textImportService.importTexts(stream(upload), TextImportService.Format.NDJSON,
+				10, progress -> { });
+
+		assertEquals(2, last.totalImported());
+		assertEquals(0, last.totalFailed());
+		verify(textRepository).insertAllIfAbsent(new String[] {"one"}, new Long[] {ContentHash.of("one")});
+		verify(translationRepository).insertAllMissing(new String[] {"one", "one"},
+				new Long[] {ContentHash.of("one"), ContentHash.of("one")}, new String[] {"uno", "eins"},
+				new Long[] {ContentHash.of("uno"), ContentHash.of("eins")});
+		verify(textRepository).insertAllLanguageLinks(new String[] {"one", "one"},
+				new Long[] {ContentHash.of("one"), ContentHash.of("one")}, new String[] {"Spanish", "German"});
+	}
+
+	@Test
+	void shouldFailRowsWhoseContentHashBelongsToAnotherText() throws IOException {
+		// another content with the hash of "b"
+		Text other = mock(Text.class);
+		when(other.getContentHash()).thenReturn(ContentHash.of("b"));
+		when(other.getTextToTranslate()).thenReturn("other");
+		when(textRepository.findAllByContentHashIn(anyCollection())).thenReturn(List.of(other));
+
+		ImportProgress last = textImportService.importTexts(
+				stream("text\na\nb\nb\n"), TextImportService.Format.CSV, 10, progress -> { });
+
+		assertEquals(1, last.totalImported());
+		assertEquals(2, last.totalFailed());
+		assertEquals(List.of(3L), last.errors().stream().map(TextImportService.RowError::firstLine).toList());
+	}
+
+	@Test
+	void shouldReportFailedChunkAndContinue() throws IOException {
+		when(textRepository.insertAllIfAbsent(any(), any()))
+				.thenThrow(new IllegalStateException("boom"))
+				.thenReturn(1);
+
+		ImportProgress last = textImportService.importTexts(
+				stream("text\na\nb\nc\n"), TextImportService.Format.CSV, 2, progress -> { });
+
+		assertEquals(1, last.totalImported());
+		assertEquals(2, last.totalFailed());
+	}
+
+	private static ByteArrayInputStream stream(String content) {
+		return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+	}
+}
@@ -0,0 +1,123 @@
+package com.translate.webtranslator.service;
+
+import com.translate.webtranslator.cache.CacheSpec;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.cache.Weigher;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.TextRepository;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Proxy;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Benchmark of TextService.getTextById on a warm cache.
+ * Each measurement looks up ids of a fixed key space that fits the cache, for 1 to 8 threads,
+ * after warm-up iterations, and prints the throughput in ops/s and the bytes allocated per
+ * lookup, read from the per-thread allocation counters of the JVM. The service is called
+ * directly, without the Spring proxy, and the repository only answers the initial misses.
+ * Run it with {@code java -cp target/test-classes:target/classes:<dependencies>
+ * com.translate.webtranslator.service.TextServiceBenchmark}.
+ */
+public final class TextServiceBenchmark {
+
+    private static final int[] THREADS = {1, 2, 4, 8};
+    private static final int KEY_SPACE = 10_000;
+    private static final int WARMUP_ITERATIONS = 3;
+    private static final int MEASUREMENT_ITERATIONS = 5;
+    private static final long ITERATION_MILLIS = 1_000;
+
+    private TextServiceBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        CacheSpec spec = new CacheSpec();
+        // Capacity is split evenly across shards, so leave room for an uneven spread of ids.
+        spec.setMaxEntries(2 * KEY_SPACE);
+        TextService textService = new TextService(repository(),
+                new InMemoryCache("textCache", spec, Weigher.SINGLETON));
+        // The service takes the boxed ids the controllers bind, so they are boxed up front.
+        Long[] ids = new Long[KEY_SPACE];
+        for (int i = 0; i < KEY_SPACE; i++) {
+            ids[i] = (long) i + 1;
+            textService.getTextById(ids[i]);
+        }
+        System.out.printf("%-8s %16s %16s%n", "threads", "ops/s", "bytes/op");
+        for (int threads : THREADS) {
+            for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+                runIteration(threads, textService, ids);
+            }
+            double ops = 0;
+            double bytes = 0;
+            for (int i = 0; i < MEASUREMENT_ITERATIONS; i++) {
+                double[] result = runIteration(threads, textService, ids);
+                ops += result[0];
+                bytes += result[1];
+            }
+            System.out.printf("%-8d %16.0f %16.2f%n", threads, ops / MEASUREMENT_ITERATIONS,
+                    bytes / MEASUREMENT_ITERATIONS);
+        }
+    }
+
+    /**
+     * @return The throughput in ops/s and the bytes allocated per operation.
+     */
+    private static double[] runIteration(int threads, TextService textService, Long[] ids)
+            throws InterruptedException {
+        com.sun.management.ThreadMXBean threadBean =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        LongAdder operations = new LongAdder();
+        LongAdder allocated = new LongAdder();
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        long[] deadline = new long[1];
+        for (int t = 0; t < threads; t++) {
+            long seed = t;
+            Thread worker = new Thread(() -> {
+                long ops = 0;
+                int index = (int) (seed * 7919 % KEY_SPACE);
+                try {
+                    start.await();
+                    long allocatedBefore = threadBean.getCurrentThreadAllocatedBytes();
+                    while (System.nanoTime() < deadline[0]) {
+                        for (int i = 0; i < 64; i++) {
+                            index = index + 4099 >= KEY_SPACE ? index + 4099 - KEY_SPACE : index + 4099;
+                            textService.getTextById(ids[index]);
+                        }
+                        ops += 64;
+                    }
+                    allocated.add(threadBean.getCurrentThreadAllocatedBytes() - allocatedBefore);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    operations.add(ops);
+                    done.countDown();
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+        }
+        deadline[0] = System.nanoTime() + ITERATION_MILLIS * 1_000_000L;
+        start.countDown();
+        done.await();
+        long total = Math.max(1, operations.sum());
+        return new double[] {total * 1_000.0 / ITERATION_MILLIS, (double) allocated.sum() / total};
+    }
+
+    /**
+     * A repository that finds a text for every id and supports nothing else.
+     */
+    private static TextRepository repository() {
+        return (TextRepository) Proxy.newProxyInstance(TextRepository.class.getClassLoader(),
+                new Class<?>[] {TextRepository.class}, (proxy, method, args) -> {
+                    if (!method.getName().equals("findGraphById")) {
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                    Text text = new Text();
+                    text.setId((Long) args[0]);
+                    text.setTextToTranslate("text " + args[0]);
+                    return Optional.of(text);
+                });
+    }
+}
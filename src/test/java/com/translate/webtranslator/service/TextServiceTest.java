@@ -6,7 +6,9 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -15,8 +17,11 @@ import static org.mockito.Mockito.when;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -28,10 +33,12 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import com.translate.webtranslator.cache.CacheKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.dto.KeysetPage;
+import com.translate.webtranslator.dto.SearchHit;
+import com.translate.webtranslator.dto.TextSummary;
 import com.translate.webtranslator.model.Language;
 import com.translate.webtranslator.model.Text;
 import com.translate.webtranslator.model.Translation;
@@ -72,10 +79,10 @@ class TextServiceTest {
 	void shouldReturnPageOfTextsWhenTextsExist() {
 		int page = 1;
 		int size = 10;
-		Pageable pageable = PageRequest.of(page - 1, size, Sort.by("textToTranslate").ascending());
-		Page<Text> expectedPage = new PageImpl<>(List.of(new Text()));
+		Pageable pageable = PageRequest.of(page - 1, size);
+		Page<TextSummary> expectedPage = new PageImpl<>(List.of(new TextSummary(1L, "Hello")));
 		when(textRepository.findAllWithPagination(pageable)).thenReturn(expectedPage);
-		Page<Text> actualPage = textService.getTextsWithPagination(page, size);
+		Page<TextSummary> actualPage = textService.getTextsWithPagination(page, size);
 		assertThat(actualPage).isEqualTo(expectedPage);
 		verify(textRepository).findAllWithPagination(pageable);
 		verify(textRepository, times(0)).findById(1L);
@@ -87,9 +94,9 @@ class TextServiceTest {
 	void shouldReturnEmptyPageWhenTextsDoNotExist() {
 		int page = 1;
 		int size = 10;
-		Pageable pageable = PageRequest.of(page - 1, size, Sort.by("textToTranslate").ascending());
+		Pageable pageable = PageRequest.of(page - 1, size);
 		when(textRepository.findAllWithPagination(pageable)).thenReturn(Page.empty());
-		Page<Text> actualPage = textService.getTextsWithPagination(page, size);
+		Page<TextSummary> actualPage = textService.getTextsWithPagination(page, size);
 		assertThat(actualPage).isEmpty();
 		verify(textRepository).findAllWithPagination(pageable);
 		verify(textRepository, times(0)).findById(1L);
@@ -98,53 +105,40 @@ class TextServiceTest {
 	}
 
 	@Test
-	void saveText_existingText() {
-		Text text = new Text();
-		text.setTextToTranslate("Hello world");
-		Optional<Text> existingText = Optional.of(text);
-		when(textRepository.findByTextToTranslate(text.getTextToTranslate())).thenReturn(existingText);
-		Text savedText = textService.saveText(text);
-		verify(textRepository, never()).save(text);
-		verifyNoInteractions(textCache);
-		assertEquals(text, savedText);
-	}
-
-	@Test
-	void shouldSaveText() {
-		Text text = new Text();
-		text.setTextToTranslate("test");
-
-		when(textRepository.findByTextToTranslate(any())).thenReturn(Optional.empty());
-		when(textRepository.save(any())).thenReturn(text);
-
-		Text savedText = textService.saveText(text);
-
-		assertEquals(text, savedText);
-	}
-
-	@Test
-	void shouldThrowExceptionWhenTextIsNull() {
-		assertThrows(IllegalArgumentException.class, () -> textService.saveText(null));
+	void getTextsAfter_seeksPastToken() {
+		TextSummary first = new TextSummary(7L, "b");
+		TextSummary second = new TextSummary(3L, "c");
+		String token = new KeysetToken("a", 5L).encode();
+		when(textRepository.findKeysetPageAfter("a", 5L, PageRequest.of(0, 2)))
+				.thenReturn(List.of(first, second));
+		KeysetPage<TextSummary> page = textService.getTextsAfter(token, 1);
+		assertThat(page.content()).containsExactly(first);
+		assertThat(KeysetToken.decode(page.next())).isEqualTo(new KeysetToken("b", 7L));
+		verify(textRepository, never()).findFirstKeysetPage(any());
 	}
 
 	@Test
-	void shouldNotSaveExistingText() {
-		Text text = new Text();
-		text.setTextToTranslate("test");
-
-		when(textRepository.findByTextToTranslate(any())).thenReturn(Optional.of(text));
-
-		Text savedText = textService.saveText(text);
-
-		assertEquals(text, savedText);
+	void getTextsAfter_tokenHoldsOnlyThePrefix() {
+		String document = "x".repeat(20_000);
+		when(textRepository.findFirstKeysetPage(PageRequest.of(0, 2)))
+				.thenReturn(List.of(new TextSummary(1L, document), new TextSummary(2L, "y")));
+		KeysetPage<TextSummary> page = textService.getTextsAfter(null, 1);
+		assertThat(KeysetToken.decode(page.next()))
+				.isEqualTo(new KeysetToken("x".repeat(KeysetToken.SORT_KEY_LENGTH), 1L));
+		assertThat(page.next()).hasSizeLessThan(200);
 	}
 
 	@Test
-	void saveText_nullText() {
-		Text text = null;
-		assertThrows(IllegalArgumentException.class, () -> textService.saveText(text));
-		verifyNoInteractions(textRepository);
-		verifyNoInteractions(textCache);
+	void searchTexts_seeksPastRankOfToken() {
+		SearchHit first = FullTextQueryTest.hit(9L, "hello world", 0.5f);
+		SearchHit second = FullTextQueryTest.hit(2L, "hello there", 0.25f);
+		String token = new KeysetToken(Float.toString(0.75f), 4L).encode();
+		when(textRepository.searchPageAfter("hello:* & wor:*", 0.75f, 4L, 2))
+				.thenReturn(List.of(first, second));
+		KeysetPage<SearchHit> page = textService.searchTexts("hello, wor", token, 1);
+		assertThat(page.content()).containsExactly(first);
+		assertThat(KeysetToken.decode(page.next())).isEqualTo(new KeysetToken("0.5", 9L));
+		verify(textRepository, never()).searchFirstPage(any(), anyInt());
 	}
 
 	@Test
@@ -153,7 +147,7 @@ class TextServiceTest {
 		Text cachedText = new Text();
 		cachedText.setId(textId);
 		cachedText.setTextToTranslate("Cached text");
-		when(textCache.get(new CacheKey(textId))).thenReturn(cachedText);
+		when(textCache.get(eq(CacheKey.id(textId)), any())).thenReturn(cachedText);
 		Text result = textService.getTextById(cachedText.getId());
 		assertEquals(cachedText, result);
 		verify(textRepository, never()).findById(anyLong());
@@ -166,20 +160,21 @@ class TextServiceTest {
 		Text repositoryText = new Text();
 		repositoryText.setId(textId);
 		repositoryText.setTextToTranslate("Repository text");
-		when(textCache.get(new CacheKey(textId))).thenReturn(null);
-		when(textRepository.findById(textId)).thenReturn(Optional.of(repositoryText));
+		loadThroughCache();
+		when(textRepository.findGraphById(textId)).thenReturn(Optional.of(repositoryText));
 		Text result = textService.getTextById(textId);
 		assertEquals(repositoryText, result);
-		verify(textRepository, times(1)).findById(textId);
+		verify(textRepository, times(1)).findGraphById(textId);
 	}
 
 	@Test
 	void testGetTextByIdTextNotFound() {
 		Long textId = 1L;
-		when(textRepository.findById(textId)).thenReturn(Optional.empty());
+		loadThroughCache();
+		when(textRepository.findGraphById(textId)).thenReturn(Optional.empty());
 		Text result = textService.getTextById(textId);
 		assertEquals(null, result);
-		verify(textRepository, times(1)).findById(textId);
+		verify(textRepository, times(1)).findGraphById(textId);
 		verify(textCache, never()).put(any(CacheKey.class), any(Text.class));
 	}
 
@@ -189,21 +184,21 @@ class TextServiceTest {
 		Text repositoryText = new Text();
 		repositoryText.setId(1L);
 		repositoryText.setTextToTranslate(text);
-		CacheKey cacheKey = new CacheKey(text);
-		when(textCache.get(cacheKey)).thenReturn(null);
-		when(textRepository.findByTextToTranslate(text)).thenReturn(Optional.of(repositoryText));
+		loadThroughCache();
+		when(textRepository.findGraphByTextToTranslate(text)).thenReturn(Optional.of(repositoryText));
 		Text result = textService.getTextByText(text);
 		assertEquals(repositoryText, result);
-		verify(textRepository, times(1)).findByTextToTranslate(text);
+		verify(textRepository, times(1)).findGraphByTextToTranslate(text);
 	}
 
 	@Test
 	void testGetTextByTextTextNotFound() {
 		String text = "Text to translate";
-		when(textRepository.findByTextToTranslate(text)).thenReturn(Optional.empty());
+		loadThroughCache();
+		when(textRepository.findGraphByTextToTranslate(text)).thenReturn(Optional.empty());
 		Text result = textService.getTextByText(text);
 		assertNull(result);
-		verify(textRepository, times(1)).findByTextToTranslate(text);
+		verify(textRepository, times(1)).findGraphByTextToTranslate(text);
 	}
 
 	@Test
@@ -272,7 +267,7 @@ class TextServiceTest {
 		translationsList.add(translation1);
 		translationsList.add(translation2);
 		existingText.setTranslations(translationsList);
-		List<Language> languagesList = new ArrayList<>();
+		Set<Language> languagesList = new LinkedHashSet<>();
 		Language language1 = new Language();
 		language1.setName("Language 1");
 		Language language2 = new Language();
@@ -298,7 +293,7 @@ class TextServiceTest {
 		Long textId = 1L;
 		when(textRepository.findById(textId)).thenReturn(Optional.empty());
 		assertThrows(IllegalStateException.class, () -> textService.deleteText(textId));
-		verify(textCache, times(1)).remove(any(CacheKey.class));
+		verifyNoInteractions(textCache);
 		verify(textRepository, times(1)).findById(textId);
 		verify(textRepository, never()).deleteById(textId);
 	}
@@ -336,6 +331,11 @@ class TextServiceTest {
 		assertEquals("Text 3 - created", result.get(2));
 	}
 
+	private void loadThroughCache() {
+		when(textCache.get(any(CacheKey.class), any())).thenAnswer(invocation -> invocation
+				.<Function<CacheKey, Object>>getArgument(1).apply(invocation.getArgument(0)));
+	}
+
 	@Test
 	void testTextRepositoryNotNull() {
 		assertNotNull(textService.getTextRepository());
@@ -0,0 +1,109 @@
+package com.translate.webtranslator.service;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.translate.webtranslator.cache.CacheInvalidationListener;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.model.Translation;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TextUpsertServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private LanguageRepository languageRepository;
+
+	@Mock
+	private CacheInvalidationListener cacheInvalidationListener;
+
+	@InjectMocks
+	private TextUpsertService textUpsertService;
+
+	@Test
+	void shouldWriteEachKindOfRowWithOneStatement() {
+		Text request = new Text();
+		request.setTextToTranslate("hello");
+		List<Translation> translations = new ArrayList<>();
+		for (String translatedText : List.of("hallo", "bonjour", "hallo")) {
+			Translation translation = new Translation();
+			translation.setTranslatedText(translatedText);
+			translations.add(translation);
+		}
+		request.setTranslations(translations);
+		Set<Language> languages = new LinkedHashSet<>();
+		for (String name : List.of("German", "French")) {
+			Language language = new Language();
+			language.setName(name);
+			languages.add(language);
+		}
+		request.setLanguages(languages);
+		Text saved = new Text();
+		when(textRepository.findGraphByTextToTranslate("hello")).thenReturn(Optional.of(saved));
+		long hash = ContentHash.of("hello");
+
+		Text result = textUpsertService.upsert(request);
+
+		assertSame(saved, result);
+		verify(textRepository).insertIfAbsent("hello", hash);
+		verify(translationRepository).insertMissing("hello", hash, new String[] {"hallo", "bonjour"},
+				new Long[] {ContentHash.of("hallo"), ContentHash.of("bonjour")});
+		verify(languageRepository).insertMissing(new String[] {"German", "French"});
+		verify(textRepository).insertLanguageLinks("hello", hash, Set.of("German", "French"));
+		verify(cacheInvalidationListener).onEntityChange(saved);
+	}
+
+	@Test
+	void shouldSkipEmptyTranslationsAndLanguages() {
+		Text request = new Text();
+		request.setTextToTranslate("hello");
+		when(textRepository.findGraphByTextToTranslate("hello")).thenReturn(Optional.of(new Text()));
+
+		textUpsertService.upsert(request);
+
+		verify(textRepository).insertIfAbsent("hello", ContentHash.of("hello"));
+		verifyNoInteractions(translationRepository, languageRepository);
+		verify(textRepository, never()).insertLanguageLinks(anyString(), anyLong(), anyCollection());
+	}
+
+	@Test
+	void shouldRejectBlankText() {
+		Text request = new Text();
+		request.setTextToTranslate(" ");
+
+		assertThrows(IllegalArgumentException.class, () -> textUpsertService.upsert(request));
+		verify(textRepository, never()).insertIfAbsent(anyString(), anyLong());
+		verify(translationRepository, never()).insertMissing(anyString(), anyLong(), any(), any());
+		verify(cacheInvalidationListener, never()).onEntityChange(any());
+	}
+}
@@ -0,0 +1,174 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.LongStream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.translate.webtranslator.cache.CacheKey;
+import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.dto.TextSummary;
+import com.translate.webtranslator.dto.TranslationCell;
+import com.translate.webtranslator.dto.TranslationMatrix;
+import com.translate.webtranslator.dto.TranslationMatrixRequest;
+import com.translate.webtranslator.model.ContentHash;
+import com.translate.webtranslator.model.Language;
+import com.translate.webtranslator.model.Text;
+import com.translate.webtranslator.repository.LanguageRepository;
+import com.translate.webtranslator.repository.TextRepository;
+import com.translate.webtranslator.repository.TranslationRepository;
+
+@ExtendWith(MockitoExtension.class)
+class TranslationMatrixServiceTest {
+
+	@Mock
+	private TextRepository textRepository;
+
+	@Mock
+	private TranslationRepository translationRepository;
+
+	@Mock
+	private LanguageRepository languageRepository;
+
+	private InMemoryCache textCache;
+
+	private TranslationMatrixService translationMatrixService;
+
+	@BeforeEach
+	void setUp() {
+		textCache = new InMemoryCache();
+		translationMatrixService = new TranslationMatrixService(textRepository, translationRepository,
+				languageRepository, textCache);
+	}
+
+	@Test
+	void fillsTheMatrixWithOneQueryPerKind() {
+		Text cached = text(1L, "Hello");
+		textCache.put(CacheKey.id(1L), cached);
+		textCache.put(CacheKey.content("Hello"), cached);
+		when(textRepository.findSummariesByIdIn(List.of(2L)))
+				.thenReturn(List.of(new TextSummary(2L, "Good morning")));
+		when(textRepository.findSummariesByContentHashIn(List.of(ContentHash.of("World"))))
+				.thenReturn(List.of(new TextSummary(3L, "World")));
+		when(languageRepository.findAllByNameIn(List.of("German", "French")))
+				.thenReturn(List.of(language(10L, "German"), language(11L, "French")));
+		when(translationRepository.findMachineTranslations(any(), any())).thenReturn(List.of(
+				cell(1L, "German", "Hallo"), cell(1L, "French", "Bonjour"),
+				cell(2L, "German", "Guten Morgen"), cell(3L, "French", "Monde")));
+
+		TranslationMatrix matrix = translationMatrixService.getMatrix(new TranslationMatrixRequest(
+				List.of(1L, 2L), List.of("Hello", "World"), List.of("German", "French", "German")));
+
+		assertThat(matrix.languages()).containsExactly("German", "French");
+		assertThat(matrix.rows()).containsExactly(
+				row(1L, "Hello", "Hallo", "Bonjour"),
+				row(2L, "Good morning", "Guten Morgen", null),
+				row(1L, "Hello", "Hallo", "Bonjour"),
+				row(3L, "World", null, "Monde"));
+		verify(translationRepository, times(1)).findMachineTranslations(any(), any());
+	}
+
+	@Test
+	void keepsMissingTextsAndLanguagesEmpty() {
+		when(textRepository.findSummariesByIdIn(List.of(5L))).thenReturn(List.of());
+		// another content with the same hash
+		when(textRepository.findSummariesByContentHashIn(any()))
+				.thenReturn(List.of(new TextSummary(7L, "Other")));
+		when(languageRepository.findAllByNameIn(List.of("Klingon"))).thenReturn(List.of());
+
+		TranslationMatrix matrix = translationMatrixService.getMatrix(new TranslationMatrixRequest(
+				List.of(5L), List.of("Unknown"), List.of("Klingon")));
+
+		assertThat(matrix.rows()).containsExactly(
+				new TranslationMatrix.Row(null, null, Collections.singletonMap("Klingon", null)),
+				new TranslationMatrix.Row(null, "Unknown", Collections.singletonMap("Klingon", null)));
+		verify(translationRepository, never()).findMachineTranslations(any(), any());
+	}
+
+	@Test
+	void loadsUncachedTextsInChunks() {
+		List<Long> ids = LongStream.rangeClosed(1, 1200).boxed().toList();
+		when(textRepository.findSummariesByIdIn(any())).thenAnswer(invocation -> {
+			List<Long> chunk = invocation.getArgument(0);
+			return chunk.stream().map(id -> new TextSummary(id, "Text " + id)).toList();
+		});
+		when(languageRepository.findAllByNameIn(any())).thenReturn(List.of(language(10L, "German")));
+		when(translationRepository.findMachineTranslations(any(), any())).thenReturn(List.of());
+
+		TranslationMatrix matrix = translationMatrixService.getMatrix(
+				new TranslationMatrixRequest(ids, null, List.of("German")));
+
+		assertThat(matrix.rows()).hasSize(1200);
+		assertThat(matrix.rows().get(1199).textId()).isEqualTo(1200L);
+		verify(textRepository, times(3)).findSummariesByIdIn(any());
+		verify(translationRepository, times(3)).findMachineTranslations(any(), any());
+	}
+
+	@Test
+	void rejectsTooLargeRequests() {
+		List<Long> ids = new ArrayList<>(Collections.nCopies(TranslationMatrixService.MAX_TEXTS + 1, 1L));
+		assertThrows(IllegalArgumentException.class, () -> translationMatrixService.getMatrix(
+				new TranslationMatrixRequest(ids, null, List.of("German"))));
+		List<String> languages = LongStream.rangeClosed(0, TranslationMatrixService.MAX_LANGUAGES)
+				.mapToObj(i -> "Language " + i).toList();
+		assertThrows(IllegalArgumentException.class, () -> translationMatrixService.getMatrix(
+				new TranslationMatrixRequest(List.of(1L), null, languages)));
+		verify(textRepository, never()).findSummariesByIdIn(any());
+	}
+
+	private static TranslationMatrix.Row row(Long textId, String text, String german, String french) {
+		Map<String, String> translations = new HashMap<>();
+		translations.put("German", german);
+		translations.put("French", french);
+		return new TranslationMatrix.Row(textId, text, translations);
+	}
+
+	private static Text text(Long id, String content) {
+		Text text = new Text();
+		text.setId(id);
+		text.setTextToTranslate(content);
+		return text;
+	}
+
+	private static Language language(Long id, String name) {
+		Language language = new Language();
+		language.setId(id);
+		language.setName(name);
+		return language;
+	}
+
+	private static TranslationCell cell(Long textId, String language, String translatedText) {
+		return new TranslationCell() {
+			@Override
+			public Long getTextId() {
+				return textId;
+			}
+
+			@Override
+			public String getLanguage() {
+				return language;
+			}
+
+			@Override
+			public String getTranslatedText() {
+				return translatedText;
+			}
+		};
+	}
+}
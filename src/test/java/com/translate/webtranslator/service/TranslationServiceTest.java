@@ -6,6 +6,7 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -14,6 +15,7 @@ import static org.mockito.Mockito.when;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Function;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -25,10 +27,10 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 
 import com.translate.webtranslator.cache.CacheKey;
 import com.translate.webtranslator.cache.InMemoryCache;
+import com.translate.webtranslator.dto.TranslationSummary;
 import com.translate.webtranslator.model.Text;
 import com.translate.webtranslator.model.Translation;
 import com.translate.webtranslator.repository.LanguageRepository;
@@ -68,10 +70,10 @@ class TranslationServiceTest {
 	void shouldReturnPageOfTranslationsWhenTranslationsExist() {
 		int page = 1;
 		int size = 10;
-		Pageable pageable = PageRequest.of(page - 1, size, Sort.by("translatedText").ascending());
-		Page<Translation> expectedPage = new PageImpl<>(List.of(new Translation()));
+		Pageable pageable = PageRequest.of(page - 1, size);
+		Page<TranslationSummary> expectedPage = new PageImpl<>(List.of(new TranslationSummary(1L, "Hallo", 2L)));
 		when(translationRepository.findAllTranslatiosWithPagination(pageable)).thenReturn(expectedPage);
-		Page<Translation> actualPage = translationService.getTranslationsWithPagination(page, size);
+		Page<TranslationSummary> actualPage = translationService.getTranslationsWithPagination(page, size);
 		assertThat(actualPage).isEqualTo(expectedPage);
 		verify(translationRepository).findAllTranslatiosWithPagination(pageable);
 		verify(translationRepository, times(0)).findById(1L);
@@ -108,9 +110,9 @@ class TranslationServiceTest {
 	void shouldReturnEmptyPageWhenTranslationsDoNotExist() {
 		int page = 1;
 		int size = 10;
-		Pageable pageable = PageRequest.of(page - 1, size, Sort.by("translatedText").ascending());
+		Pageable pageable = PageRequest.of(page - 1, size);
 		when(translationRepository.findAllTranslatiosWithPagination(pageable)).thenReturn(Page.empty());
-		Page<Translation> actualPage = translationService.getTranslationsWithPagination(page, size);
+		Page<TranslationSummary> actualPage = translationService.getTranslationsWithPagination(page, size);
 		assertThat(actualPage).isEmpty();
 		verify(translationRepository).findAllTranslatiosWithPagination(pageable);
 		verify(translationRepository, times(0)).findById(1L);
@@ -127,7 +129,7 @@ class TranslationServiceTest {
 		Translation result = translationService.deleteTranslation(translationId);
 		verify(translationRepository).findById(translationId);
 		verify(translationRepository).deleteById(translationId);
-		verify(translationCache).remove(new CacheKey(translationId));
+		verify(translationCache, never()).remove(any());
 		assertEquals(translation, result);
 	}
 
@@ -157,7 +159,7 @@ class TranslationServiceTest {
 		verify(translationRepository).findById(translationId);
 		verify(textRepository).findById(newTextId);
 		verify(translationRepository).save(translation);
-		verify(translationCache).put(new CacheKey(translation.getId()), translation);
+		verify(translationCache).put(CacheKey.id(translation.getId()), translation);
 		assertEquals(translation, result);
 		assertEquals(newText, translation.getText());
 	}
@@ -167,9 +169,9 @@ class TranslationServiceTest {
 		Long translationId = 1L;
 		Translation cachedTranslation = new Translation();
 		cachedTranslation.setId(translationId);
-		when(translationCache.get(new CacheKey(translationId))).thenReturn(cachedTranslation);
+		when(translationCache.get(eq(CacheKey.id(translationId)), any())).thenReturn(cachedTranslation);
 		Translation result = translationService.getById(translationId);
-		verify(translationCache).get(new CacheKey(translationId));
+		verify(translationCache).get(eq(CacheKey.id(translationId)), any());
 		verify(translationRepository, never()).findById(anyLong());
 		verify(translationCache, never()).put(any(), any());
 		assertEquals(cachedTranslation, result);
@@ -180,23 +182,28 @@ class TranslationServiceTest {
 		Long translationId = 1L;
 		Translation translation = new Translation();
 		translation.setId(translationId);
-		when(translationCache.get(new CacheKey(translationId))).thenReturn(null);
-		when(translationRepository.findById(translationId)).thenReturn(Optional.of(translation));
+		loadThroughCache();
+		when(translationRepository.findGraphById(translationId)).thenReturn(Optional.of(translation));
 		Translation result = translationService.getById(translationId);
-		verify(translationCache).get(new CacheKey(translationId));
-		verify(translationRepository).findById(translationId);
-		verify(translationCache).put(new CacheKey(translationId), translation);
+		verify(translationCache).get(eq(CacheKey.id(translationId)), any());
+		verify(translationRepository).findGraphById(translationId);
 		assertEquals(translation, result);
 	}
 
+	private void loadThroughCache() {
+		when(translationCache.get(any(CacheKey.class), any())).thenAnswer(invocation -> invocation
+				.<Function<CacheKey, Object>>getArgument(1).apply(invocation.getArgument(0)));
+	}
+
 	@Test
 	void testGetTranslationByTranslation() {
 		String translationText = "Translated Text";
 		Translation translation = new Translation();
 		translation.setTranslatedText(translationText);
-		when(translationRepository.findByTranslatedText(translationText)).thenReturn(Optional.of(translation));
+		loadThroughCache();
+		when(translationRepository.findGraphByTranslatedText(translationText)).thenReturn(Optional.of(translation));
 		Translation result = translationService.getTranslationByTranslation(translationText);
-		verify(translationRepository).findByTranslatedText(translationText);
+		verify(translationRepository).findGraphByTranslatedText(translationText);
 		assertEquals(translation, result);
 	}
 
@@ -215,7 +222,7 @@ class TranslationServiceTest {
 		List<String> result = translationService.bulkSaveTranslation(translations);
 		verify(translationRepository).saveAll(translations);
 		translations
-				.forEach(translation -> verify(translationCache).put(new CacheKey(translation.getId()), translation));
+				.forEach(translation -> verify(translationCache).put(CacheKey.id(translation.getId()), translation));
 		assertEquals(2, result.size());
 		assertTrue(result.contains("Translation 1 - created"));
 		assertTrue(result.contains("Translation 2 - created"));
@@ -0,0 +1,119 @@
+package com.translate.webtranslator.service;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Latency benchmark of the fuzzy search. It indexes synthetic segments of 4 to 12 words drawn
+ * from a Zipf-like vocabulary, then queries with indexed segments that had one word replaced,
+ * which is the "differs by one word" case of a translation memory. It prints the build time,
+ * the heap used by the index and the median and 99th percentile time of a top-10 search
+ * with a minimum score of 0.3. For comparison it also times a full scan that scores every
+ * segment, which is what a query without the index has to do.
+ * Run it with {@code java -Xmx4g -cp target/test-classes:target/classes
+ * com.translate.webtranslator.service.TrigramIndexBenchmark [segments] [queries]}.
+ */
+public final class TrigramIndexBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+    private static final int LIMIT = 10;
+    private static final double MIN_SCORE = 0.3;
+    private static final int SCANNED_QUERIES = 5;
+
+    private TrigramIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int segmentCount = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int queryCount = args.length > 1 ? Integer.parseInt(args[1]) : 1_000;
+        Random random = new Random(42);
+        String[] vocabulary = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            vocabulary[i] = word(random);
+        }
+        String[] segments = new String[segmentCount];
+        for (int i = 0; i < segmentCount; i++) {
+            segments[i] = segment(random, vocabulary);
+        }
+
+        Runtime runtime = Runtime.getRuntime();
+        System.gc();
+        long heapBefore = runtime.totalMemory() - runtime.freeMemory();
+        long start = System.nanoTime();
+        TrigramIndex index = new TrigramIndex();
+        for (int i = 0; i < segmentCount; i++) {
+            index.put(i, segments[i]);
+        }
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+        System.gc();
+        long heapAfter = runtime.totalMemory() - runtime.freeMemory();
+        System.out.printf("indexed %d segments in %d ms, ~%d MB of heap%n", segmentCount, buildMillis,
+                (heapAfter - heapBefore) >> 20);
+
+        String[] queries = new String[queryCount];
+        for (int i = 0; i < queryCount; i++) {
+            String[] words = segments[random.nextInt(segmentCount)].split(" ");
+            words[random.nextInt(words.length)] = vocabulary[random.nextInt(VOCABULARY)];
+            queries[i] = String.join(" ", words);
+        }
+        for (String query : queries) {
+            index.search(query, LIMIT, MIN_SCORE);
+        }
+        long[] nanos = new long[queryCount];
+        int found = 0;
+        for (int i = 0; i < queryCount; i++) {
+            long queryStart = System.nanoTime();
+            found += index.search(queries[i], LIMIT, MIN_SCORE).isEmpty() ? 0 : 1;
+            nanos[i] = System.nanoTime() - queryStart;
+        }
+        Arrays.sort(nanos);
+        System.out.printf("index search: p50 %.2f ms, p99 %.2f ms, %d of %d queries matched%n",
+                nanos[queryCount / 2] / 1e6, nanos[queryCount * 99 / 100] / 1e6, found, queryCount);
+
+        long scanStart = System.nanoTime();
+        for (int i = 0; i < SCANNED_QUERIES; i++) {
+            scan(segments, queries[i]);
+        }
+        System.out.printf("full scan: %.2f ms per query%n",
+                (System.nanoTime() - scanStart) / 1e6 / SCANNED_QUERIES);
+    }
+
+    private static int scan(String[] segments, String query) {
+        long[] queryTrigrams = TrigramIndex.trigrams(query);
+        int matched = 0;
+        for (String segment : segments) {
+            long[] trigrams = TrigramIndex.trigrams(segment);
+            int shared = 0;
+            for (long trigram : trigrams) {
+                if (Arrays.binarySearch(queryTrigrams, trigram) >= 0) {
+                    shared++;
+                }
+            }
+            if ((double) shared / (queryTrigrams.length + trigrams.length - shared) >= MIN_SCORE) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    private static String word(Random random) {
+        char[] word = new char[3 + random.nextInt(7)];
+        for (int i = 0; i < word.length; i++) {
+            word[i] = (char) ('a' + random.nextInt(26));
+        }
+        return new String(word);
+    }
+
+    private static String segment(Random random, String[] vocabulary) {
+        StringBuilder segment = new StringBuilder();
+        for (int i = 0, length = 4 + random.nextInt(9); i < length; i++) {
+            if (i > 0) {
+                segment.append(' ');
+            }
+            // squaring skews the draw towards the first words, like word frequencies
+            double skewed = random.nextDouble();
+            segment.append(vocabulary[(int) (skewed * skewed * VOCABULARY)]);
+        }
+        return segment.toString();
+    }
+}
@@ -0,0 +1,106 @@
+package com.translate.webtranslator.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+class TrigramIndexTest {
+
+	@Test
+	void trigrams_likePgTrgm() {
+		// "  ab", " ab", "ab " for the word "ab", the same again for "AB"
+		assertThat(TrigramIndex.trigrams("ab, AB!")).hasSize(3);
+		assertThat(TrigramIndex.trigrams("cat")).hasSize(4);
+		assertThat(TrigramIndex.trigrams(" ,. ")).isEmpty();
+	}
+
+	@Test
+	void search_ranksBySharedTrigrams() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1L, "the quick brown fox");
+		index.put(2L, "the quick brown dog");
+		index.put(3L, "a slow green turtle");
+
+		List<TrigramIndex.Match> matches = index.search("the quick brown fox", 10, 0.3);
+
+		assertThat(matches).extracting(TrigramIndex.Match::id).containsExactly(1L, 2L);
+		assertThat(matches.get(0).score()).isEqualTo(1.0);
+		assertThat(matches.get(1).score()).isBetween(0.5, 1.0);
+	}
+
+	@Test
+	void put_replacesAndRemoveDrops() {
+		TrigramIndex index = new TrigramIndex();
+		index.put(1L, "hello world");
+		index.put(1L, "goodbye moon");
+		index.put(2L, "hello world");
+		index.remove(2L);
+
+		assertThat(index.search("hello world", 10, 0.1)).isEmpty();
+		assertThat(index.search("goodbye moon", 10, 0.1)).extracting(TrigramIndex.Match::id)
+				.containsExactly(1L);
+		assertThat(index.size()).isEqualTo(1);
+	}
+
+	@Test
+	void search_matchesExhaustiveScoringAfterCompaction() {
+		Random random = new Random(7);
+		String[] words = {"red", "green", "blue", "house", "horse", "mouse", "table", "cable",
+				"translate", "translation", "text", "test"};
+		TrigramIndex index = new TrigramIndex();
+		String[] contents = new String[5_000];
+		for (int id = 0; id < contents.length; id++) {
+			contents[id] = sentence(random, words);
+			index.put(id, contents[id]);
+		}
+		// removes more than half, which compacts the posting lists
+		for (int id = 0; id < contents.length; id += 3) {
+			contents[id] = null;
+			index.remove(id);
+		}
+		for (int id = 1; id < contents.length; id += 3) {
+			contents[id] = null;
+			index.remove(id);
+		}
+		for (int i = 0; i < 20; i++) {
+			String query = sentence(random, words);
+			assertThat(index.search(query, 5, 0.4)).isEqualTo(exhaustive(contents, query, 5, 0.4));
+		}
+	}
+
+	private static String sentence(Random random, String[] words) {
+		StringBuilder sentence = new StringBuilder();
+		for (int i = 0, length = 2 + random.nextInt(4); i < length; i++) {
+			sentence.append(words[random.nextInt(words.length)]).append(' ');
+		}
+		return sentence.toString();
+	}
+
+	private static List<TrigramIndex.Match> exhaustive(String[] contents, String query, int limit,
+			double minScore) {
+		long[] queryTrigrams = TrigramIndex.trigrams(query);
+		List<TrigramIndex.Match> matches = new ArrayList<>();
+		for (int id = 0; id < contents.length; id++) {
+			if (contents[id] == null) {
+				continue;
+			}
+			long[] trigrams = TrigramIndex.trigrams(contents[id]);
+			long shared = Arrays.stream(trigrams)
+					.filter(trigram -> Arrays.binarySearch(queryTrigrams, trigram) >= 0)
+					.count();
+			double score = (double) shared / (queryTrigrams.length + trigrams.length - shared);
+			if (shared > 0 && score >= minScore) {
+				matches.add(new TrigramIndex.Match(id, score));
+			}
+		}
+		matches.sort(Comparator.comparingDouble(TrigramIndex.Match::score).reversed()
+				.thenComparingLong(TrigramIndex.Match::id));
+		return matches.subList(0, Math.min(limit, matches.size()));
+	}
+}